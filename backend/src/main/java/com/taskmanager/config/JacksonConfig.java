@@ -0,0 +1,47 @@
+package com.taskmanager.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Wire formats for the REST API. JSON stays the default; clients that send
+ * {@code Accept: application/x-jackson-smile} or {@code Accept: application/cbor} get the same
+ * documents in a binary encoding, where UUIDs are written as 16 raw bytes and, with Smile,
+ * repeated field names as back-references.
+ *
+ * All formats share the ObjectMapper configuration Spring Boot builds, including the Blackbird
+ * module, which replaces reflective property access with generated lambdas.
+ */
+@Configuration(proxyBeanMethods = false)
+public class JacksonConfig {
+
+    // Registered with every Boot-built ObjectMapper, as all Module beans are. A native image cannot
+    // define the lambdas Blackbird generates at runtime, so it keeps Jackson's reflective access there
+    @Bean
+    public Module blackbirdModule() {
+        return NativeDetector.inNativeImage() ? new SimpleModule() : new BlackbirdModule();
+    }
+
+    // Replace the converters Spring MVC would otherwise build with a plain, unconfigured mapper
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.factory(new SmileFactory()).build();
+        return new MappingJackson2SmileHttpMessageConverter(mapper);
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.factory(new CBORFactory()).build();
+        return new MappingJackson2CborHttpMessageConverter(mapper);
+    }
+}
@@ -0,0 +1,62 @@
+package com.taskmanager.config;
+
+import com.taskmanager.repository.InMemoryTaskRepository;
+import com.taskmanager.repository.TaskWriteAheadLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * The in-memory storage engine, used instead of JPA and H2 when
+ * {@code taskmanager.storage.engine=memory}. The {@code memory} profile sets that property and
+ * also turns off the DataSource, JPA and Flyway auto-configuration, which would otherwise still
+ * start a database and a second TaskRepository.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "taskmanager.storage.engine", havingValue = "memory")
+public class MemoryStorageConfig {
+
+    @Bean(destroyMethod = "close")
+    public InMemoryTaskRepository taskRepository(
+            @Value("${taskmanager.storage.memory.directory:./data/memory}") Path directory,
+            @Value("${taskmanager.storage.memory.sync-interval:PT0.1S}") Duration syncInterval,
+            @Value("${taskmanager.storage.memory.snapshot-threshold:64MB}") DataSize snapshotThreshold) {
+        return new InMemoryTaskRepository(
+                new TaskWriteAheadLog(directory), syncInterval, snapshotThreshold.toBytes());
+    }
+
+    // Each write is atomic on its own; @Transactional methods and batch chunks just run their writes
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new NoTransactionManager();
+    }
+
+    static class NoTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
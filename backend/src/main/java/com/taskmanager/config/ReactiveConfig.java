@@ -0,0 +1,114 @@
+package com.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * The reactive stack, used when the application runs as a reactive web application (the
+ * {@code reactive} profile): WebFlux on Reactor Netty, and R2DBC instead of JDBC for the
+ * {@link com.taskmanager.controller.ReactiveTaskController}'s database work. Flyway and the JPA
+ * beans still start, over JDBC, and create and migrate the schema.
+ *
+ * The R2DBC pool connects to the database of {@code spring.datasource}, with the same
+ * credentials; an H2 JDBC url is reused as it is, any other database needs
+ * {@code taskmanager.reactive.url}. Spring Boot's own R2DBC auto-configuration is excluded on
+ * {@link com.taskmanager.TaskManagerApplication}, so servlet runs open no R2DBC pool, and the
+ * transaction manager stays private: a second {@code TransactionManager} bean would replace the
+ * JPA one. Spring Boot's JDBC data source backs off when there is an R2DBC connection factory,
+ * so the Hikari pool is set up here, from the same properties, unless {@link ReadReplicaConfig}
+ * provides it.
+ *
+ * The H2 driver runs each statement on the subscribing thread. On an event loop, a statement
+ * waiting for a row lock would hold up every connection of that loop, possibly including the
+ * transaction that holds the lock, until the lock times out. So with H2 the statements run on
+ * the {@code databaseScheduler}, a thread per pooled connection; a network driver needs none.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    static final String H2_JDBC_PREFIX = "jdbc:h2:";
+
+    // Boot picks Tomcat over Netty when both are on the class path; the servlet stack needs Tomcat
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    @ConditionalOnProperty(name = "taskmanager.replicas.enabled", havingValue = "false", matchIfMissing = true)
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool reactiveConnectionFactory(
+            DataSourceProperties properties,
+            @Value("${taskmanager.reactive.url:}") String url,
+            @Value("${taskmanager.reactive.pool-size:20}") int poolSize,
+            @Value("${taskmanager.reactive.connection-timeout:PT5S}") Duration connectionTimeout) {
+        ConnectionFactory connectionFactory = url.isBlank()
+                ? h2ConnectionFactory(properties.determineUrl(), properties.determineUsername(), properties.determinePassword())
+                : ConnectionFactories.get(url);
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("reactive")
+                .initialSize(poolSize)
+                .maxSize(poolSize)
+                .maxAcquireTime(connectionTimeout)
+                .build());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler databaseScheduler(@Value("${taskmanager.reactive.url:}") String url,
+                                       @Value("${taskmanager.reactive.pool-size:20}") int poolSize) {
+        return url.isBlank()
+                ? Schedulers.newBoundedElastic(poolSize, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "r2dbc-h2")
+                : Schedulers.immediate();
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory reactiveConnectionFactory) {
+        return DatabaseClient.create(reactiveConnectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory reactiveConnectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(reactiveConnectionFactory));
+    }
+
+    static ConnectionFactory h2ConnectionFactory(String jdbcUrl, String username, String password) {
+        if (jdbcUrl == null || !jdbcUrl.startsWith(H2_JDBC_PREFIX)) {
+            throw new IllegalStateException("taskmanager.reactive.url must be set for " + jdbcUrl);
+        }
+        H2ConnectionConfiguration.Builder configuration = H2ConnectionConfiguration.builder()
+                .url(jdbcUrl.substring(H2_JDBC_PREFIX.length()))
+                .username(username);
+        if (password != null) {
+            configuration.password(password);
+        }
+        return new H2ConnectionFactory(configuration.build());
+    }
+}
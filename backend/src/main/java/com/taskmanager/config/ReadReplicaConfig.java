@@ -0,0 +1,94 @@
+package com.taskmanager.config;
+
+import com.taskmanager.repository.LocalReplicator;
+import com.taskmanager.repository.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replicas for the JPA engine, enabled by {@code taskmanager.replicas.enabled}. The
+ * {@code spring.datasource} settings describe the primary; each of
+ * {@code taskmanager.replicas.urls} gets its own pool with the same credentials. JPA, Flyway
+ * and everything else use the {@link ReplicaRoutingDataSource}, which only sends
+ * {@link com.taskmanager.repository.ReplicaReads} reads to the replicas.
+ *
+ * With {@code taskmanager.replicas.local-replication.enabled}, a {@link LocalReplicator} keeps
+ * embedded replicas in step with an embedded primary; the {@code replicas} profile sets that up.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "taskmanager.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // The local replicator, when enabled, is created first so the replicas have their schema
+    // before they are checked
+    @Bean(destroyMethod = "close")
+    @Primary
+    public ReplicaRoutingDataSource dataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            ObjectProvider<LocalReplicator> localReplicator,
+            @Value("${taskmanager.replicas.urls:}") List<String> urls,
+            @Value("${taskmanager.replicas.pool-size:10}") int poolSize,
+            @Value("${taskmanager.replicas.connection-timeout:PT1S}") Duration connectionTimeout,
+            @Value("${taskmanager.replicas.max-staleness:PT2S}") Duration maxStaleness,
+            @Value("${taskmanager.replicas.check-interval:PT0.5S}") Duration checkInterval) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("taskmanager.replicas.urls must list at least one replica");
+        }
+        localReplicator.getIfAvailable();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            replicas.put(name, replicaPool(name, urls.get(i), properties, poolSize, connectionTimeout));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxStaleness, checkInterval);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "taskmanager.replicas.local-replication.enabled", havingValue = "true")
+    public LocalReplicator localReplicator(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            @Value("${taskmanager.replicas.urls:}") List<String> urls,
+            @Value("${taskmanager.replicas.local-replication.interval:PT0.5S}") Duration interval) {
+        return new LocalReplicator(primaryDataSource, urls,
+                properties.determineUsername(), properties.determinePassword(), interval);
+    }
+
+    // Started on first use and never failing at startup, so a replica that is down does not stop the application
+    private static HikariDataSource replicaPool(String name, String url, DataSourceProperties properties,
+                                                int poolSize, Duration connectionTimeout) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setDriverClassName(properties.determineDriverClassName());
+        pool.setUsername(properties.determineUsername());
+        pool.setPassword(properties.determinePassword());
+        pool.setMaximumPoolSize(poolSize);
+        pool.setConnectionTimeout(connectionTimeout.toMillis());
+        pool.setInitializationFailTimeout(-1);
+        pool.setReadOnly(true);
+        return pool;
+    }
+}
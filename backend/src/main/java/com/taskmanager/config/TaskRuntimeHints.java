@@ -0,0 +1,31 @@
+package com.taskmanager.config;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskEvent;
+import com.taskmanager.model.TaskIdGenerator;
+import com.taskmanager.model.TaskView;
+import com.taskmanager.model.TimeOrderedId;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection the native image needs that AOT processing cannot infer from bean definitions and
+ * controller signatures. The {@link Task} entity's mapping and the {@code TaskRepository} proxy,
+ * query methods and custom fragment are already contributed by Spring Boot's JPA and Spring
+ * Data's AOT processing.
+ */
+public class TaskRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Written by Jackson behind untyped bodies: streams, export and import, the change feed and field views
+        bindings.registerReflectionHints(hints.reflection(), Task.class, TaskEvent.class, TaskView.class);
+        // Instantiated by Hibernate from the generator type named on @TimeOrderedId
+        hints.reflection().registerType(TaskIdGenerator.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        hints.reflection().registerType(TimeOrderedId.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
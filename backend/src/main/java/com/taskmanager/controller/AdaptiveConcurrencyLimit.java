@@ -0,0 +1,124 @@
+package com.taskmanager.controller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A concurrency limit that adapts to latency, after the gradient algorithm of Netflix's
+ * concurrency-limits library. Request latencies are averaged over short windows and compared
+ * with a long-term average. While the recent average stays within {@link #TOLERANCE} of the
+ * long-term one, the limit grows by about its square root per window. When the recent average
+ * rises above that, the limit shrinks in proportion, down to half per window. The limit starts
+ * at {@code maxLimit} and stays between {@code minLimit} and {@code maxLimit}.
+ *
+ * The limit only grows while at least half of it is in use, so a lightly loaded endpoint does
+ * not build up a limit it has never been tested at. The long-term average follows a sustained
+ * change in latency within about {@link #LONG_WINDOWS} windows.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    static final double TOLERANCE = 1.5;
+    static final int LONG_WINDOWS = 600;
+    static final int MIN_WINDOW_SAMPLES = 10;
+    static final long MIN_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final LongSupplier clock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder shed = new LongAdder();
+    private volatile double limit;
+
+    // Guarded by this
+    private long windowStart;
+    private long windowSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimit(int minLimit, int maxLimit) {
+        this(minLimit, maxLimit, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimit(int minLimit, int maxLimit, LongSupplier clock) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.clock = clock;
+        this.limit = maxLimit;
+        this.windowStart = clock.getAsLong();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    // Requests turned away since startup
+    public long getShed() {
+        return shed.sum();
+    }
+
+    /**
+     * Takes a slot for a request, or returns false, counting the request as shed, when the
+     * limit is reached. A request that got a slot must {@link #release} it.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                shed.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Gives back the slot of a request that took latencyNanos, and adjusts the limit once per window
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        synchronized (this) {
+            windowSum += latencyNanos;
+            windowSamples++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+            long now = clock.getAsLong();
+            if (windowSamples < MIN_WINDOW_SAMPLES || now - windowStart < MIN_WINDOW_NANOS) {
+                return;
+            }
+            update((double) windowSum / windowSamples, windowMaxInFlight);
+            windowStart = now;
+            windowSum = 0;
+            windowSamples = 0;
+            windowMaxInFlight = 0;
+        }
+    }
+
+    private void update(double shortRtt, int maxInFlight) {
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+            return;
+        }
+        longRtt += (shortRtt - longRtt) / LONG_WINDOWS;
+        // After latency has dropped for good, catch up faster than the long average would
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (maxInFlight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        double smoothed = limit * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+    }
+}
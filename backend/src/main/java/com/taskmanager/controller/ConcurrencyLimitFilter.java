@@ -0,0 +1,140 @@
+package com.taskmanager.controller;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sheds load on the {@code /tasks} endpoints. Each class of endpoint has its own
+ * {@link AdaptiveConcurrencyLimit}, so slow list and search requests cannot take the slots of
+ * point reads. A request over its class's limit is answered at once with 503 and a Retry-After
+ * header instead of waiting for a thread or a connection. Off unless
+ * {@code taskmanager.limits.enabled} is set, as the limits need tuning to the deployment.
+ *
+ * The streaming endpoints (change feed, stream, export and import) are long-lived by design and
+ * are not limited. Registers {@code taskmanager.requests.shed},
+ * {@code taskmanager.concurrency.limit} and {@code taskmanager.concurrency.in.flight}, tagged
+ * with the endpoint class.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    public enum EndpointClass {
+        // GET /tasks/{id}, /tasks/stats, /tasks/cache/stats
+        READ,
+        // GET /tasks, /tasks/search, /tasks/query
+        LIST,
+        // POST, PUT, PATCH and DELETE
+        WRITE
+    }
+
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    private static final Set<String> UNLIMITED_PATHS =
+            Set.of("/tasks/events", "/tasks/stream", "/tasks/export", "/tasks/import");
+
+    private final boolean enabled;
+    private final Map<EndpointClass, AdaptiveConcurrencyLimit> limits = new EnumMap<>(EndpointClass.class);
+
+    @Autowired
+    public ConcurrencyLimitFilter(@Value("${taskmanager.limits.enabled:false}") boolean enabled,
+                                  @Value("${taskmanager.limits.read.min:10}") int readMin,
+                                  @Value("${taskmanager.limits.read.max:200}") int readMax,
+                                  @Value("${taskmanager.limits.list.min:2}") int listMin,
+                                  @Value("${taskmanager.limits.list.max:10}") int listMax,
+                                  @Value("${taskmanager.limits.write.min:2}") int writeMin,
+                                  @Value("${taskmanager.limits.write.max:10}") int writeMax) {
+        this.enabled = enabled;
+        limits.put(EndpointClass.READ, new AdaptiveConcurrencyLimit(readMin, readMax));
+        limits.put(EndpointClass.LIST, new AdaptiveConcurrencyLimit(listMin, listMax));
+        limits.put(EndpointClass.WRITE, new AdaptiveConcurrencyLimit(writeMin, writeMax));
+    }
+
+    public AdaptiveConcurrencyLimit getLimit(EndpointClass endpointClass) {
+        return limits.get(endpointClass);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || classify(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        AdaptiveConcurrencyLimit limit = limits.get(endpointClass);
+        if (!limit.tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    "Too many concurrent " + endpointClass.name().toLowerCase(Locale.ROOT) + " requests");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limit.release(System.nanoTime() - start);
+        }
+    }
+
+    // The class of a /tasks request, or null if it is not limited
+    static EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!(path.equals("/tasks") || path.startsWith("/tasks/")) || UNLIMITED_PATHS.contains(path)) {
+            return null;
+        }
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        if (method == HttpMethod.GET || method == HttpMethod.HEAD) {
+            return path.equals("/tasks") || path.equals("/tasks/search") || path.startsWith("/tasks/query")
+                    ? EndpointClass.LIST : EndpointClass.READ;
+        }
+        if (method == HttpMethod.POST || method == HttpMethod.PUT
+                || method == HttpMethod.PATCH || method == HttpMethod.DELETE) {
+            return EndpointClass.WRITE;
+        }
+        return null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        limits.forEach((endpointClass, limit) -> {
+            String tag = endpointClass.name().toLowerCase(Locale.ROOT);
+            FunctionCounter.builder("taskmanager.requests.shed", limit, AdaptiveConcurrencyLimit::getShed)
+                    .tag("endpoint", tag)
+                    .description("Requests answered with 503 because their endpoint class was at its concurrency limit")
+                    .register(registry);
+            Gauge.builder("taskmanager.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .tag("endpoint", tag)
+                    .description("Current adaptive concurrency limit")
+                    .register(registry);
+            Gauge.builder("taskmanager.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .tag("endpoint", tag)
+                    .description("Requests being served")
+                    .register(registry);
+        });
+    }
+}
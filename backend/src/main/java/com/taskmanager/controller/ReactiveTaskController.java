@@ -0,0 +1,218 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskEvent;
+import com.taskmanager.model.TaskPatch;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.service.ReactiveTaskService;
+import com.taskmanager.service.TaskStatusCounters;
+import com.taskmanager.service.TaskTransferService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The {@code /tasks} API on the reactive stack (the {@code reactive} profile), with the same
+ * paths, parameters, status codes and headers as {@link TaskController} for what it serves:
+ * lists with keyset paging, search, the NDJSON stream and import, the change feed, stats, and
+ * single-task reads and writes with ETags. Sparse fieldsets, combined queries, batches, export,
+ * CSV import and cache stats are only served by the servlet stack.
+ *
+ * Differences: search is an unranked substring match in id order, stats are counted by the
+ * database on each call, and the change feed does not replay missed events on Last-Event-ID.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/tasks")
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = {TaskController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG})
+public class ReactiveTaskController {
+
+    private final ReactiveTaskService taskService;
+    private final Duration eventsHeartbeat;
+    private final Duration eventsTimeout;
+
+    @Autowired
+    public ReactiveTaskController(ReactiveTaskService taskService,
+                                 @Value("${taskmanager.events.heartbeat:PT15S}") Duration eventsHeartbeat,
+                                 @Value("${taskmanager.events.timeout:PT30M}") Duration eventsTimeout) {
+        this.taskService = taskService;
+        this.eventsHeartbeat = eventsHeartbeat;
+        this.eventsTimeout = eventsTimeout;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<Task>>> getAllTasks(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+
+        if (after == null && limit == null) {
+            return taskService.getTasks(status, search).collectList().map(ResponseEntity::ok);
+        }
+        int pageSize = pageSize(limit);
+        return taskService.getTasksPage(afterId(after), status, search, pageSize).collectList().map(tasks -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (tasks.size() == pageSize) {
+                response.header(TaskController.NEXT_CURSOR_HEADER, TaskCursor.encode(tasks.get(tasks.size() - 1).getId()));
+            }
+            return response.body(tasks);
+        });
+    }
+
+    @GetMapping("/search")
+    public Flux<Task> searchTasks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + TaskController.DEFAULT_SEARCH_LIMIT) int limit) {
+
+        if (limit < 1 || limit > TaskController.MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + TaskController.MAX_PAGE_SIZE);
+        }
+        return taskService.searchTasks(q, limit);
+    }
+
+    // Written as the client reads it: tasks are fetched a page at a time, when it asks for more
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Task> streamTasks(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) String search) {
+
+        return taskService.streamTasks(status, search);
+    }
+
+    /**
+     * Creates the tasks of an NDJSON body, as {@link TaskController#importTasks} does, reading
+     * the body only as fast as the tasks are stored. The response has the same progress lines.
+     */
+    @PostMapping(value = "/import",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskTransferService.ImportProgress> importTasks(@RequestBody Flux<Task> tasks) {
+        return taskService.importTasks(tasks);
+    }
+
+    /**
+     * Server-Sent Events feed of task changes, optionally limited to tasks entering or leaving
+     * the given statuses. A comment is sent on connecting and then as a heartbeat.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<TaskEvent>> streamEvents(@RequestParam(required = false) List<TaskStatus> status) {
+        Flux<ServerSentEvent<TaskEvent>> events = taskService.events(status != null ? Set.copyOf(status) : Set.of())
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(Long.toString(event.sequence()))
+                        .event(event.type().name().toLowerCase())
+                        .build());
+        // The first comment commits the response, so the client knows it is subscribed
+        Flux<ServerSentEvent<TaskEvent>> heartbeats = Flux.interval(Duration.ZERO, eventsHeartbeat)
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<TaskEvent>builder().comment("heartbeat").build());
+        return Flux.merge(events, heartbeats).take(eventsTimeout);
+    }
+
+    @GetMapping("/stats")
+    public Mono<TaskStatusCounters.Counts> getStats() {
+        return taskService.getStatusCounts();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Task>> getTaskById(@PathVariable UUID id, ServerWebExchange exchange) {
+        return taskService.getTaskById(id)
+                .map(task -> {
+                    String etag = TaskETag.of(task.getVersion());
+                    if (etag != null && exchange.checkNotModified(etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<Task>build();
+                    }
+                    return ResponseEntity.ok().eTag(etag).body(task);
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Task>> createTask(@Valid @RequestBody Task task) {
+        return taskService.createTask(task).map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Task>> updateTask(
+            @PathVariable UUID id,
+            @Valid @RequestBody Task task,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        return taskService.updateTask(id, task, expectedVersion(ifMatch))
+                .map(updated -> ResponseEntity.ok().eTag(TaskETag.of(updated.getVersion())).body(updated))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Void>> patchTask(
+            @PathVariable UUID id,
+            @RequestBody TaskPatch patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        if (patch.title() != null && patch.title().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Title must not be blank");
+        }
+        return taskService.patchTask(id, patch, expectedVersion(ifMatch))
+                .map(patched -> ResponseEntity.noContent().eTag(TaskETag.of(patched.getVersion())).<Void>build())
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteTask(@PathVariable UUID id) {
+        return taskService.deleteTask(id).map(deleted -> deleted ? ResponseEntity.noContent().<Void>build()
+                : ResponseEntity.notFound().<Void>build());
+    }
+
+    private static int pageSize(Integer limit) {
+        int pageSize = limit != null ? limit : TaskController.DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > TaskController.MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + TaskController.MAX_PAGE_SIZE);
+        }
+        return pageSize;
+    }
+
+    private static UUID afterId(String after) {
+        try {
+            return after != null ? TaskCursor.decode(after) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private static Long expectedVersion(String ifMatch) {
+        try {
+            return TaskETag.parseIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage(), e);
+        }
+    }
+}
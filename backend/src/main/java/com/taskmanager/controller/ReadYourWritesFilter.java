@@ -0,0 +1,100 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.repository.ReplicaReads;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-your-writes over read replicas. A write request is answered with a {@value #COOKIE}
+ * cookie holding the time, {@code pin-duration} ahead, until which the client's reads must see
+ * the primary; a request that carries an unexpired one has all its reads pinned to the primary,
+ * so a client never reads from a replica that may not have its own write yet. Clients that do
+ * not keep cookies only get read-your-writes within a request. Registered only when replicas
+ * are enabled.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(name = "taskmanager.replicas.enabled", havingValue = "true")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "tm-primary-until";
+
+    private final long pinMillis;
+    private final LongSupplier clock;
+
+    @Autowired
+    public ReadYourWritesFilter(@Value("${taskmanager.replicas.pin-duration:PT5S}") Duration pinDuration) {
+        this(pinDuration, System::currentTimeMillis);
+    }
+
+    ReadYourWritesFilter(Duration pinDuration, LongSupplier clock) {
+        this.pinMillis = pinDuration.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = clock.getAsLong();
+        boolean write = isWrite(request.getMethod());
+        if (write) {
+            // Set before the body is written, which commits the response
+            Cookie cookie = new Cookie(COOKIE, Long.toString(now + pinMillis));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (pinMillis + 999) / 1000));
+            response.addCookie(cookie);
+        }
+        if (!write && pinnedUntil(request) <= now) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ReplicaReads.pinToPrimary();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaReads.unpin();
+        }
+    }
+
+    private static boolean isWrite(String method) {
+        HttpMethod httpMethod = HttpMethod.valueOf(method);
+        return httpMethod == HttpMethod.POST || httpMethod == HttpMethod.PUT
+                || httpMethod == HttpMethod.PATCH || httpMethod == HttpMethod.DELETE;
+    }
+
+    // 0 without a valid cookie
+    private static long pinnedUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,89 @@
+package com.taskmanager.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskmanager.model.Task;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Encodes a JSON list body once for all responses that return the same list instance, as
+ * concurrent identical reads do when {@link com.taskmanager.service.TaskReadCoalescer} or the
+ * task cache hands them one shared result. The encoded bytes are kept, by identity of the list,
+ * for the coalescing window and written out as a raw value. Smile and CBOR bodies are encoded
+ * per response as before.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SharedJsonBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Object, RawValue> encoded;
+
+    @Autowired
+    public SharedJsonBodyAdvice(ObjectMapper objectMapper,
+                                @Value("${taskmanager.coalescing.window:PT0.01S}") Duration window) {
+        this.objectMapper = objectMapper;
+        // Weak keys compare by identity, and let a list go once no response holds it
+        this.encoded = window.isZero() ? null : Caffeine.newBuilder()
+                .weakKeys()
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return encoded != null
+                && MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType)
+                && returnsTaskList(returnType);
+    }
+
+    // Task lists are what reads share; other list bodies, such as batch results, are per request
+    private static boolean returnsTaskList(MethodParameter returnType) {
+        ResolvableType type = ResolvableType.forMethodParameter(returnType);
+        if (ResponseEntity.class.isAssignableFrom(type.toClass())) {
+            type = type.getGeneric(0);
+        }
+        return List.class.isAssignableFrom(type.toClass()) && type.getGeneric(0).toClass() == Task.class;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof List<?>) || !MediaType.APPLICATION_JSON.isCompatibleWith(selectedContentType)) {
+            return body;
+        }
+        return encoded.get(body, this::encode);
+    }
+
+    private RawValue encode(Object body) {
+        try {
+            SerializedString json = new SerializedString(objectMapper.writeValueAsString(body));
+            // Encodes to UTF-8 now, once, rather than on the first write
+            json.asUnquotedUTF8();
+            return new RawValue(json);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
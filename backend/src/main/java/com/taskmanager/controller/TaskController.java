@@ -1,40 +1,111 @@
 package com.taskmanager.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskField;
+import com.taskmanager.model.TaskPatch;
+import com.taskmanager.model.TaskQuery;
+import com.taskmanager.model.TaskQueryPlan;
 import com.taskmanager.model.TaskStatus;
+import com.taskmanager.model.TaskView;
+import com.taskmanager.service.TaskBatchService;
+import com.taskmanager.service.TaskCache;
+import com.taskmanager.service.TaskEventBroadcaster;
 import com.taskmanager.service.TaskService;
+import com.taskmanager.service.TaskStatusCounters;
+import com.taskmanager.service.TaskTransferService;
+import com.taskmanager.service.TaskWriteBufferFullException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/tasks")
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = {TaskController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG})
 public class TaskController {
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    
     private final TaskService taskService;
+    private final TaskBatchService taskBatchService;
+    private final TaskTransferService taskTransferService;
+    private final TaskEventBroadcaster eventBroadcaster;
+    private final ObjectWriter taskWriter;
+    private final ObjectWriter importProgressWriter;
+    private final int maxBatchItems;
+    private final Duration eventsTimeout;
     
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService,
+                          TaskBatchService taskBatchService,
+                          TaskTransferService taskTransferService,
+                          TaskEventBroadcaster eventBroadcaster,
+                          ObjectMapper objectMapper,
+                          @Value("${taskmanager.batch.max-items:10000}") int maxBatchItems,
+                          @Value("${taskmanager.events.timeout:PT30M}") Duration eventsTimeout) {
         this.taskService = taskService;
+        this.taskBatchService = taskBatchService;
+        this.taskTransferService = taskTransferService;
+        this.eventBroadcaster = eventBroadcaster;
+        this.taskWriter = objectMapper.writerFor(Task.class);
+        this.importProgressWriter = objectMapper.writerFor(TaskTransferService.ImportProgress.class);
+        this.maxBatchItems = maxBatchItems;
+        this.eventsTimeout = eventsTimeout;
     }
     
     @GetMapping
     public ResponseEntity<List<Task>> getAllTasks(
             @RequestParam(required = false) TaskStatus status,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        
+        // Keyset mode: ordered by id, status and search combine, next cursor returned in a header
+        if (after != null || limit != null) {
+            return getTasksPage(status, search, after, limit);
+        }
         
         List<Task> tasks;
         
-        if (status != null) {
+        boolean searching = search != null && !search.trim().isEmpty();
+        if (status != null && searching) {
+            tasks = taskService.searchTasksByStatus(status, search);
+        } else if (status != null) {
             tasks = taskService.getTasksByStatus(status);
-        } else if (search != null && !search.trim().isEmpty()) {
+        } else if (searching) {
             tasks = taskService.searchTasksByTitle(search);
         } else {
             tasks = taskService.getAllTasks();
@@ -43,11 +114,203 @@ public class TaskController {
         return ResponseEntity.ok(tasks);
     }
     
+    /**
+     * Sparse fieldset variant of {@link #getAllTasks}: {@code fields} is a comma-separated list
+     * of task properties, and only those columns are read and written out. The id is always
+     * included. Filters and keyset paging work as without {@code fields}.
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<MappingJacksonValue> getTaskViews(
+            @RequestParam String fields,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        
+        Set<TaskField> selected;
+        try {
+            selected = TaskField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        List<TaskView> views;
+        if (after != null || limit != null) {
+            int pageSize = pageSize(limit);
+            views = taskService.getTaskViewsPage(selected, afterId(after), status, search, pageSize);
+            if (views.size() == pageSize) {
+                response.header(NEXT_CURSOR_HEADER, TaskCursor.encode(views.get(views.size() - 1).id()));
+            }
+        } else {
+            views = taskService.getTaskViews(selected, status, search);
+        }
+        
+        MappingJacksonValue body = new MappingJacksonValue(views);
+        body.setFilters(new SimpleFilterProvider().addFilter(TaskView.FIELDS_FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept(
+                        selected.stream().map(TaskField::property).collect(Collectors.toSet()))));
+        return response.body(body);
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<List<Task>> searchTasks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + DEFAULT_SEARCH_LIMIT) int limit) {
+        
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(taskService.searchTasks(q, limit));
+    }
+    
+    /**
+     * Combined query: tasks in any of the {@code status} values (a list, or the parameter
+     * repeated) whose title or description contains {@code q}, ordered by {@code sort}
+     * ({@code relevance}, the default with {@code q}; {@code id}, the default without; or
+     * {@code title}), at most {@code limit} of them.
+     */
+    @GetMapping("/query")
+    public ResponseEntity<List<Task>> queryTasks(
+            @RequestParam(required = false) List<TaskStatus> status,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        
+        return ResponseEntity.ok(taskService.queryTasks(taskQuery(status, q, sort, limit)));
+    }
+    
+    // How GET /tasks/query with the same parameters is served: the index used and the rows scanned
+    @GetMapping("/query/explain")
+    public ResponseEntity<TaskQueryPlan> explainQuery(
+            @RequestParam(required = false) List<TaskStatus> status,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        
+        return ResponseEntity.ok(taskService.explainQuery(taskQuery(status, q, sort, limit)));
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTasks(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) String search) {
+        
+        StreamingResponseBody body = out -> {
+            try {
+                taskService.streamTasks(status, search, task -> {
+                    try {
+                        out.write(taskWriter.writeValueAsBytes(task));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    /**
+     * All tasks as a download, one per line: {@code format} is ndjson (the default) or csv. Rows
+     * are written as they are read, so memory use does not grow with the number of tasks.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(defaultValue = "ndjson") String format) {
+        TaskTransferService.Format selected = transferFormat(format);
+        MediaType contentType = selected == TaskTransferService.Format.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON;
+        String filename = "tasks." + selected.name().toLowerCase(Locale.ROOT);
+        StreamingResponseBody body = out -> taskTransferService.exportTasks(selected, out);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+    
+    /**
+     * Creates the tasks of an NDJSON or CSV body, in the form {@link #exportTasks} writes, as the
+     * body is read. The response is NDJSON: a progress line every
+     * {@code taskmanager.import.progress-interval} rows, and a last line with the final counts
+     * and a status of COMPLETED or FAILED. Tasks keep their ids and ids already stored are
+     * skipped, so an interrupted import resumes by sending the same body again.
+     */
+    @PostMapping(value = "/import",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE, "text/csv"},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importTasks(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream in) {
+        
+        TaskTransferService.Format format = TEXT_CSV.includes(contentType)
+                ? TaskTransferService.Format.CSV : TaskTransferService.Format.NDJSON;
+        StreamingResponseBody body = out -> {
+            try {
+                taskTransferService.importTasks(format, in, progress -> {
+                    try {
+                        out.write(importProgressWriter.writeValueAsBytes(progress));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    /**
+     * Server-Sent Events feed of task changes, optionally limited to tasks entering or leaving
+     * the given statuses. Reconnecting clients send Last-Event-ID to receive what they missed.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @RequestParam(required = false) List<TaskStatus> status,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        
+        Long after;
+        try {
+            after = lastEventId != null && !lastEventId.isBlank() ? Long.valueOf(lastEventId.trim()) : null;
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed " + LAST_EVENT_ID_HEADER, e);
+        }
+        SseEmitter emitter = new SseEmitter(eventsTimeout.toMillis());
+        eventBroadcaster.subscribe(emitter, status != null ? Set.copyOf(status) : Set.of(), after);
+        return emitter;
+    }
+    
+    // Served from in-memory counters, so constant time whatever the number of tasks
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStatusCounters.Counts> getStats() {
+        return ResponseEntity.ok(taskService.getStatusCounts());
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, TaskCache.Stats>> getCacheStats() {
+        return ResponseEntity.ok(taskService.getCacheStats());
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable UUID id) {
+    public ResponseEntity<Task> getTaskById(@PathVariable UUID id, WebRequest request) {
         Optional<Task> task = taskService.getTaskById(id);
-        return task.map(ResponseEntity::ok)
-                  .orElse(ResponseEntity.notFound().build());
+        if (task.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        String etag = TaskETag.of(task.get().getVersion());
+        if (etag != null && request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(task.get());
     }
     
     @PostMapping
@@ -56,17 +319,135 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskBatchService.ItemResult>> createTasks(@RequestBody List<Task> tasks) {
+        checkBatchSize(tasks);
+        return ResponseEntity.ok(taskBatchService.createTasks(tasks));
+    }
+    
+    @PatchMapping("/batch")
+    public ResponseEntity<List<TaskBatchService.ItemResult>> updateTasks(@RequestBody List<TaskPatch> patches) {
+        checkBatchSize(patches);
+        return ResponseEntity.ok(taskBatchService.updateTasks(patches));
+    }
+    
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<TaskBatchService.ItemResult>> deleteTasks(@RequestBody List<UUID> ids) {
+        checkBatchSize(ids);
+        return ResponseEntity.ok(taskBatchService.deleteTasks(ids));
+    }
+    
     @PutMapping("/{id}")
-    public ResponseEntity<Task> updateTask(@PathVariable UUID id, @Valid @RequestBody Task task) {
-        Optional<Task> updatedTask = taskService.updateTask(id, task);
-        return updatedTask.map(ResponseEntity::ok)
+    public ResponseEntity<Task> updateTask(
+            @PathVariable UUID id,
+            @Valid @RequestBody Task task,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        
+        // Write-behind: acknowledged once queued; conditional updates still need the stored version
+        if (ifMatch == null && taskService.isWriteBehindEnabled()) {
+            try {
+                return taskService.updateTaskLater(id, task)
+                        .map(queued -> ResponseEntity.status(HttpStatus.ACCEPTED).body(queued))
+                        .orElse(ResponseEntity.notFound().build());
+            } catch (TaskWriteBufferFullException e) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, ConcurrencyLimitFilter.RETRY_AFTER_SECONDS)
+                        .build();
+            }
+        }
+        Optional<Task> updatedTask = taskService.updateTask(id, task, expectedVersion(ifMatch));
+        return updatedTask.map(updated -> ResponseEntity.ok().eTag(TaskETag.of(updated.getVersion())).body(updated))
                          .orElse(ResponseEntity.notFound().build());
     }
     
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchTask(
+            @PathVariable UUID id,
+            @RequestBody TaskPatch patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        
+        if (patch.title() != null && patch.title().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Title must not be blank");
+        }
+        Long expectedVersion = expectedVersion(ifMatch);
+        if (!taskService.patchTask(id, patch, expectedVersion)) {
+            return ResponseEntity.notFound().build();
+        }
+        Long newVersion = expectedVersion == null ? null
+                : patch.hasChanges() ? expectedVersion + 1 : expectedVersion;
+        return ResponseEntity.noContent().eTag(TaskETag.of(newVersion)).build();
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable UUID id) {
         boolean deleted = taskService.deleteTask(id);
         return deleted ? ResponseEntity.noContent().build() 
                       : ResponseEntity.notFound().build();
     }
-} 
\ No newline at end of file
+    
+    private ResponseEntity<List<Task>> getTasksPage(TaskStatus status, String search, String after, Integer limit) {
+        int pageSize = pageSize(limit);
+        List<Task> tasks = taskService.getTasksPage(afterId(after), status, search, pageSize);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (tasks.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, TaskCursor.encode(tasks.get(tasks.size() - 1).getId()));
+        }
+        return response.body(tasks);
+    }
+    
+    private static int pageSize(Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return pageSize;
+    }
+    
+    private static TaskQuery taskQuery(List<TaskStatus> status, String q, String sort, int limit) {
+        pageSize(limit);
+        boolean hasText = q != null && !q.isBlank();
+        TaskQuery.Sort order;
+        try {
+            order = sort == null || sort.isBlank()
+                    ? (hasText ? TaskQuery.Sort.RELEVANCE : TaskQuery.Sort.ID)
+                    : TaskQuery.Sort.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+            return new TaskQuery(status != null ? Set.copyOf(status) : Set.of(), q, order, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "sort must be id, title, or relevance with q", e);
+        }
+    }
+    
+    private static UUID afterId(String after) {
+        try {
+            return after != null ? TaskCursor.decode(after) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+    
+    private static TaskTransferService.Format transferFormat(String format) {
+        try {
+            return TaskTransferService.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be ndjson or csv", e);
+        }
+    }
+    
+    private static Long expectedVersion(String ifMatch) {
+        try {
+            return TaskETag.parseIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage(), e);
+        }
+    }
+    
+    private void checkBatchSize(List<?> items) {
+        if (items.size() > maxBatchItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch may contain at most " + maxBatchItems + " items");
+        }
+    }
+}
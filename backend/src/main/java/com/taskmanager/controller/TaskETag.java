@@ -0,0 +1,33 @@
+package com.taskmanager.controller;
+
+/**
+ * Strong entity tags for tasks, derived from the task version.
+ */
+final class TaskETag {
+
+    private TaskETag() {}
+
+    static String of(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    /**
+     * Returns the version an If-Match header requires, or null when the header is absent or
+     * {@code *}, which only requires the task to exist. Weak or malformed tags can never match
+     * under the strong comparison If-Match uses, so they are rejected.
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match must be a single strong entity tag");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match does not name a task version", e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.taskmanager.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,8 +11,10 @@ import java.util.UUID;
 @Table(name = "tasks")
 public class Task {
     
+    // Time-ordered (UUID version 7), generated in-process when the entity is persisted, so inserts
+    // need no round trip, can be batched and append to the primary-key index
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedId
     private UUID id;
     
     @NotBlank(message = "Title must not be blank")
@@ -25,6 +29,12 @@ public class Task {
     @Column(nullable = false)
     private TaskStatus status = TaskStatus.TODO;
     
+    // Bumped on every write; served as the ETag and checked against If-Match. Null when not known
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+    
     // Default constructor
     public Task() {}
     
@@ -68,6 +78,14 @@ public class Task {
         this.status = status;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     @Override
     public String toString() {
         return "Task{" +
@@ -75,6 +93,7 @@ public class Task {
                 ", title='" + title + '\'' +
                 ", description='" + description + '\'' +
                 ", status=" + status +
+                ", version=" + version +
                 '}';
     }
 } 
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.taskmanager.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+/**
+ * A committed change to a task, as pushed on the change feed. {@code status} is the status after
+ * the change (before it, for deletes) and {@code previousStatus} the one before an update, when
+ * known. {@code task} is omitted when the full task was not at hand, e.g. after a partial update.
+ * A {@code RESET} names no task and tells subscribers to reload their tasks, e.g. after an import
+ * stored a chunk of them at once.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskEvent(long sequence, Type type, UUID taskId, TaskStatus status, TaskStatus previousStatus, Task task) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        RESET
+    }
+}
@@ -0,0 +1,49 @@
+package com.taskmanager.model;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Task properties a client can select with {@code fields=}. Each maps to one column, so a
+ * projection over a subset of them selects only those columns.
+ */
+public enum TaskField {
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    STATUS("status"),
+    VERSION("version");
+
+    private final String property;
+
+    TaskField(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    /**
+     * Parses a comma-separated list of property names. The id is always included, since keyset
+     * cursors and clients need it to tell tasks apart.
+     *
+     * @throws IllegalArgumentException for an unknown property name
+     */
+    public static Set<TaskField> parse(String fields) {
+        Set<TaskField> result = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                result.add(valueOf(trimmed.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown field '" + trimmed + "'", e);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+package com.taskmanager.model;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered task ids in the UUID version 7 layout of RFC 9562: 48 bits of Unix time in
+ * milliseconds, then a 12-bit counter, then 62 random bits. New ids land at the right edge of
+ * the primary-key B-tree instead of at a random leaf, so inserts touch the same few pages, and
+ * ordering by id is ordering by creation time.
+ *
+ * Ids from one process are strictly increasing: the counter orders the ids of one millisecond,
+ * and when it runs out, or the clock steps back, the timestamp is carried forward instead.
+ * Both H2 and {@link UUID#compareTo} order them by time, as the timestamp keeps the top bit
+ * clear until the year 6429. The random bits come from {@link ThreadLocalRandom}; ids are not
+ * secrets, and this keeps generation free of the lock behind {@link UUID#randomUUID()}.
+ */
+public final class TaskIds {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final TaskIds INSTANCE = new TaskIds(System::currentTimeMillis);
+
+    private final LongSupplier clock;
+    // Timestamp and counter of the last id, as they appear in its top 60 bits
+    private final AtomicLong last = new AtomicLong();
+
+    TaskIds(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static UUID next() {
+        return INSTANCE.nextId();
+    }
+
+    // When a time-ordered id was generated; null for other ids, such as random version 4 ones
+    public static Instant createdAt(UUID id) {
+        if (id.version() != 7) {
+            return null;
+        }
+        return Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16);
+    }
+
+    UUID nextId() {
+        long now = clock.getAsLong() << COUNTER_BITS;
+        long stamp = last.updateAndGet(previous -> Math.max(previous + 1, now));
+        long millis = stamp >>> COUNTER_BITS;
+        long counter = stamp & COUNTER_MASK;
+        long high = (millis << 16) | 0x7000L | counter;
+        long low = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(high, low);
+    }
+}
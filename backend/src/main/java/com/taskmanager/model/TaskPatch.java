@@ -0,0 +1,23 @@
+package com.taskmanager.model;
+
+import java.util.UUID;
+
+/**
+ * Partial update of a task. Null fields are left unchanged. The id and version are only read by
+ * batch updates, where a non-null version makes the item apply only if the task still has it.
+ */
+public record TaskPatch(UUID id, String title, String description, TaskStatus status, Long version) {
+
+    public TaskPatch(String title, String description, TaskStatus status) {
+        this(null, title, description, status, null);
+    }
+
+    public TaskPatch(UUID id, String title, String description, TaskStatus status) {
+        this(id, title, description, status, null);
+    }
+
+    // True when at least one field is set, i.e. applying the patch writes the task
+    public boolean hasChanges() {
+        return title != null || description != null || status != null;
+    }
+}
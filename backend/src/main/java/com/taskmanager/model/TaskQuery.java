@@ -0,0 +1,34 @@
+package com.taskmanager.model;
+
+import java.util.Set;
+
+/**
+ * A combined task query: the tasks in any of {@code statuses} (all tasks when empty) whose title
+ * or description contains {@code text}, case-insensitively (any task when null), in
+ * {@code sort} order, at most {@code limit} of them.
+ */
+public record TaskQuery(Set<TaskStatus> statuses, String text, Sort sort, int limit) {
+
+    public enum Sort {
+        // Best text match first, as ranked by the search index; needs text
+        RELEVANCE,
+        ID,
+        // By title, then id
+        TITLE
+    }
+
+    public TaskQuery {
+        statuses = statuses == null || statuses.size() == TaskStatus.values().length ? Set.of() : Set.copyOf(statuses);
+        text = text == null || text.isBlank() ? null : text.trim();
+        if (sort == Sort.RELEVANCE && text == null) {
+            throw new IllegalArgumentException("Relevance order needs a text to match");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+    }
+
+    public boolean matchesStatus(TaskStatus status) {
+        return statuses.isEmpty() || statuses.contains(status);
+    }
+}
@@ -0,0 +1,13 @@
+package com.taskmanager.model;
+
+/**
+ * How a {@link TaskQuery} is served: the {@code source} answering it (the search index, the
+ * database or the in-memory engine), the {@code index} it looks tasks up in, the number of
+ * {@code rowsScanned} to find the results, and the source's own account of the {@code plan}.
+ */
+public record TaskQueryPlan(String source, String index, long rowsScanned, String plan) {
+
+    public static final String SEARCH_INDEX = "search-index";
+    public static final String DATABASE = "database";
+    public static final String MEMORY = "memory";
+}
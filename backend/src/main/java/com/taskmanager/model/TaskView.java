@@ -0,0 +1,16 @@
+package com.taskmanager.model;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.util.UUID;
+
+/**
+ * Read-only projection of a task holding only the selected {@link TaskField}s; the others are
+ * null. Serialized through the {@value #FIELDS_FILTER} filter, which writes exactly the selected
+ * properties, so a selected property that is null is still written.
+ */
+@JsonFilter(TaskView.FIELDS_FILTER)
+public record TaskView(UUID id, String title, String description, TaskStatus status, Long version) {
+
+    public static final String FIELDS_FILTER = "taskFields";
+}
@@ -0,0 +1,465 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskField;
+import com.taskmanager.model.TaskIds;
+import com.taskmanager.model.TaskQuery;
+import com.taskmanager.model.TaskQueryPlan;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.model.TaskView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link TaskStore} held entirely in memory, selected with
+ * {@code taskmanager.storage.engine=memory} for deployments that do not need a SQL database.
+ *
+ * Tasks are immutable {@link Row}s in a concurrent hash map keyed by id. Id-ordered skip-list
+ * indexes over all tasks and per status serve keyset pages and status lists. Reads take no
+ * locks; a write runs inside the map's per-key compute, so writes to one task are serialized,
+ * and it is appended to the {@link TaskWriteAheadLog} before it becomes visible. The log is
+ * forced to disk every {@code syncInterval} and compacted into a snapshot once the current
+ * segment exceeds {@code snapshotThreshold} bytes.
+ *
+ * Callers get copies of the stored tasks, like detached entities; changes to them are only
+ * stored through {@link #save}, which checks the version as JPA would.
+ */
+public class InMemoryTaskRepository implements TaskStore, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryTaskRepository.class);
+
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+
+    record Row(UUID id, String title, String description, TaskStatus status, long version) {
+
+        Task toTask() {
+            Task task = new Task(title, description, status);
+            task.setId(id);
+            task.setVersion(version);
+            return task;
+        }
+    }
+
+    private final Map<UUID, Row> rows = new ConcurrentHashMap<>();
+    private final NavigableSet<UUID> ids = new ConcurrentSkipListSet<>();
+    private final Map<TaskStatus, NavigableSet<UUID>> idsByStatus = new EnumMap<>(TaskStatus.class);
+    private final TaskWriteAheadLog writeAheadLog;
+    private final long snapshotThreshold;
+    private final ScheduledExecutorService maintenance;
+
+    public InMemoryTaskRepository(TaskWriteAheadLog writeAheadLog, Duration syncInterval, long snapshotThreshold) {
+        this.writeAheadLog = writeAheadLog;
+        this.snapshotThreshold = snapshotThreshold;
+        for (TaskStatus status : TaskStatus.values()) {
+            idsByStatus.put(status, new ConcurrentSkipListSet<>());
+        }
+        try {
+            writeAheadLog.recover().values().forEach(row -> {
+                rows.put(row.id(), row);
+                reindex(row.id(), null, row);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover tasks", e);
+        }
+
+        maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-storage");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(syncInterval.toMillis(), 1);
+        maintenance.scheduleWithFixedDelay(this::maintain, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Forces the log to disk, and compacts it when it has grown past the threshold
+    void maintain() {
+        try {
+            writeAheadLog.sync();
+            if (writeAheadLog.segmentBytes() > snapshotThreshold) {
+                snapshot();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Task storage maintenance failed", e);
+        }
+    }
+
+    void snapshot() throws IOException {
+        writeAheadLog.snapshot(rows.values());
+    }
+
+    @Override
+    public void close() throws IOException {
+        maintenance.shutdown();
+        try {
+            maintenance.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeAheadLog.close();
+    }
+
+    // Reads
+
+    @Override
+    public Optional<Task> findById(UUID id) {
+        return Optional.ofNullable(rows.get(id)).map(Row::toTask);
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return rows.containsKey(id);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return tasks(ids.stream(), row -> true);
+    }
+
+    @Override
+    public List<Task> findAllById(Iterable<UUID> requested) {
+        return tasks(StreamSupport.stream(requested.spliterator(), false).distinct(), row -> true);
+    }
+
+    @Override
+    public long count() {
+        return rows.size();
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskStatus status) {
+        return tasks(idsByStatus.get(status).stream(), row -> row.status() == status);
+    }
+
+    @Override
+    public long countByStatus(TaskStatus status) {
+        return rows.values().stream().filter(row -> row.status() == status).count();
+    }
+
+    @Override
+    public List<Task> findByTitleContainingIgnoreCase(String title) {
+        String needle = title.toLowerCase(Locale.ROOT);
+        return tasks(ids.stream(), row -> row.title().toLowerCase(Locale.ROOT).contains(needle));
+    }
+
+    @Override
+    public List<Task> findPage(UUID after, TaskStatus status, String search, Limit limit) {
+        return matching(after, status, search)
+                .limit(limit.isLimited() ? limit.max() : Long.MAX_VALUE)
+                .map(Row::toTask)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Task> streamTasks(TaskStatus status, String search) {
+        return matching(null, status, search).map(Row::toTask);
+    }
+
+    @Override
+    public List<TaskView> findViews(Set<TaskField> fields, UUID after, TaskStatus status, String search, Integer limit) {
+        return matching(after, status, search)
+                .limit(limit != null ? limit : Long.MAX_VALUE)
+                .map(row -> view(row, fields))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<TaskView> findViewsById(Set<TaskField> fields, Collection<UUID> requested) {
+        return requested.stream()
+                .distinct()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .map(row -> view(row, fields))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Task> findByQuery(TaskQuery query) {
+        return matching(query, new AtomicLong())
+                .map(Row::toTask)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public TaskQueryPlan explainQuery(TaskQuery query) {
+        AtomicLong scanned = new AtomicLong();
+        long matches = matching(query, scanned).count();
+        String index = query.statuses().isEmpty() ? "ids" : "status";
+        return new TaskQueryPlan(TaskQueryPlan.MEMORY, index, scanned.get(), String.format(
+                "%s index of %s, %s, %s: %d rows scanned, %d returned",
+                index, query.statuses().isEmpty() ? "all tasks" : query.statuses(),
+                query.text() != null ? "text filter" : "no text filter",
+                sortedInIndexOrder(query) ? "in index order" : "sorted by " + query.sort(),
+                scanned.get(), matches));
+    }
+
+    // Rows matching the query in its order; scanned counts the rows read to find them
+    private Stream<Row> matching(TaskQuery query, AtomicLong scanned) {
+        Stream<UUID> candidates = query.statuses().isEmpty() ? ids.stream()
+                : query.statuses().stream().flatMap(status -> idsByStatus.get(status).stream());
+        String needle = query.text() != null ? query.text().toLowerCase(Locale.ROOT) : null;
+        Stream<Row> matches = candidates.map(rows::get)
+                .filter(Objects::nonNull)
+                .peek(row -> scanned.incrementAndGet())
+                .filter(row -> query.matchesStatus(row.status())
+                        && (needle == null || textRank(row, needle) < 3));
+        if (!sortedInIndexOrder(query)) {
+            matches = matches.sorted(switch (query.sort()) {
+                case ID -> Comparator.comparing(Row::id);
+                case TITLE -> Comparator.comparing(Row::title).thenComparing(Row::id);
+                case RELEVANCE -> Comparator.<Row>comparingInt(row -> textRank(row, needle))
+                        .thenComparingInt(row -> row.title().length())
+                        .thenComparing(Row::id);
+            });
+        }
+        return matches.limit(query.limit());
+    }
+
+    // A single id-ordered index already returns rows in id order, so the limit stops the scan early
+    private static boolean sortedInIndexOrder(TaskQuery query) {
+        return query.sort() == TaskQuery.Sort.ID && query.statuses().size() <= 1;
+    }
+
+    // 0 for a title prefix, 1 for another title match, 2 for a description-only match, else 3
+    private static int textRank(Row row, String needle) {
+        String title = row.title().toLowerCase(Locale.ROOT);
+        if (title.startsWith(needle)) {
+            return 0;
+        }
+        if (title.contains(needle)) {
+            return 1;
+        }
+        return row.description() != null && row.description().toLowerCase(Locale.ROOT).contains(needle) ? 2 : 3;
+    }
+
+    // Rows in id order, after the cursor, matching the non-null filters
+    private Stream<Row> matching(UUID after, TaskStatus status, String search) {
+        NavigableSet<UUID> index = status != null ? idsByStatus.get(status) : ids;
+        NavigableSet<UUID> range = after != null ? index.tailSet(after, false) : index;
+        String needle = search != null ? search.toLowerCase(Locale.ROOT) : null;
+        return range.stream()
+                .map(rows::get)
+                .filter(row -> row != null
+                        && (status == null || row.status() == status)
+                        && (needle == null || row.title().toLowerCase(Locale.ROOT).contains(needle)));
+    }
+
+    private List<Task> tasks(Stream<UUID> candidates, Predicate<Row> filter) {
+        return candidates.map(rows::get)
+                .filter(row -> row != null && filter.test(row))
+                .map(Row::toTask)
+                .collect(Collectors.toList());
+    }
+
+    private static TaskView view(Row row, Set<TaskField> fields) {
+        return new TaskView(
+                fields.contains(TaskField.ID) ? row.id() : null,
+                fields.contains(TaskField.TITLE) ? row.title() : null,
+                fields.contains(TaskField.DESCRIPTION) ? row.description() : null,
+                fields.contains(TaskField.STATUS) ? row.status() : null,
+                fields.contains(TaskField.VERSION) ? row.version() : null);
+    }
+
+    // Writes
+
+    /**
+     * Inserts a task without a version, generating its id when it has none, or updates one whose
+     * version matches the stored one. Sets the id and new version on the given task.
+     */
+    @Override
+    public <S extends Task> S save(S task) {
+        checkConstraints(task);
+        if (task.getVersion() == null) {
+            UUID id = task.getId() != null ? task.getId() : TaskIds.next();
+            Row inserted = new Row(id, task.getTitle(), task.getDescription(), task.getStatus(), 0);
+            if (write(id, current -> current == null ? inserted : current) != inserted) {
+                throw new DataIntegrityViolationException("Task " + id + " already exists");
+            }
+            task.setId(id);
+            task.setVersion(0L);
+            return task;
+        }
+
+        UUID id = task.getId();
+        long version = task.getVersion();
+        Row updated = new Row(id, task.getTitle(), task.getDescription(), task.getStatus(), version + 1);
+        if (id == null || write(id, current -> current != null && current.version() == version ? updated : current) != updated) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, id);
+        }
+        task.setVersion(version + 1);
+        return task;
+    }
+
+    @Override
+    public <S extends Task> List<S> saveAll(Iterable<S> tasks) {
+        List<S> saved = new ArrayList<>();
+        for (S task : tasks) {
+            saved.add(save(task));
+        }
+        return saved;
+    }
+
+    @Override
+    public List<Task> insertMissing(List<Task> tasks) {
+        List<Task> inserted = new ArrayList<>();
+        for (Task task : tasks) {
+            checkConstraints(task);
+            UUID id = task.getId() != null ? task.getId() : TaskIds.next();
+            Row row = new Row(id, task.getTitle(), task.getDescription(), task.getStatus(), 0);
+            if (write(id, current -> current == null ? row : current) == row) {
+                task.setId(id);
+                task.setVersion(0L);
+                inserted.add(task);
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public Optional<TaskStatus> updateTask(UUID id, String title, String description, TaskStatus status,
+                                           Long expectedVersion) {
+        if (title == null || status == null) {
+            throw new DataIntegrityViolationException("Title and status must not be null");
+        }
+        return patchTask(id, title, description, status, expectedVersion, true);
+    }
+
+    @Override
+    public Optional<TaskStatus> patchTask(UUID id, String title, String description, TaskStatus status,
+                                          Long expectedVersion) {
+        return patchTask(id, title, description, status, expectedVersion, false);
+    }
+
+    // With replace, a null description is written as null rather than left unchanged
+    private Optional<TaskStatus> patchTask(UUID id, String title, String description, TaskStatus status,
+                                           Long expectedVersion, boolean replace) {
+        checkDescription(description);
+        TaskStatus[] previous = new TaskStatus[1];
+        write(id, current -> {
+            if (current == null || (expectedVersion != null && current.version() != expectedVersion)) {
+                return current;
+            }
+            previous[0] = current.status();
+            if (!replace && title == null && description == null && status == null) {
+                return current;
+            }
+            return new Row(id,
+                    title != null ? title : current.title(),
+                    description != null || replace ? description : current.description(),
+                    status != null ? status : current.status(),
+                    current.version() + 1);
+        });
+        return Optional.ofNullable(previous[0]);
+    }
+
+    @Override
+    public Optional<TaskStatus> deleteTaskById(UUID id) {
+        TaskStatus[] previous = new TaskStatus[1];
+        write(id, current -> {
+            if (current != null) {
+                previous[0] = current.status();
+            }
+            return null;
+        });
+        return Optional.ofNullable(previous[0]);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<UUID> toDelete) {
+        toDelete.forEach(id -> write(id, current -> null));
+    }
+
+    /**
+     * Applies {@code change} to the stored row of {@code id} (null when absent) and stores the
+     * result (null to delete), logging it first. Returns the row now stored.
+     */
+    private Row write(UUID id, UnaryOperator<Row> change) {
+        // Until the row is published, so a snapshot does not drop the segment holding its only copy
+        Lock publishLock = writeAheadLog.publishLock();
+        publishLock.lock();
+        try {
+            return compute(id, change);
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private Row compute(UUID id, UnaryOperator<Row> change) {
+        return rows.compute(id, (key, current) -> {
+            Row next = change.apply(current);
+            if (next == current) {
+                return current;
+            }
+            try {
+                if (next == null) {
+                    writeAheadLog.delete(key);
+                } else {
+                    writeAheadLog.put(next);
+                }
+            } catch (IOException e) {
+                // Thrown out of compute, so the stored row stays as it was
+                throw new UncheckedIOException("Could not log write of task " + key, e);
+            }
+            reindex(key, current, next);
+            return next;
+        });
+    }
+
+    private void reindex(UUID id, Row previous, Row next) {
+        if (previous == null) {
+            ids.add(id);
+        } else if (next == null) {
+            ids.remove(id);
+        }
+        if (previous != null && (next == null || previous.status() != next.status())) {
+            idsByStatus.get(previous.status()).remove(id);
+        }
+        if (next != null && (previous == null || previous.status() != next.status())) {
+            idsByStatus.get(next.status()).add(id);
+        }
+    }
+
+    // The NOT NULL and length constraints the tasks table enforces
+    private static void checkConstraints(Task task) {
+        if (task.getTitle() == null || task.getStatus() == null) {
+            throw new DataIntegrityViolationException("Title and status must not be null");
+        }
+        checkDescription(task.getDescription());
+    }
+
+    private static void checkDescription(String description) {
+        if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+            throw new DataIntegrityViolationException("Description is longer than " + MAX_DESCRIPTION_LENGTH);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.taskmanager.repository;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stands in for database replication when the primary and its replicas are embedded H2
+ * databases, as in the {@code replicas} profile. The replicas get the primary's schema up front;
+ * then every {@code interval} each one is brought up to date with the primary's tasks: rows
+ * whose version differs are written, rows gone from the primary are deleted, and the heartbeat
+ * read before the copy is written last, so a replica never claims to hold more than it does.
+ * Each pass reads the whole table; it exercises the routing locally and is not meant for
+ * production-sized data.
+ */
+public class LocalReplicator implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalReplicator.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final DataSource primary;
+    private final List<String> replicaUrls;
+    private final String username;
+    private final String password;
+    private final Duration interval;
+    private ScheduledExecutorService replicator;
+
+    public LocalReplicator(DataSource primary, List<String> replicaUrls, String username, String password,
+                           Duration interval) {
+        this.primary = primary;
+        this.replicaUrls = List.copyOf(replicaUrls);
+        this.username = username;
+        this.password = password;
+        this.interval = interval;
+        for (String url : this.replicaUrls) {
+            Flyway.configure().dataSource(url, username, password).load().migrate();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (replicator != null) {
+            return;
+        }
+        replicator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "local-replicator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(interval.toMillis(), 1);
+        replicator.scheduleWithFixedDelay(this::replicateQuietly, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (replicator != null) {
+            replicator.shutdownNow();
+        }
+    }
+
+    // Brings every replica up to date with the primary
+    public void replicate() throws SQLException {
+        for (String url : replicaUrls) {
+            try (Connection source = primary.getConnection();
+                 Connection target = DriverManager.getConnection(url, username, password)) {
+                copy(source, target);
+            }
+        }
+    }
+
+    private void replicateQuietly() {
+        try {
+            replicate();
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Local replication failed, retrying in {} ms: {}", interval.toMillis(), e.getMessage());
+        }
+    }
+
+    private static void copy(Connection source, Connection target) throws SQLException {
+        long heartbeat;
+        try (Statement statement = source.createStatement();
+             ResultSet row = statement.executeQuery(ReplicaRoutingDataSource.READ_HEARTBEAT)) {
+            heartbeat = row.next() ? row.getLong(1) : 0;
+        }
+        Map<UUID, Long> replicaVersions = new HashMap<>();
+        try (Statement statement = target.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT id, version FROM tasks")) {
+            while (rows.next()) {
+                replicaVersions.put(rows.getObject(1, UUID.class), rows.getLong(2));
+            }
+        }
+
+        target.setAutoCommit(false);
+        try {
+            try (Statement statement = source.createStatement();
+                 ResultSet rows = statement.executeQuery(
+                         "SELECT id, title, description, status, version FROM tasks");
+                 PreparedStatement merge = target.prepareStatement(
+                         "MERGE INTO tasks (id, title, description, status, version) KEY (id) VALUES (?, ?, ?, ?, ?)")) {
+                int pending = 0;
+                while (rows.next()) {
+                    UUID id = rows.getObject(1, UUID.class);
+                    long version = rows.getLong(5);
+                    Long replicaVersion = replicaVersions.remove(id);
+                    if (replicaVersion != null && replicaVersion == version) {
+                        continue;
+                    }
+                    merge.setObject(1, id);
+                    merge.setString(2, rows.getString(2));
+                    merge.setString(3, rows.getString(3));
+                    merge.setString(4, rows.getString(4));
+                    merge.setLong(5, version);
+                    merge.addBatch();
+                    if (++pending % BATCH_SIZE == 0) {
+                        merge.executeBatch();
+                    }
+                }
+                merge.executeBatch();
+            }
+            // What is left was deleted on the primary
+            try (PreparedStatement delete = target.prepareStatement("DELETE FROM tasks WHERE id = ?")) {
+                int pending = 0;
+                for (UUID id : replicaVersions.keySet()) {
+                    delete.setObject(1, id);
+                    delete.addBatch();
+                    if (++pending % BATCH_SIZE == 0) {
+                        delete.executeBatch();
+                    }
+                }
+                delete.executeBatch();
+            }
+            try (PreparedStatement beat = target.prepareStatement(ReplicaRoutingDataSource.WRITE_HEARTBEAT)) {
+                beat.setLong(1, heartbeat);
+                beat.executeUpdate();
+            }
+            target.commit();
+        } catch (SQLException | RuntimeException e) {
+            target.rollback();
+            throw e;
+        }
+    }
+}
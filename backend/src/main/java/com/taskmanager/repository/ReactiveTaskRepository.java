@@ -0,0 +1,211 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.config.ReactiveConfig;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskIds;
+import com.taskmanager.model.TaskStatus;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The tasks table over R2DBC, for the reactive stack: the same table, columns and indexes as
+ * {@link TaskRepository}, in plain SQL. Every method returns a cold publisher that runs its
+ * statement when subscribed to, on the {@code databaseScheduler}; transactions are left to the
+ * caller. See {@link ReactiveConfig}.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTaskRepository {
+
+    private static final String COLUMNS = "id, title, description, status, version";
+
+    private final DatabaseClient databaseClient;
+    private final Scheduler databaseScheduler;
+
+    @Autowired
+    public ReactiveTaskRepository(DatabaseClient databaseClient, Scheduler databaseScheduler) {
+        this.databaseClient = databaseClient;
+        this.databaseScheduler = databaseScheduler;
+    }
+
+    public Mono<Task> findById(UUID id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM tasks WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveTaskRepository::toTask)
+                .one()
+                .subscribeOn(databaseScheduler);
+    }
+
+    // Locks the row until the surrounding transaction ends; empty when there is no such task
+    public Mono<Task> findByIdForUpdate(UUID id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM tasks WHERE id = :id FOR UPDATE")
+                .bind("id", id)
+                .map(ReactiveTaskRepository::toTask)
+                .one()
+                .subscribeOn(databaseScheduler);
+    }
+
+    /**
+     * Tasks with the given status and a title containing {@code search}, ignoring case; null
+     * filters are ignored. With a non-null {@code limit} the result is a keyset page ordered by
+     * id, starting after {@code after}, and otherwise it is unordered.
+     */
+    public Flux<Task> findTasks(UUID after, TaskStatus status, String search, Integer limit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM tasks WHERE 1 = 1");
+        if (after != null) {
+            sql.append(" AND id > :after");
+            parameters.put("after", after);
+        }
+        if (status != null) {
+            sql.append(" AND status = :status");
+            parameters.put("status", status.name());
+        }
+        if (search != null) {
+            sql.append(" AND LOWER(title) LIKE :search");
+            parameters.put("search", "%" + search.toLowerCase(Locale.ROOT) + "%");
+        }
+        if (limit != null) {
+            sql.append(" ORDER BY id LIMIT :limit");
+            parameters.put("limit", limit);
+        }
+        return select(sql.toString(), parameters);
+    }
+
+    // Title or description containing the text, ignoring case, in id order
+    public Flux<Task> search(String text, int limit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("text", "%" + text.toLowerCase(Locale.ROOT) + "%");
+        parameters.put("limit", limit);
+        return select("SELECT " + COLUMNS + " FROM tasks "
+                + "WHERE LOWER(title) LIKE :text OR LOWER(description) LIKE :text ORDER BY id LIMIT :limit", parameters);
+    }
+
+    public Mono<Map<TaskStatus, Long>> countByStatus() {
+        return databaseClient.sql("SELECT status, COUNT(*) AS tasks FROM tasks GROUP BY status")
+                .map(row -> Map.entry(TaskStatus.valueOf(row.get("status", String.class)), row.get("tasks", Long.class)))
+                .all()
+                .<Map<TaskStatus, Long>>collect(() -> new EnumMap<>(TaskStatus.class), (counts, entry) -> counts.put(entry.getKey(), entry.getValue()))
+                .subscribeOn(databaseScheduler);
+    }
+
+    public Mono<Void> insert(Task task) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient
+                .sql("INSERT INTO tasks (" + COLUMNS + ") VALUES (:id, :title, :description, :status, :version)")
+                .bind("id", task.getId())
+                .bind("title", task.getTitle())
+                .bind("status", task.getStatus().name())
+                .bind("version", task.getVersion());
+        return bindDescription(insert, task).then().subscribeOn(databaseScheduler);
+    }
+
+    // Writes the task's title, description, status and version; returns the rows updated
+    public Mono<Long> update(Task task) {
+        DatabaseClient.GenericExecuteSpec update = databaseClient
+                .sql("UPDATE tasks SET title = :title, description = :description, status = :status, version = :version "
+                        + "WHERE id = :id")
+                .bind("id", task.getId())
+                .bind("title", task.getTitle())
+                .bind("status", task.getStatus().name())
+                .bind("version", task.getVersion());
+        return bindDescription(update, task).fetch().rowsUpdated().subscribeOn(databaseScheduler);
+    }
+
+    public Mono<Long> deleteById(UUID id) {
+        return databaseClient.sql("DELETE FROM tasks WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .subscribeOn(databaseScheduler);
+    }
+
+    /**
+     * As {@link TaskRepositoryCustom#insertMissing}: inserts those of the tasks whose id is not
+     * stored yet, as one batch statement, and returns them with their version. Tasks without an
+     * id get a new one. Meant to run in a transaction.
+     */
+    public Mono<List<Task>> insertMissing(List<Task> tasks) {
+        for (Task task : tasks) {
+            if (task.getId() == null) {
+                task.setId(TaskIds.next());
+            }
+        }
+        return databaseClient.sql("SELECT id FROM tasks WHERE id IN (:ids)")
+                .bind("ids", tasks.stream().map(Task::getId).toList())
+                .map(row -> row.get("id", UUID.class))
+                .all()
+                .collect(HashSet<UUID>::new, Set::add)
+                .flatMap(seen -> {
+                    List<Task> missing = new ArrayList<>();
+                    for (Task task : tasks) {
+                        if (seen.add(task.getId())) {
+                            missing.add(task);
+                        }
+                    }
+                    if (missing.isEmpty()) {
+                        return Mono.just(missing);
+                    }
+                    return databaseClient.inConnectionMany(connection -> {
+                        Statement insert = connection.createStatement(
+                                "INSERT INTO tasks (id, title, description, status, version) VALUES ($1, $2, $3, $4, 0)");
+                        for (int i = 0; i < missing.size(); i++) {
+                            if (i > 0) {
+                                insert.add();
+                            }
+                            Task task = missing.get(i);
+                            insert.bind(0, task.getId()).bind(1, task.getTitle()).bind(3, task.getStatus().name());
+                            if (task.getDescription() != null) {
+                                insert.bind(2, task.getDescription());
+                            } else {
+                                insert.bindNull(2, String.class);
+                            }
+                        }
+                        return Flux.from(insert.execute()).flatMap(result -> result.getRowsUpdated());
+                    }).then(Mono.fromSupplier(() -> {
+                        missing.forEach(task -> task.setVersion(0L));
+                        return missing;
+                    }));
+                })
+                .subscribeOn(databaseScheduler);
+    }
+
+    private Flux<Task> select(String sql, Map<String, Object> parameters) {
+        DatabaseClient.GenericExecuteSpec select = databaseClient.sql(sql);
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            select = select.bind(parameter.getKey(), parameter.getValue());
+        }
+        return select.map(ReactiveTaskRepository::toTask).all().subscribeOn(databaseScheduler);
+    }
+
+    // A null value needs its type, which bind cannot infer
+    private static DatabaseClient.GenericExecuteSpec bindDescription(DatabaseClient.GenericExecuteSpec spec, Task task) {
+        return task.getDescription() != null
+                ? spec.bind("description", task.getDescription())
+                : spec.bindNull("description", String.class);
+    }
+
+    private static Task toTask(Readable row) {
+        Task task = new Task(row.get("title", String.class), row.get("description", String.class),
+                TaskStatus.valueOf(row.get("status", String.class)));
+        task.setId(row.get("id", UUID.class));
+        task.setVersion(row.get("version", Long.class));
+        return task;
+    }
+}
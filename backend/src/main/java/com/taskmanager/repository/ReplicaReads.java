@@ -0,0 +1,51 @@
+package com.taskmanager.repository;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread routing hints for {@link ReplicaRoutingDataSource}. A connection comes from a read
+ * replica only when it is taken inside {@link #read} on a thread that is not pinned to the
+ * primary; everything else, including the lookups writes make, runs on the primary. Without
+ * replicas configured the hints have no effect.
+ */
+public final class ReplicaReads {
+
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReplicaReads() {
+    }
+
+    /**
+     * Runs a read that tolerates replica lag. The read must not write or need to see this
+     * thread's own writes; reads of a thread pinned to the primary stay there.
+     */
+    public static <T> T read(Supplier<T> read) {
+        if (REPLICA_READ.get() != null) {
+            return read.get();
+        }
+        REPLICA_READ.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            REPLICA_READ.remove();
+        }
+    }
+
+    // Sends every read of this thread to the primary, until unpin
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    static boolean mayUseReplica() {
+        return REPLICA_READ.get() != null && PINNED.get() == null;
+    }
+}
@@ -0,0 +1,234 @@
+package com.taskmanager.repository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The application's DataSource when read replicas are configured. Connections come from the
+ * primary, except for {@link ReplicaReads#read} reads, which are spread round-robin over the
+ * replicas that are currently available, and fall back to the primary when none is.
+ *
+ * A replica is available while its last health check succeeded and the data it holds is at
+ * most {@code maxStaleness} old. Age is measured with a heartbeat: every check writes the time
+ * to the primary's {@value #HEARTBEAT_TABLE} row, replication carries it over, and a replica
+ * whose row reads t holds every write committed on the primary before t. A replica whose check
+ * fails, or from which no connection can be taken, is ejected until a later check succeeds.
+ *
+ * Registers {@code taskmanager.replica.reads}, {@code taskmanager.replica.lag} and
+ * {@code taskmanager.replica.available}, tagged with the replica, and
+ * {@code taskmanager.replica.fallbacks}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String HEARTBEAT_TABLE = "replication_heartbeat";
+    static final String WRITE_HEARTBEAT = "UPDATE " + HEARTBEAT_TABLE + " SET beat_millis = ? WHERE id = 1";
+    static final String READ_HEARTBEAT = "SELECT beat_millis FROM " + HEARTBEAT_TABLE + " WHERE id = 1";
+    private static final int CHECK_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxStalenessMillis;
+    private final Duration checkInterval;
+    private final LongSupplier clock;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder fallbacks = new LongAdder();
+    private ScheduledExecutorService monitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    Duration maxStaleness, Duration checkInterval) {
+        this(primary, replicas, maxStaleness, checkInterval, System::currentTimeMillis);
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                             Duration maxStaleness, Duration checkInterval, LongSupplier clock) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        this.checkInterval = checkInterval;
+        this.clock = clock;
+    }
+
+    // Checks start once the application is up, when the primary's schema has been migrated
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (monitor != null) {
+            return;
+        }
+        monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(checkInterval.toMillis(), 1);
+        monitor.scheduleWithFixedDelay(this::check, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() throws Exception {
+        if (monitor != null) {
+            monitor.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReplicaReads.mayUseReplica()) {
+            Replica replica = choose();
+            if (replica != null) {
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replica.reads.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    eject(replica, e);
+                }
+            }
+            fallbacks.increment();
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    // The names of the replicas reads may go to now
+    public List<String> getAvailableReplicas() {
+        long now = clock.getAsLong();
+        return replicas.stream()
+                .filter(replica -> replica.isAvailable(now, maxStalenessMillis))
+                .map(replica -> replica.name)
+                .toList();
+    }
+
+    /**
+     * Writes a heartbeat to the primary and checks every replica: a replica that answers is
+     * admitted with the heartbeat it holds, one that does not is ejected.
+     */
+    public void check() {
+        long now = clock.getAsLong();
+        try (Connection connection = primary.getConnection();
+             PreparedStatement statement = connection.prepareStatement(WRITE_HEARTBEAT)) {
+            statement.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+            statement.setLong(1, now);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            log.warn("Could not write the replication heartbeat to the primary: {}", e.getMessage());
+        }
+        for (Replica replica : replicas) {
+            boolean wasAvailable = replica.isAvailable(now, maxStalenessMillis);
+            try (Connection connection = replica.dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(READ_HEARTBEAT)) {
+                statement.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+                try (ResultSet row = statement.executeQuery()) {
+                    replica.heartbeat = row.next() ? row.getLong(1) : 0;
+                }
+                replica.healthy = true;
+            } catch (SQLException e) {
+                eject(replica, e);
+                continue;
+            }
+            boolean available = replica.isAvailable(now, maxStalenessMillis);
+            if (available && !wasAvailable) {
+                log.info("Read replica {} admitted, {} ms behind", replica.name, now - replica.heartbeat);
+            } else if (!available && wasAvailable) {
+                log.warn("Read replica {} skipped, {} ms behind the primary", replica.name, now - replica.heartbeat);
+            }
+        }
+    }
+
+    private Replica choose() {
+        long now = clock.getAsLong();
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isAvailable(now, maxStalenessMillis)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void eject(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            log.warn("Read replica {} ejected: {}", replica.name, cause.getMessage());
+        }
+        replica.healthy = false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            FunctionCounter.builder("taskmanager.replica.reads", replica, r -> r.reads.sum())
+                    .tag("replica", replica.name)
+                    .description("Connections taken from the replica for reads")
+                    .register(registry);
+            Gauge.builder("taskmanager.replica.lag", replica, r -> r.heartbeat == 0
+                            ? Double.NaN : (clock.getAsLong() - r.heartbeat) / 1000.0)
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .description("Age of the newest replicated heartbeat")
+                    .register(registry);
+            Gauge.builder("taskmanager.replica.available", replica,
+                            r -> r.isAvailable(clock.getAsLong(), maxStalenessMillis) ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .description("1 while reads may go to the replica")
+                    .register(registry);
+        }
+        FunctionCounter.builder("taskmanager.replica.fallbacks", fallbacks, LongAdder::sum)
+                .description("Replica reads served by the primary because no replica was available")
+                .register(registry);
+    }
+
+    private static final class Replica {
+
+        final String name;
+        final DataSource dataSource;
+        final LongAdder reads = new LongAdder();
+        // Written by the monitor; healthy is also cleared when a connection cannot be taken
+        volatile boolean healthy;
+        // Primary time of the newest heartbeat the replica holds, 0 until the first check
+        volatile long heartbeat;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        boolean isAvailable(long now, long maxStalenessMillis) {
+            return healthy && heartbeat > 0 && now - heartbeat <= maxStalenessMillis;
+        }
+    }
+}
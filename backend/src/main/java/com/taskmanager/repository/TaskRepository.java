@@ -2,16 +2,44 @@ package com.taskmanager.repository;
 
 import com.taskmanager.model.Task;
 import com.taskmanager.model.TaskStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
 
+// The JPA engine, used by the services as a TaskStore. TaskRepositoryCustom is listed again
+// because Spring Data looks for fragment implementations of directly extended interfaces only
 @Repository
-public interface TaskRepository extends JpaRepository<Task, UUID> {
+public interface TaskRepository extends JpaRepository<Task, UUID>, TaskStore, TaskRepositoryCustom {
     
-    // Additional query methods can be added here if needed
+    // List queries load read-only entities: Hibernate keeps no snapshot for dirty checking
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
     List<Task> findByStatus(TaskStatus status);
+
+    @Override
+    long countByStatus(TaskStatus status);
+
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
     List<Task> findByTitleContainingIgnoreCase(String title);
-} 
\ No newline at end of file
+
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT t FROM Task t " +
+           "WHERE (:after IS NULL OR t.id > :after) " +
+           "AND (:status IS NULL OR t.status = :status) " +
+           "AND (:search IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "ORDER BY t.id")
+    List<Task> findPage(@Param("after") UUID after,
+                        @Param("status") TaskStatus status,
+                        @Param("search") String search,
+                        Limit limit);
+}
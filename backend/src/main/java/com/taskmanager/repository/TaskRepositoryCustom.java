@@ -0,0 +1,69 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskField;
+import com.taskmanager.model.TaskQuery;
+import com.taskmanager.model.TaskQueryPlan;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.model.TaskView;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Streams tasks in id order from a forward-only cursor. Each row is detached once read,
+     * so the persistence context does not grow with the result. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    Stream<Task> streamTasks(TaskStatus status, String search);
+
+    /**
+     * Selects only the columns of the given fields, without loading entities. Null filters are
+     * ignored; with a non-null {@code limit} the result is a keyset page ordered by id, starting
+     * after {@code after}, and otherwise it is unordered.
+     */
+    List<TaskView> findViews(Set<TaskField> fields, UUID after, TaskStatus status, String search, Integer limit);
+
+    // As findViews, for the tasks with the given ids, in no particular order
+    List<TaskView> findViewsById(Set<TaskField> fields, Collection<UUID> ids);
+
+    /**
+     * Runs a combined query as one statement: status among the query's statuses, title or
+     * description containing its text, in its order, up to its limit. Relevance order ranks
+     * title prefixes first, then other title matches, then description-only matches, shorter
+     * titles first within each.
+     */
+    List<Task> findByQuery(TaskQuery query);
+
+    // Runs the statement of findByQuery through the engine's query analysis instead of returning tasks
+    TaskQueryPlan explainQuery(TaskQuery query);
+
+    /**
+     * Inserts the tasks whose ids are not stored yet, keeping their ids, as one batch, and
+     * returns them with version 0. Tasks whose id is already stored, or repeats an earlier one,
+     * are skipped, so inserting the same tasks again is harmless. Tasks without an id get a
+     * new time-ordered one from {@link com.taskmanager.model.TaskIds#next()}.
+     */
+    List<Task> insertMissing(List<Task> tasks);
+
+    /**
+     * Updates only the columns whose argument is non-null and bumps the version, in a single
+     * statement. A non-null {@code expectedVersion} must match the stored one. Returns the status
+     * the task had before, taken from the statement's own change, so a status transition is known
+     * exactly without reading the task first; empty when no row matched. When no column is given
+     * the task is only checked, not written.
+     */
+    Optional<TaskStatus> patchTask(UUID id, String title, String description, TaskStatus status, Long expectedVersion);
+
+    // As patchTask, replacing the title, description (null included) and status
+    Optional<TaskStatus> updateTask(UUID id, String title, String description, TaskStatus status, Long expectedVersion);
+
+    // Deletes the task in a single statement; returns the status it had, empty when there was no such task
+    Optional<TaskStatus> deleteTaskById(UUID id);
+}
@@ -0,0 +1,323 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskField;
+import com.taskmanager.model.TaskIds;
+import com.taskmanager.model.TaskQuery;
+import com.taskmanager.model.TaskQueryPlan;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.model.TaskView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.Session;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    static final int STREAM_FETCH_SIZE = 500;
+
+    // The index H2 chose, as in /* PUBLIC.IDX_TASKS_STATUS_ID: STATUS IN(...) */, and rows it read
+    private static final Pattern PLAN_INDEX = Pattern.compile("/\\* PUBLIC\\.(\\w+(?:\\.tableScan)?)");
+    private static final Pattern PLAN_SCAN_COUNT = Pattern.compile("/\\* scanCount: (\\d+) \\*/");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Task> streamTasks(TaskStatus status, String search) {
+        TypedQuery<Task> query = entityManager.createQuery(
+                "SELECT t FROM Task t " +
+                "WHERE (:status IS NULL OR t.status = :status) " +
+                "AND (:search IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+                "ORDER BY t.id", Task.class)
+                .setParameter("status", status)
+                .setParameter("search", search)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true);
+        return query.getResultStream().peek(entityManager::detach);
+    }
+
+    @Override
+    public List<TaskView> findViews(Set<TaskField> fields, UUID after, TaskStatus status, String search, Integer limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Task> task = query.from(Task.class);
+        List<Predicate> conditions = new ArrayList<>();
+        if (after != null) {
+            conditions.add(builder.greaterThan(task.<UUID>get("id"), after));
+        }
+        if (status != null) {
+            conditions.add(builder.equal(task.get("status"), status));
+        }
+        if (search != null) {
+            conditions.add(builder.like(builder.lower(task.<String>get("title")),
+                    "%" + search.toLowerCase(Locale.ROOT) + "%"));
+        }
+        query.where(conditions.toArray(Predicate[]::new));
+        if (limit != null) {
+            query.orderBy(builder.asc(task.get("id")));
+        }
+        TypedQuery<Tuple> typed = entityManager.createQuery(query.multiselect(selections(task, fields)));
+        if (limit != null) {
+            typed.setMaxResults(limit);
+        }
+        return toViews(typed.getResultList(), fields);
+    }
+
+    @Override
+    public List<TaskView> findViewsById(Set<TaskField> fields, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+        Root<Task> task = query.from(Task.class);
+        query.where(task.get("id").in(ids));
+        return toViews(entityManager.createQuery(query.multiselect(selections(task, fields))).getResultList(), fields);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Task> findByQuery(TaskQuery query) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        Query select = entityManager.createNativeQuery(querySql(query, parameters), Task.class)
+                .setHint(AvailableHints.HINT_READ_ONLY, true);
+        parameters.forEach(select::setParameter);
+        return select.getResultList();
+    }
+
+    @Override
+    public TaskQueryPlan explainQuery(TaskQuery query) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        Query explain = entityManager.createNativeQuery("EXPLAIN ANALYZE " + querySql(query, parameters));
+        parameters.forEach(explain::setParameter);
+        String plan = String.valueOf(explain.getSingleResult());
+
+        // A merged query reads one index per branch, and the rows scanned add up
+        Set<String> indexes = new LinkedHashSet<>();
+        for (Matcher index = PLAN_INDEX.matcher(plan); index.find(); ) {
+            indexes.add(index.group(1).endsWith(".tableScan") ? "table scan" : index.group(1).toLowerCase(Locale.ROOT));
+        }
+        long scanned = 0;
+        for (Matcher scanCount = PLAN_SCAN_COUNT.matcher(plan); scanCount.find(); ) {
+            scanned += Long.parseLong(scanCount.group(1));
+        }
+        return new TaskQueryPlan(TaskQueryPlan.DATABASE, indexes.isEmpty() ? null : String.join(", ", indexes),
+                scanned, plan);
+    }
+
+    /**
+     * Native SQL, so the statement explained is exactly the one run. With one status, ordering by
+     * the status first (which the filter makes constant) lets H2 read idx_tasks_status_id or
+     * idx_tasks_status_title_id in order and stop after {@code limit} rows. With several, each
+     * status is such a branch and the branches' rows are merged, which reads at most
+     * {@code limit} rows per status instead of sorting them all.
+     */
+    private static String querySql(TaskQuery query, Map<String, Object> parameters) {
+        String order = switch (query.sort()) {
+            case ID -> "id";
+            case TITLE -> "title, id";
+            case RELEVANCE -> "CASE WHEN LOWER(title) LIKE :prefix THEN 0 "
+                    + "WHEN LOWER(title) LIKE :pattern THEN 1 ELSE 2 END, LENGTH(title), id";
+        };
+        String textCondition = null;
+        if (query.text() != null) {
+            textCondition = "(LOWER(title) LIKE :pattern OR LOWER(description) LIKE :pattern)";
+            parameters.put("pattern", "%" + query.text().toLowerCase(Locale.ROOT) + "%");
+            if (query.sort() == TaskQuery.Sort.RELEVANCE) {
+                parameters.put("prefix", query.text().toLowerCase(Locale.ROOT) + "%");
+            }
+        }
+        String fetch = " FETCH FIRST " + query.limit() + " ROWS ONLY";
+
+        List<TaskStatus> statuses = query.statuses().stream().sorted().toList();
+        if (statuses.isEmpty()) {
+            return select(textCondition, order) + fetch;
+        }
+        List<String> branches = new ArrayList<>();
+        for (TaskStatus status : statuses) {
+            String parameter = "status" + status.ordinal();
+            parameters.put(parameter, status.name());
+            String condition = "status = :" + parameter + (textCondition != null ? " AND " + textCondition : "");
+            branches.add(select(condition, "status, " + order) + fetch);
+        }
+        if (branches.size() == 1) {
+            return branches.get(0);
+        }
+        String union = "(" + String.join(") UNION ALL (", branches) + ")";
+        // H2 orders a union only by its columns, and reads the branches' indexes in order only
+        // when the union is not wrapped in a derived table; relevance needs the wrapper
+        return query.sort() == TaskQuery.Sort.RELEVANCE
+                ? "SELECT * FROM (" + union + ") matches ORDER BY " + order + fetch
+                : union + " ORDER BY " + order + fetch;
+    }
+
+    private static String select(String condition, String order) {
+        return "SELECT id, title, description, status, version FROM tasks"
+                + (condition != null ? " WHERE " + condition : "") + " ORDER BY " + order;
+    }
+
+    private static List<Selection<?>> selections(Root<Task> task, Set<TaskField> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (TaskField field : fields) {
+            selections.add(task.get(field.property()).alias(field.property()));
+        }
+        return selections;
+    }
+
+    // Tuple rows are plain values, so the persistence context keeps no entities or snapshots
+    private static List<TaskView> toViews(List<Tuple> rows, Set<TaskField> fields) {
+        List<TaskView> views = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            views.add(new TaskView(
+                    fields.contains(TaskField.ID) ? row.get("id", UUID.class) : null,
+                    fields.contains(TaskField.TITLE) ? row.get("title", String.class) : null,
+                    fields.contains(TaskField.DESCRIPTION) ? row.get("description", String.class) : null,
+                    fields.contains(TaskField.STATUS) ? row.get("status", TaskStatus.class) : null,
+                    fields.contains(TaskField.VERSION) ? row.get("version", Long.class) : null));
+        }
+        return views;
+    }
+
+    // Plain JDBC batch: the entity's id generator would replace the ids being imported
+    @Override
+    @Transactional
+    public List<Task> insertMissing(List<Task> tasks) {
+        for (Task task : tasks) {
+            if (task.getId() == null) {
+                task.setId(TaskIds.next());
+            }
+        }
+        Set<UUID> seen = new HashSet<>(entityManager.createQuery(
+                "SELECT t.id FROM Task t WHERE t.id IN :ids", UUID.class)
+                .setParameter("ids", tasks.stream().map(Task::getId).toList())
+                .getResultList());
+        List<Task> missing = new ArrayList<>();
+        for (Task task : tasks) {
+            if (seen.add(task.getId())) {
+                missing.add(task);
+            }
+        }
+        if (missing.isEmpty()) {
+            return missing;
+        }
+
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO tasks (id, title, description, status, version) VALUES (?, ?, ?, ?, 0)")) {
+                for (Task task : missing) {
+                    insert.setObject(1, task.getId());
+                    insert.setString(2, task.getTitle());
+                    insert.setString(3, task.getDescription());
+                    insert.setString(4, task.getStatus().name());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        });
+        missing.forEach(task -> task.setVersion(0L));
+        return missing;
+    }
+
+    @Override
+    @Transactional
+    public Optional<TaskStatus> patchTask(UUID id, String title, String description, TaskStatus status,
+                                          Long expectedVersion) {
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder assignments = new StringBuilder();
+        if (title != null) {
+            assignments.append(", title = ?");
+            parameters.add(title);
+        }
+        if (description != null) {
+            assignments.append(", description = ?");
+            parameters.add(description);
+        }
+        if (status != null) {
+            assignments.append(", status = ?");
+            parameters.add(status.name());
+        }
+        parameters.add(id);
+        String condition = "id = ?";
+        if (expectedVersion != null) {
+            condition += " AND version = ?";
+            parameters.add(expectedVersion);
+        }
+        if (assignments.isEmpty()) {
+            return previousStatus("SELECT status FROM tasks WHERE " + condition, parameters);
+        }
+        return previousStatus("SELECT status FROM OLD TABLE (UPDATE tasks SET version = version + 1"
+                + assignments + " WHERE " + condition + ")", parameters);
+    }
+
+    @Override
+    @Transactional
+    public Optional<TaskStatus> updateTask(UUID id, String title, String description, TaskStatus status,
+                                           Long expectedVersion) {
+        List<Object> parameters = new ArrayList<>(Arrays.asList(title, description, status.name(), id));
+        String condition = "id = ?";
+        if (expectedVersion != null) {
+            condition += " AND version = ?";
+            parameters.add(expectedVersion);
+        }
+        return previousStatus("SELECT status FROM OLD TABLE (UPDATE tasks "
+                + "SET version = version + 1, title = ?, description = ?, status = ? WHERE " + condition + ")",
+                parameters);
+    }
+
+    @Override
+    @Transactional
+    public Optional<TaskStatus> deleteTaskById(UUID id) {
+        return previousStatus("SELECT status FROM OLD TABLE (DELETE FROM tasks WHERE id = ?)", List.of(id));
+    }
+
+    // OLD TABLE is H2's delta table of the changed rows as they were before the change, so the
+    // write reports the previous status itself, with no read ahead of it. Pending entity changes
+    // are flushed first, as a JPQL update would
+    private Optional<TaskStatus> previousStatus(String sql, List<Object> parameters) {
+        entityManager.flush();
+        Optional<TaskStatus> previous = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    if (parameters.get(i) == null) {
+                        statement.setNull(i + 1, Types.VARCHAR);
+                    } else {
+                        statement.setObject(i + 1, parameters.get(i));
+                    }
+                }
+                try (ResultSet rows = statement.executeQuery()) {
+                    return rows.next() ? Optional.of(TaskStatus.valueOf(rows.getString(1))) : Optional.empty();
+                }
+            }
+        });
+        entityManager.clear();
+        return previous;
+    }
+}
@@ -0,0 +1,48 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The task storage the services use, whatever the engine: {@link TaskRepository} over JPA, or
+ * {@link InMemoryTaskRepository}. The JPA repository declares the same methods again with their
+ * queries; the methods of {@link TaskRepositoryCustom} are implemented by each engine.
+ */
+public interface TaskStore extends TaskRepositoryCustom {
+
+    Optional<Task> findById(UUID id);
+
+    boolean existsById(UUID id);
+
+    List<Task> findAll();
+
+    // The stored tasks among the ids, in no particular order; unknown ids are skipped
+    List<Task> findAllById(Iterable<UUID> ids);
+
+    long count();
+
+    List<Task> findByStatus(TaskStatus status);
+
+    long countByStatus(TaskStatus status);
+
+    List<Task> findByTitleContainingIgnoreCase(String title);
+
+    // Keyset page ordered by id; a null cursor starts from the beginning, null filters are ignored
+    List<Task> findPage(UUID after, TaskStatus status, String search, Limit limit);
+
+    /**
+     * Inserts a task without a version, or updates one whose version matches the stored one,
+     * failing with an optimistic locking exception otherwise. Returns the task with its id and
+     * new version.
+     */
+    <S extends Task> S save(S task);
+
+    <S extends Task> List<S> saveAll(Iterable<S> tasks);
+
+    void deleteAllByIdInBatch(Iterable<UUID> ids);
+}
@@ -0,0 +1,382 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.model.TaskStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable storage for {@link InMemoryTaskRepository}: an append-only log of task writes, split
+ * into numbered segments, plus a compacted snapshot of every task as of a segment boundary.
+ *
+ * Each write is appended as one frame ({@code length, crc32, payload}) holding the task's full
+ * new state or its deletion, so replaying frames in order and keeping the last one per id
+ * rebuilds the tasks. Frames reach the operating system on every write; {@link #sync()} forces
+ * them to disk. Recovery reads the snapshot, replays the segments written after it, and stops at
+ * the first torn or corrupt frame.
+ */
+public class TaskWriteAheadLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskWriteAheadLog.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x54534e50;
+    private static final int END_OF_SNAPSHOT = -1;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final String SNAPSHOT = "tasks.snapshot";
+    private static final Pattern SEGMENT = Pattern.compile("tasks-(\\d{10})\\.wal");
+
+    private final Path directory;
+    private final TaskStatus[] statuses = TaskStatus.values();
+    private final Object snapshotLock = new Object();
+    private final ReadWriteLock publishLock = new ReentrantReadWriteLock();
+    private volatile FileChannel channel;
+    private long segment;
+    private long segmentBytes;
+    private volatile boolean dirty;
+
+    public TaskWriteAheadLog(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Rebuilds the stored tasks from the snapshot and the segments after it, then starts a new
+     * segment for the writes to come. Must be called once, before any write.
+     */
+    public Map<UUID, InMemoryTaskRepository.Row> recover() throws IOException {
+        long started = System.nanoTime();
+        Files.createDirectories(directory);
+        Map<UUID, InMemoryTaskRepository.Row> rows = new HashMap<>();
+        Path snapshot = directory.resolve(SNAPSHOT);
+        long firstSegment = Files.exists(snapshot) ? readSnapshot(snapshot, rows) : 1;
+
+        long lastSegment = firstSegment - 1;
+        long lastSegmentBytes = 0;
+        long frames = 0;
+        for (long number : segmentNumbers()) {
+            if (number < firstSegment) {
+                // Already covered by the snapshot; left over from an interrupted compaction
+                Files.deleteIfExists(segmentPath(number));
+                continue;
+            }
+            Replayed replayed = replay(segmentPath(number), rows);
+            frames += replayed.frames();
+            lastSegment = number;
+            lastSegmentBytes = replayed.validBytes();
+        }
+        log.info("Recovered {} tasks from {} in {} ms ({} log frames replayed)", rows.size(), directory,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), frames);
+
+        if (lastSegment < firstSegment) {
+            openSegment(firstSegment);
+        } else {
+            // Continue the last segment, cutting off a torn tail so new frames follow valid ones
+            try (FileChannel file = FileChannel.open(segmentPath(lastSegment), StandardOpenOption.WRITE)) {
+                file.truncate(lastSegmentBytes);
+            }
+            openSegment(lastSegment);
+            segmentBytes = lastSegmentBytes;
+        }
+        return rows;
+    }
+
+    public synchronized void put(InMemoryTaskRepository.Row row) throws IOException {
+        append(putPayload(row));
+    }
+
+    public synchronized void delete(UUID id) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(17);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(DELETE);
+        writeId(out, id);
+        append(bytes.toByteArray());
+    }
+
+    /**
+     * Held by writers, shared, from appending a frame until the write is visible in the rows
+     * later passed to {@link #snapshot}. A snapshot holds it exclusively while it switches
+     * segments, so every frame of the segments it deletes is reflected in those rows.
+     */
+    public Lock publishLock() {
+        return publishLock.readLock();
+    }
+
+    // Bytes appended to the current segment, i.e. since the last snapshot
+    public synchronized long segmentBytes() {
+        return segmentBytes;
+    }
+
+    // Forces appended frames to disk; cheap when nothing was written since the last call
+    public void sync() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException e) {
+            // Rotated away meanwhile; rotation forces the old segment before closing it
+        }
+    }
+
+    /**
+     * Starts a new segment, writes {@code rows} as the snapshot for everything before it, and
+     * deletes the segments the snapshot replaces. Writes may continue meanwhile: they go to the
+     * new segment, which recovery replays over the snapshot, so {@code rows} may be a weakly
+     * consistent view, as long as writers hold the {@link #publishLock} until their write shows
+     * in it.
+     */
+    public void snapshot(Iterable<InMemoryTaskRepository.Row> rows) throws IOException {
+        synchronized (snapshotLock) {
+            writeSnapshot(rows);
+        }
+    }
+
+    private void writeSnapshot(Iterable<InMemoryTaskRepository.Row> rows) throws IOException {
+        long covered;
+        // Waits for writes appended to the old segment to be published
+        publishLock.writeLock().lock();
+        try {
+            synchronized (this) {
+                covered = segment;
+                openSegment(segment + 1);
+            }
+        } finally {
+            publishLock.writeLock().unlock();
+        }
+
+        Path temporary = directory.resolve(SNAPSHOT + ".tmp");
+        long count = 0;
+        try (OutputStream file = Files.newOutputStream(temporary);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(covered + 1);
+            for (InMemoryTaskRepository.Row row : rows) {
+                writeFrame(out, putPayload(row));
+                count++;
+            }
+            out.writeInt(END_OF_SNAPSHOT);
+        }
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            file.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (long number : segmentNumbers()) {
+            if (number <= covered) {
+                Files.deleteIfExists(segmentPath(number));
+            }
+        }
+        log.debug("Snapshot of {} tasks written; log segments up to {} removed", count, covered);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    private void append(byte[] payload) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(8 + payload.length);
+        frame.putInt(payload.length).putInt(crc(payload)).put(payload).flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+        segmentBytes += frame.limit();
+        dirty = true;
+    }
+
+    private void openSegment(long number) throws IOException {
+        FileChannel previous = channel;
+        channel = FileChannel.open(segmentPath(number),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segment = number;
+        segmentBytes = 0;
+        if (previous != null) {
+            previous.force(false);
+            previous.close();
+        }
+    }
+
+    private long readSnapshot(Path snapshot, Map<UUID, InMemoryTaskRepository.Row> rows) throws IOException {
+        try (InputStream file = Files.newInputStream(snapshot);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a task snapshot: " + snapshot);
+            }
+            long firstSegment = in.readLong();
+            byte[] payload;
+            while ((payload = readFrame(in, true)) != null) {
+                apply(payload, rows);
+            }
+            return firstSegment;
+        } catch (EOFException e) {
+            // Snapshots are renamed into place only once complete, so this is not a torn write
+            throw new IOException("Truncated task snapshot: " + snapshot, e);
+        }
+    }
+
+    private record Replayed(long frames, long validBytes) {}
+
+    private Replayed replay(Path segmentPath, Map<UUID, InMemoryTaskRepository.Row> rows) throws IOException {
+        long frames = 0;
+        long validBytes = 0;
+        try (InputStream file = Files.newInputStream(segmentPath);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+            byte[] payload;
+            while ((payload = readFrame(in, false)) != null) {
+                apply(payload, rows);
+                frames++;
+                validBytes += 8 + payload.length;
+            }
+        } catch (EOFException | CorruptFrameException e) {
+            log.warn("Ignoring the tail of {} after {} frames: {}", segmentPath, frames,
+                    e.getMessage() != null ? e.getMessage() : "truncated frame");
+        }
+        return new Replayed(frames, validBytes);
+    }
+
+    // Returns null at the end of the data: end of file for segments, the end marker for snapshots
+    private static byte[] readFrame(DataInputStream in, boolean snapshot) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            if (snapshot) {
+                throw e;
+            }
+            return null;
+        }
+        if (snapshot && length == END_OF_SNAPSHOT) {
+            return null;
+        }
+        if (length <= 0 || length > (1 << 20)) {
+            throw new CorruptFrameException("bad frame length " + length);
+        }
+        int expectedCrc = in.readInt();
+        byte[] payload = in.readNBytes(length);
+        if (payload.length < length) {
+            throw new EOFException();
+        }
+        if (crc(payload) != expectedCrc) {
+            throw new CorruptFrameException("checksum mismatch");
+        }
+        return payload;
+    }
+
+    private void apply(byte[] payload, Map<UUID, InMemoryTaskRepository.Row> rows) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        UUID id = new UUID(in.readLong(), in.readLong());
+        if (type == DELETE) {
+            rows.remove(id);
+        } else if (type == PUT) {
+            long version = in.readLong();
+            TaskStatus status = statuses[in.readByte()];
+            String title = readString(in);
+            String description = readString(in);
+            rows.put(id, new InMemoryTaskRepository.Row(id, title, description, status, version));
+        } else {
+            throw new CorruptFrameException("unknown frame type " + type);
+        }
+    }
+
+    private static byte[] putPayload(InMemoryTaskRepository.Row row) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(PUT);
+        writeId(out, row.id());
+        out.writeLong(row.version());
+        out.writeByte(row.status().ordinal());
+        writeString(out, row.title());
+        writeString(out, row.description());
+        return bytes.toByteArray();
+    }
+
+    private static void writeFrame(DataOutputStream out, byte[] payload) throws IOException {
+        out.writeInt(payload.length);
+        out.writeInt(crc(payload));
+        out.write(payload);
+    }
+
+    private static void writeId(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private List<Long> segmentNumbers() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> SEGMENT.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("tasks-%010d.wal", number));
+    }
+
+    private static class CorruptFrameException extends IOException {
+        CorruptFrameException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskEvent;
+import com.taskmanager.model.TaskIds;
+import com.taskmanager.model.TaskPatch;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.repository.ReactiveTaskRepository;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.publisher.SynchronousSink;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * The task operations of the reactive stack, over {@link ReactiveTaskRepository}. Nothing here
+ * blocks: each method returns a publisher that does its work when subscribed to. Writes that
+ * read the task first (updates, patches, deletes) lock its row in a transaction, which also
+ * checks an expected version. There is no cache, search index or write-behind queue; reads go
+ * to the database every time.
+ *
+ * Committed changes are published as {@link TaskEvent}s, numbered as the servlet stack numbers
+ * them. Each subscriber of {@link #events} has its own bounded buffer: one that falls further
+ * behind stops receiving events, and its feed ends with an overflow error once it has read the
+ * buffered ones. A slow client never holds up writers or other clients.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTaskService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveTaskService.class);
+
+    private record Change(Task task, TaskStatus previousStatus) {}
+
+    private final ReactiveTaskRepository taskRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final Validator validator;
+    private final int streamPageSize;
+    private final int eventBufferSize;
+    private final int chunkSize;
+    private final int progressInterval;
+    private final Sinks.Many<TaskEvent> events = Sinks.many().multicast().directBestEffort();
+    private long nextSequence = 1;
+
+    @Autowired
+    public ReactiveTaskService(ReactiveTaskRepository taskRepository,
+                               TransactionalOperator transactionalOperator,
+                               Validator validator,
+                               @Value("${taskmanager.reactive.stream-page-size:500}") int streamPageSize,
+                               @Value("${taskmanager.reactive.event-buffer-size:1000}") int eventBufferSize,
+                               @Value("${taskmanager.batch.chunk-size:1000}") int chunkSize,
+                               @Value("${taskmanager.import.progress-interval:100000}") int progressInterval) {
+        this.taskRepository = taskRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.validator = validator;
+        this.streamPageSize = streamPageSize;
+        this.eventBufferSize = eventBufferSize;
+        this.chunkSize = chunkSize;
+        this.progressInterval = progressInterval;
+    }
+
+    public Mono<Task> getTaskById(UUID id) {
+        return taskRepository.findById(id);
+    }
+
+    // Unordered, as the servlet stack's unpaged lists
+    public Flux<Task> getTasks(TaskStatus status, String search) {
+        return taskRepository.findTasks(null, status, blankToNull(search), null);
+    }
+
+    public Flux<Task> getTasksPage(UUID after, TaskStatus status, String search, int limit) {
+        return taskRepository.findTasks(after, status, blankToNull(search), limit);
+    }
+
+    /**
+     * All matching tasks in id order, read a keyset page of {@code stream-page-size} at a time
+     * as the subscriber asks for more: a slow reader holds at most about two pages, and no
+     * connection between pages.
+     */
+    public Flux<Task> streamTasks(TaskStatus status, String search) {
+        String titleFilter = blankToNull(search);
+        return taskRepository.findTasks(null, status, titleFilter, streamPageSize).collectList()
+                .expand(page -> page.size() < streamPageSize ? Mono.empty()
+                        : taskRepository.findTasks(page.get(page.size() - 1).getId(), status, titleFilter, streamPageSize)
+                                .collectList())
+                .flatMapIterable(Function.identity(), 1);
+    }
+
+    // Unranked: title or description containing the query, in id order
+    public Flux<Task> searchTasks(String query, int limit) {
+        String text = blankToNull(query);
+        return text == null ? Flux.empty() : taskRepository.search(text.trim(), limit);
+    }
+
+    // Counted by the database on each call; there are no in-memory counters on this stack
+    public Mono<TaskStatusCounters.Counts> getStatusCounts() {
+        return taskRepository.countByStatus().map(stored -> {
+            Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+            long total = 0;
+            for (TaskStatus status : TaskStatus.values()) {
+                long count = stored.getOrDefault(status, 0L);
+                byStatus.put(status, count);
+                total += count;
+            }
+            return new TaskStatusCounters.Counts(total, byStatus);
+        });
+    }
+
+    public Mono<Task> createTask(Task task) {
+        return Mono.defer(() -> {
+            Task created = new Task(task.getTitle(), task.getDescription(),
+                    task.getStatus() != null ? task.getStatus() : TaskStatus.TODO);
+            created.setId(TaskIds.next());
+            created.setVersion(0L);
+            return taskRepository.insert(created)
+                    .then(Mono.fromRunnable(() -> publish(TaskEvent.Type.CREATED, created.getId(), created.getStatus(), null, created)))
+                    .thenReturn(created);
+        });
+    }
+
+    /**
+     * Replaces the title, description and status of a task. A non-null {@code expectedVersion}
+     * must match the stored version, or the result fails with
+     * {@link TaskVersionMismatchException}. Empty when no task has the given id; otherwise the
+     * task as stored, with its new version.
+     */
+    public Mono<Task> updateTask(UUID id, Task taskUpdate, Long expectedVersion) {
+        return write(id, expectedVersion, current -> new Task(taskUpdate.getTitle(), taskUpdate.getDescription(),
+                taskUpdate.getStatus()));
+    }
+
+    // As updateTask, for the non-null fields of the patch; a patch without any leaves the task as it is
+    public Mono<Task> patchTask(UUID id, TaskPatch patch, Long expectedVersion) {
+        return write(id, expectedVersion, current -> !patch.hasChanges() ? null : new Task(
+                patch.title() != null ? patch.title() : current.getTitle(),
+                patch.description() != null ? patch.description() : current.getDescription(),
+                patch.status() != null ? patch.status() : current.getStatus()));
+    }
+
+    // True when the task existed
+    public Mono<Boolean> deleteTask(UUID id) {
+        return taskRepository.findByIdForUpdate(id)
+                .flatMap(current -> taskRepository.deleteById(id).thenReturn(current.getStatus()))
+                .as(transactionalOperator::transactional)
+                .doOnNext(previousStatus -> publish(TaskEvent.Type.DELETED, id, previousStatus, null, null))
+                .hasElement();
+    }
+
+    /**
+     * Committed changes from now on, limited to tasks entering or leaving one of
+     * {@code statuses} unless it is empty. There is no replay of earlier events.
+     */
+    public Flux<TaskEvent> events(Set<TaskStatus> statuses) {
+        return events.asFlux()
+                .filter(event -> matches(statuses, event))
+                .onBackpressureBuffer(eventBufferSize);
+    }
+
+    /**
+     * As {@link TaskTransferService#importTasks}, for rows already decoded as they are read:
+     * valid rows are inserted in chunks, each in its own transaction, skipping ids already
+     * stored. Emits the counts every {@code progress-interval} rows and a last line with a status
+     * of COMPLETED or FAILED; the rows are only read as fast as the chunks are stored.
+     */
+    public Flux<TaskTransferService.ImportProgress> importTasks(Flux<Task> rows) {
+        return Flux.defer(() -> {
+            TaskTransferService.Counts counts = new TaskTransferService.Counts();
+            long[] nextReport = {progressInterval};
+            return rows
+                    .handle((Task task, SynchronousSink<Task> valid) -> {
+                        counts.read++;
+                        if (task.getStatus() == null) {
+                            task.setStatus(TaskStatus.TODO);
+                        }
+                        String violations = TaskTransferService.violations(validator, task);
+                        if (violations != null) {
+                            counts.invalid++;
+                            counts.error("Row " + counts.read + ": " + violations);
+                        } else {
+                            valid.next(task);
+                        }
+                    })
+                    .buffer(chunkSize)
+                    .concatMap(chunk -> insert(chunk, counts))
+                    .concatMap(inserted -> {
+                        if (counts.read < nextReport[0]) {
+                            return Mono.empty();
+                        }
+                        nextReport[0] = (counts.read / progressInterval + 1) * progressInterval;
+                        return Mono.just(counts.snapshot(TaskTransferService.ImportStatus.RUNNING));
+                    })
+                    .concatWith(Mono.fromSupplier(() -> {
+                        log.info("Imported {} tasks from {} rows ({} already present, {} invalid)",
+                                counts.created, counts.read, counts.existing, counts.invalid);
+                        return counts.snapshot(TaskTransferService.ImportStatus.COMPLETED);
+                    }))
+                    .onErrorResume(e -> {
+                        String error = e instanceof TaskTransferService.ChunkFailedException ? e.getMessage()
+                                : "Row " + (counts.read + 1) + ": " + TaskTransferService.message(parseError(e));
+                        counts.error(error);
+                        log.warn("Task import stopped after {} rows: {}", counts.read, error);
+                        return Mono.just(counts.snapshot(TaskTransferService.ImportStatus.FAILED));
+                    });
+        });
+    }
+
+    private Mono<List<Task>> insert(List<Task> chunk, TaskTransferService.Counts counts) {
+        return taskRepository.insertMissing(chunk)
+                .as(transactionalOperator::transactional)
+                .onErrorMap(e -> new TaskTransferService.ChunkFailedException("Rows up to " + counts.read + ": chunk of "
+                        + chunk.size() + " tasks could not be stored: " + e.getMessage(), e))
+                .doOnNext(inserted -> {
+                    // One reset per chunk rather than an event per task
+                    if (!inserted.isEmpty()) {
+                        publish(TaskEvent.Type.RESET, null, null, null, null);
+                    }
+                    counts.created += inserted.size();
+                    counts.existing += chunk.size() - inserted.size();
+                });
+    }
+
+    // change maps the locked current task to its replacement, or to null to leave it unchanged
+    private Mono<Task> write(UUID id, Long expectedVersion, Function<Task, Task> change) {
+        return taskRepository.findByIdForUpdate(id)
+                .flatMap(current -> {
+                    if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                        return Mono.error(new TaskVersionMismatchException(id, expectedVersion));
+                    }
+                    Task replacement = change.apply(current);
+                    if (replacement == null) {
+                        return Mono.just(new Change(current, null));
+                    }
+                    replacement.setId(id);
+                    replacement.setVersion(current.getVersion() + 1);
+                    return taskRepository.update(replacement).thenReturn(new Change(replacement, current.getStatus()));
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(written -> {
+                    if (written.previousStatus() != null) {
+                        publish(TaskEvent.Type.UPDATED, id, written.task().getStatus(), written.previousStatus(), written.task());
+                    }
+                })
+                .map(Change::task);
+    }
+
+    // Under the lock so sequence numbers follow the order of emission, which the sink also needs serialized
+    private synchronized void publish(TaskEvent.Type type, UUID id, TaskStatus status, TaskStatus previousStatus, Task task) {
+        events.tryEmitNext(new TaskEvent(nextSequence++, type, id, status, previousStatus, task));
+    }
+
+    // WebFlux wraps Jackson's error, which names the problem, in a decoding and then an input exception
+    private static Throwable parseError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JsonProcessingException) {
+                return cause;
+            }
+        }
+        return e;
+    }
+
+    private static boolean matches(Set<TaskStatus> statuses, TaskEvent event) {
+        if (statuses.isEmpty() || (event.status() == null && event.previousStatus() == null)) {
+            return true;
+        }
+        // Immutable sets reject contains(null), and creates and deletes have no previous status
+        return (event.status() != null && statuses.contains(event.status()))
+                || (event.previousStatus() != null && statuses.contains(event.previousStatus()));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
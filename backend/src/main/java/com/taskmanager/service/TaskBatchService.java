@@ -0,0 +1,285 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskPatch;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.repository.TaskStore;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk create, update and delete. Items are processed in chunks, each in its own transaction, so
+ * Hibernate can send a chunk's statements as JDBC batches and a failing chunk does not undo the
+ * chunks before it. Every item gets its own result, in request order.
+ */
+@Service
+public class TaskBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskBatchService.class);
+
+    public enum Outcome {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        CONFLICT,
+        INVALID,
+        FAILED
+    }
+
+    public record ItemResult(int index, UUID id, Outcome outcome, String error) {
+
+        static ItemResult of(int index, UUID id, Outcome outcome) {
+            return new ItemResult(index, id, outcome, null);
+        }
+
+        static ItemResult error(int index, UUID id, Outcome outcome, String error) {
+            return new ItemResult(index, id, outcome, error);
+        }
+    }
+
+    private final TaskStore taskRepository;
+    private final TaskService taskService;
+    private final TransactionOperations transactionOperations;
+    private final Validator validator;
+    private final int chunkSize;
+
+    @Autowired
+    public TaskBatchService(TaskStore taskRepository,
+                            TaskService taskService,
+                            TransactionOperations transactionOperations,
+                            Validator validator,
+                            @Value("${taskmanager.batch.chunk-size:1000}") int chunkSize) {
+        this.taskRepository = taskRepository;
+        this.taskService = taskService;
+        this.transactionOperations = transactionOperations;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    public List<ItemResult> createTasks(List<Task> tasks) {
+        ItemResult[] results = new ItemResult[tasks.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task == null) {
+                results[i] = ItemResult.error(i, null, Outcome.INVALID, "Task must not be null");
+                continue;
+            }
+            task.setId(null);
+            if (task.getStatus() == null) {
+                task.setStatus(TaskStatus.TODO);
+            }
+            String violations = violations(task);
+            if (violations != null) {
+                results[i] = ItemResult.error(i, null, Outcome.INVALID, violations);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (List<Integer> chunk : chunks(valid)) {
+            List<Task> chunkTasks = chunk.stream().map(tasks::get).collect(Collectors.toList());
+            try {
+                List<Task> saved = transactionOperations.execute(status -> taskRepository.saveAll(chunkTasks));
+                for (int j = 0; j < chunk.size(); j++) {
+                    Task task = saved.get(j);
+                    taskService.afterCreate(task);
+                    results[chunk.get(j)] = ItemResult.of(chunk.get(j), task.getId(), Outcome.CREATED);
+                }
+            } catch (RuntimeException e) {
+                failChunk(results, chunk, i -> null, e);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Applies the non-null title, description and status of each item to the task with the
+     * item's id. Tasks of a chunk are loaded with one query and written back as batched updates.
+     * An item carrying a version is only applied if the task still has that version.
+     */
+    public List<ItemResult> updateTasks(List<TaskPatch> updates) {
+        ItemResult[] results = new ItemResult[updates.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            TaskPatch update = updates.get(i);
+            if (update == null || update.id() == null) {
+                results[i] = ItemResult.error(i, null, Outcome.INVALID, "Task id must not be null");
+            } else if (update.title() != null && update.title().isBlank()) {
+                results[i] = ItemResult.error(i, update.id(), Outcome.INVALID, "Title must not be blank");
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (int i : valid) {
+            taskService.writePending(updates.get(i).id());
+        }
+        update(valid, results, i -> updates.get(i).id(), i -> updates.get(i).version(), (task, i) -> {
+            TaskPatch update = updates.get(i);
+            if (update.title() != null) {
+                task.setTitle(update.title());
+            }
+            if (update.description() != null) {
+                task.setDescription(update.description());
+            }
+            if (update.status() != null) {
+                task.setStatus(update.status());
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Replaces the title, description and status of each task with those of the item with its
+     * id, as a PUT does, in chunks like {@link #updateTasks}. Items are expected to be valid
+     * already; write-behind flushes use this for the updates they have accepted.
+     */
+    public List<ItemResult> replaceTasks(List<Task> replacements) {
+        ItemResult[] results = new ItemResult[replacements.size()];
+        List<Integer> all = IntStream.range(0, replacements.size()).boxed().collect(Collectors.toList());
+        update(all, results, i -> replacements.get(i).getId(), i -> null, (task, i) -> {
+            Task replacement = replacements.get(i);
+            task.setTitle(replacement.getTitle());
+            task.setDescription(replacement.getDescription());
+            task.setStatus(replacement.getStatus());
+        });
+        return Arrays.asList(results);
+    }
+
+    // Loads the tasks of each chunk, applies the items to them and writes them back in one transaction
+    private void update(List<Integer> indexes, ItemResult[] results, IntFunction<UUID> idOf,
+                        IntFunction<Long> versionOf, ObjIntConsumer<Task> apply) {
+        for (List<Integer> chunk : chunks(indexes)) {
+            Map<UUID, TaskStatus> previousStatuses = new HashMap<>();
+            Set<Integer> conflicts = new HashSet<>();
+            try {
+                Map<UUID, Task> saved = transactionOperations.execute(status -> {
+                    Map<UUID, Task> existing = byId(taskRepository.findAllById(
+                            chunk.stream().map(idOf::apply).collect(Collectors.toSet())));
+                    for (int i : chunk) {
+                        Task task = existing.get(idOf.apply(i));
+                        if (task == null) {
+                            continue;
+                        }
+                        Long version = versionOf.apply(i);
+                        if (version != null && !version.equals(task.getVersion())) {
+                            conflicts.add(i);
+                            continue;
+                        }
+                        previousStatuses.putIfAbsent(task.getId(), task.getStatus());
+                        apply.accept(task, i);
+                    }
+                    // A no-op for JPA's managed entities; stores the changes with the in-memory engine
+                    taskRepository.saveAll(existing.values().stream()
+                            .filter(task -> previousStatuses.containsKey(task.getId()))
+                            .collect(Collectors.toList()));
+                    return existing;
+                });
+                for (Task task : saved.values()) {
+                    if (previousStatuses.containsKey(task.getId())) {
+                        taskService.afterUpdate(task, previousStatuses.get(task.getId()));
+                    }
+                }
+                for (int i : chunk) {
+                    UUID id = idOf.apply(i);
+                    Outcome outcome = conflicts.contains(i) ? Outcome.CONFLICT
+                            : saved.containsKey(id) ? Outcome.UPDATED : Outcome.NOT_FOUND;
+                    results[i] = ItemResult.of(i, id, outcome);
+                }
+            } catch (RuntimeException e) {
+                failChunk(results, chunk, idOf::apply, e);
+            }
+        }
+    }
+
+    public List<ItemResult> deleteTasks(List<UUID> ids) {
+        ItemResult[] results = new ItemResult[ids.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null) {
+                results[i] = ItemResult.error(i, null, Outcome.INVALID, "Task id must not be null");
+            } else {
+                taskService.discardPending(ids.get(i));
+                valid.add(i);
+            }
+        }
+
+        for (List<Integer> chunk : chunks(valid)) {
+            try {
+                Map<UUID, Task> deleted = transactionOperations.execute(status -> {
+                    Map<UUID, Task> existing = byId(taskRepository.findAllById(
+                            chunk.stream().map(ids::get).collect(Collectors.toSet())));
+                    if (!existing.isEmpty()) {
+                        taskRepository.deleteAllByIdInBatch(existing.keySet());
+                    }
+                    return existing;
+                });
+                for (Task task : deleted.values()) {
+                    taskService.afterDelete(task.getId(), task.getStatus());
+                }
+                Set<UUID> reported = new HashSet<>();
+                for (int i : chunk) {
+                    UUID id = ids.get(i);
+                    // A repeated id is deleted once; later occurrences report NOT_FOUND
+                    boolean deletedHere = deleted.containsKey(id) && reported.add(id);
+                    results[i] = ItemResult.of(i, id, deletedHere ? Outcome.DELETED : Outcome.NOT_FOUND);
+                }
+            } catch (RuntimeException e) {
+                failChunk(results, chunk, ids::get, e);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private List<List<Integer>> chunks(List<Integer> indexes) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < indexes.size(); from += chunkSize) {
+            chunks.add(indexes.subList(from, Math.min(from + chunkSize, indexes.size())));
+        }
+        return chunks;
+    }
+
+    private void failChunk(ItemResult[] results, List<Integer> chunk, Function<Integer, UUID> idOf, RuntimeException e) {
+        log.warn("Batch chunk of {} tasks failed: {}", chunk.size(), e.getMessage());
+        for (int i : chunk) {
+            results[i] = ItemResult.error(i, idOf.apply(i), Outcome.FAILED, e.getMessage());
+        }
+    }
+
+    private String violations(Task task) {
+        Set<ConstraintViolation<Task>> violations = validator.validate(task);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static Map<UUID, Task> byId(List<Task> tasks) {
+        return tasks.stream().collect(Collectors.toMap(Task::getId, Function.identity()));
+    }
+}
@@ -0,0 +1,175 @@
+package com.taskmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache in front of the task repository: single tasks by id, and the
+ * materialized task list of each status.
+ *
+ * Writes reach the cache after they commit, in no particular order between concurrent writers.
+ * Creates and deletes patch cached entries in place, since no other write of the task can
+ * follow a delete or come before a create. Updates evict the task and the lists of its old and
+ * new status instead, and the next read loads them again: patching them in place could leave
+ * an earlier update's body and version cached over a later one's. Patches and evictions run
+ * through the cache map's atomic operations, which wait for a load of the same key in
+ * progress, so a load that read the database before the write is patched or dropped rather
+ * than kept.
+ */
+@Component
+public class TaskCache {
+
+    private final Cache<UUID, Task> tasksById;
+    private final Cache<TaskStatus, List<Task>> tasksByStatus;
+
+    public record Stats(long hits, long misses, long evictions, long size) {}
+
+    @Autowired
+    public TaskCache(@Value("${taskmanager.cache.max-size:10000}") long maxSize,
+                     @Value("${taskmanager.cache.ttl:PT5M}") Duration ttl) {
+        this(maxSize, ttl, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    TaskCache(long maxSize, Duration ttl, Ticker ticker, Executor executor) {
+        this.tasksById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+        this.tasksByStatus = Caffeine.newBuilder()
+                .maximumSize(TaskStatus.values().length)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Task> getTask(UUID id, Function<UUID, Optional<Task>> loader) {
+        return Optional.ofNullable(tasksById.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public List<Task> getTasksByStatus(TaskStatus status, Function<TaskStatus, List<Task>> loader) {
+        return tasksByStatus.get(status, key -> List.copyOf(loader.apply(key)));
+    }
+
+    /**
+     * Returns the cached copy of a task, from its id entry or any cached status list, without
+     * loading it or counting towards the hit rate. Empty means no cached entry contains the task.
+     */
+    public Optional<Task> peekTask(UUID id) {
+        Task task = tasksById.asMap().get(id);
+        if (task != null) {
+            return Optional.of(task);
+        }
+        for (List<Task> tasks : tasksByStatus.asMap().values()) {
+            for (Task candidate : tasks) {
+                if (candidate.getId().equals(id)) {
+                    return Optional.of(candidate);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Records a created task: caches it, and appends it to the list of its status where that is cached
+    public void add(Task task) {
+        tasksById.put(task.getId(), task);
+        tasksByStatus.asMap().computeIfPresent(task.getStatus(), (status, tasks) -> with(tasks, task));
+    }
+
+    /**
+     * Records an updated task: drops its cached copy and the lists of the given statuses, which
+     * are the statuses it had and has now.
+     */
+    public void evict(UUID id, TaskStatus... statuses) {
+        tasksById.invalidate(id);
+        for (TaskStatus status : statuses) {
+            if (status != null) {
+                tasksByStatus.invalidate(status);
+            }
+        }
+    }
+
+    // Records tasks created in bulk: drops the lists of their statuses, to be loaded again when read
+    public void evictStatuses(Set<TaskStatus> statuses) {
+        tasksByStatus.invalidateAll(statuses);
+    }
+
+    /**
+     * Records a deleted task. When its status is unknown, every cached status list is dropped.
+     */
+    public void remove(UUID id, TaskStatus previousStatus) {
+        tasksById.invalidate(id);
+        if (previousStatus != null) {
+            tasksByStatus.asMap().computeIfPresent(previousStatus, (status, tasks) -> without(tasks, id));
+        } else {
+            tasksByStatus.invalidateAll();
+        }
+    }
+
+    public void clear() {
+        tasksById.invalidateAll();
+        tasksByStatus.invalidateAll();
+    }
+
+    public Map<String, Stats> stats() {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        stats.put("tasksById", stats(tasksById));
+        stats.put("tasksByStatus", stats(tasksByStatus));
+        return stats;
+    }
+
+    private static Stats stats(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new Stats(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
+    }
+
+    private static List<Task> with(List<Task> tasks, Task task) {
+        List<Task> result = new ArrayList<>(tasks.size() + 1);
+        boolean replaced = false;
+        for (Task existing : tasks) {
+            if (existing.getId().equals(task.getId())) {
+                result.add(task);
+                replaced = true;
+            } else {
+                result.add(existing);
+            }
+        }
+        if (!replaced) {
+            result.add(task);
+        }
+        return List.copyOf(result);
+    }
+
+    private static List<Task> without(List<Task> tasks, UUID id) {
+        List<Task> result = new ArrayList<>(tasks.size());
+        for (Task existing : tasks) {
+            if (!existing.getId().equals(id)) {
+                result.add(existing);
+            }
+        }
+        return List.copyOf(result);
+    }
+}
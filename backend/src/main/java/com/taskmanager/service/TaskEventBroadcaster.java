@@ -0,0 +1,298 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskEvent;
+import com.taskmanager.model.TaskStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans task change events out to Server-Sent Events subscribers.
+ *
+ * Events get a monotonically increasing sequence number, used as the SSE event id, and the most
+ * recent ones are kept in a bounded ring buffer so a reconnecting client can resume from its
+ * Last-Event-ID. A single dispatcher thread puts each event, replay and heartbeat on the queues
+ * of the subscribers it concerns, so each client sees events in sequence order. Every subscriber
+ * has its own queue of {@code buffer-size} entries. A subscriber with entries waits for one of a
+ * fixed pool of {@code senders} threads, which writes out at most {@value #SEND_BATCH} of them
+ * and then puts it back behind the others, so the thread count does not grow with the number of
+ * subscribers. A write blocks until the client takes the bytes, so a client that stops reading
+ * holds its sender until the container's write times out; the others share the rest of the pool.
+ * A subscriber whose queue fills is disconnected, and resumes from its Last-Event-ID when it
+ * reconnects. Idle connections are held by the servlet container's async support, not by threads.
+ */
+@Component
+public class TaskEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskEventBroadcaster.class);
+
+    static final String RESET_EVENT = "reset";
+    static final int SEND_BATCH = 64;
+
+    private final TaskEvent[] ring;
+    private final int bufferSize;
+    private long nextSequence = 1;
+    // Only touched on the dispatcher thread
+    private long dispatchedSequence;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService senders;
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<TaskStatus> statuses;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        // Set while the subscriber waits for or has a sender, so it is queued to the pool at most once
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Set<TaskStatus> statuses, int bufferSize) {
+            this.emitter = emitter;
+            this.statuses = statuses;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    @Autowired
+    public TaskEventBroadcaster(@Value("${taskmanager.events.replay-size:1000}") int replaySize,
+                                @Value("${taskmanager.events.buffer-size:1000}") int bufferSize,
+                                @Value("${taskmanager.events.heartbeat:PT15S}") Duration heartbeat,
+                                @Value("${taskmanager.events.senders:4}") int senderThreads) {
+        if (replaySize < 1 || bufferSize < 1 || senderThreads < 1) {
+            throw new IllegalArgumentException("taskmanager.events.replay-size, buffer-size and senders must be at least 1");
+        }
+        this.ring = new TaskEvent[replaySize];
+        this.bufferSize = bufferSize;
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-events-send-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = heartbeat.toMillis();
+        dispatcher.scheduleAtFixedRate(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public void created(Task task) {
+        publish(TaskEvent.Type.CREATED, task.getId(), task.getStatus(), null, task);
+    }
+
+    public void updated(Task task, TaskStatus previousStatus) {
+        publish(TaskEvent.Type.UPDATED, task.getId(), task.getStatus(), previousStatus, task);
+    }
+
+    /**
+     * Publishes an update for which only the id and the statuses are known, not the task's fields.
+     * Subscribers of either status get it, so a filtered client learns that a task left its status.
+     */
+    public void updated(UUID id, TaskStatus status, TaskStatus previousStatus) {
+        publish(TaskEvent.Type.UPDATED, id, status, previousStatus, null);
+    }
+
+    public void deleted(UUID id, TaskStatus previousStatus) {
+        publish(TaskEvent.Type.DELETED, id, previousStatus, null, null);
+    }
+
+    /**
+     * Publishes a {@value #RESET_EVENT} event to every subscriber, standing in for changes to
+     * more tasks than are worth sending one by one.
+     */
+    public void reset() {
+        publish(TaskEvent.Type.RESET, null, null, null, null);
+    }
+
+    /**
+     * Registers an emitter for events touching any of {@code statuses} (all events when empty).
+     * With a {@code lastEventId}, buffered events after it are replayed first; if some of them
+     * have already left the buffer, or the id is not one this process issued, a
+     * {@value #RESET_EVENT} event first tells the client to reload its tasks. When the events to
+     * replay would fill the subscriber's queue, only the reset is sent.
+     */
+    public void subscribe(SseEmitter emitter, Set<TaskStatus> statuses, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(statuses), bufferSize);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+
+        dispatcher.execute(() -> {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+            // It may have ended in the meantime, before it could be removed
+            if (subscriber.closed.get()) {
+                subscribers.remove(subscriber);
+            }
+        });
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void publish(TaskEvent.Type type, UUID id, TaskStatus status, TaskStatus previousStatus, Task task) {
+        synchronized (ring) {
+            TaskEvent event = new TaskEvent(nextSequence, type, id, status, previousStatus, task);
+            ring[(int) (nextSequence % ring.length)] = event;
+            nextSequence++;
+            // Enqueued under the lock so events are dispatched in sequence order
+            dispatcher.execute(() -> dispatch(event));
+        }
+    }
+
+    private void dispatch(TaskEvent event) {
+        dispatchedSequence = event.sequence();
+        for (Subscriber subscriber : subscribers) {
+            if (matches(subscriber, event)) {
+                enqueue(subscriber, toSse(event));
+            }
+        }
+    }
+
+    // Runs on the dispatcher. Events not dispatched yet are left to their pending dispatch, which
+    // will see the subscriber.
+    private void replay(Subscriber subscriber, long lastEventId) {
+        List<TaskEvent> missed = new ArrayList<>();
+        boolean complete;
+        synchronized (ring) {
+            long oldest = Math.max(1, nextSequence - ring.length);
+            // An id from the future means the server restarted and the sequence started over
+            complete = lastEventId + 1 >= oldest && lastEventId < nextSequence;
+            for (long sequence = Math.max(lastEventId + 1, oldest); sequence <= dispatchedSequence; sequence++) {
+                TaskEvent event = ring[(int) (sequence % ring.length)];
+                if (matches(subscriber, event)) {
+                    missed.add(event);
+                }
+            }
+        }
+        boolean fits = missed.size() + (complete ? 0 : 1) <= bufferSize;
+        if (!complete || !fits) {
+            enqueue(subscriber, SseEmitter.event().name(RESET_EVENT).data(""));
+        }
+        if (!fits) {
+            return;
+        }
+        for (TaskEvent event : missed) {
+            enqueue(subscriber, toSse(event));
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.queue.offer(event)) {
+            drop(subscriber, new IOException("More than " + bufferSize + " events waiting to be sent"));
+            return;
+        }
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Runs on a sender thread for up to SEND_BATCH events
+    private void drain(Subscriber subscriber) {
+        SseEmitter.SseEventBuilder event;
+        for (int sent = 0; sent < SEND_BATCH && (event = subscriber.queue.poll()) != null; sent++) {
+            try {
+                subscriber.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                drop(subscriber, e);
+                subscriber.sending.set(false);
+                return;
+            }
+        }
+        subscriber.sending.set(false);
+        // Events left over, or enqueued after the last poll but before the flag was cleared
+        if (!subscriber.queue.isEmpty() && subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        if (close(subscriber)) {
+            log.debug("Dropping event subscriber: {}", cause.getMessage());
+            // Not on the dispatcher: completing waits for a send still blocked on the client
+            senders.execute(() -> subscriber.emitter.completeWithError(cause));
+        }
+    }
+
+    // True for the call that closed it
+    private boolean close(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscribers.remove(subscriber);
+        subscriber.queue.clear();
+        return true;
+    }
+
+    private static boolean matches(Subscriber subscriber, TaskEvent event) {
+        Set<TaskStatus> statuses = subscriber.statuses;
+        if (statuses.isEmpty() || (event.status() == null && event.previousStatus() == null)) {
+            return true;
+        }
+        // Immutable sets reject contains(null), and creates and deletes have no previous status
+        return (event.status() != null && statuses.contains(event.status()))
+                || (event.previousStatus() != null && statuses.contains(event.previousStatus()));
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(TaskEvent event) {
+        return SseEmitter.event()
+                .id(Long.toString(event.sequence()))
+                .name(event.type().name().toLowerCase())
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    // Waits until everything submitted to the dispatcher so far has run and been sent
+    void awaitDispatch() throws InterruptedException, ExecutionException {
+        dispatcher.submit(() -> { }).get();
+        for (Subscriber subscriber : subscribers) {
+            while (subscriber.sending.get()) {
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+}
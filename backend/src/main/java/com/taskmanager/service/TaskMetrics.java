@@ -0,0 +1,39 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.TaskStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers the {@code taskmanager.tasks} gauge: the number of tasks in each {@link TaskStatus},
+ * read from the in-memory status counters; and {@code taskmanager.write.behind.queued}, the
+ * number of tasks with a write-behind update not yet written.
+ */
+@Component
+public class TaskMetrics implements MeterBinder {
+
+    private final TaskStatusCounters statusCounters;
+    private final TaskWriteBuffer writeBuffer;
+
+    @Autowired
+    public TaskMetrics(TaskStatusCounters statusCounters, TaskWriteBuffer writeBuffer) {
+        this.statusCounters = statusCounters;
+        this.writeBuffer = writeBuffer;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (TaskStatus status : TaskStatus.values()) {
+            Gauge.builder("taskmanager.tasks", statusCounters, counters -> counters.get(status))
+                    .tag("status", status.name())
+                    .description("Number of tasks by status")
+                    .register(registry);
+        }
+        Gauge.builder("taskmanager.write.behind.queued", writeBuffer, TaskWriteBuffer::size)
+                .description("Number of tasks with a write-behind update not yet written")
+                .register(registry);
+    }
+}
@@ -0,0 +1,86 @@
+package com.taskmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for reads the cache does not hold: concurrent calls with the same operation and
+ * arguments share one repository call, and its result is reused for {@code window} after it
+ * completes. Any write starts a new generation, so a read that begins after a write never gets
+ * a result loaded before it. A zero window turns coalescing off.
+ *
+ * Results are shared between callers as they are, so loaders must return values nobody mutates.
+ */
+@Component
+public class TaskReadCoalescer {
+
+    private record Key(String operation, List<Object> arguments, long generation) {}
+
+    // Loads stay here until they complete, however long they take; only then do their results
+    // move to the expiring cache, so a slow load is never evicted while callers wait on it
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<Key, CompletableFuture<Object>> completed;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public TaskReadCoalescer(@Value("${taskmanager.coalescing.window:PT0.01S}") Duration window) {
+        this.completed = window.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /**
+     * Returns the result of {@code loader}, or of the identical call in flight or completed
+     * within the window. A failing load is not reused; callers that joined it get its exception.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String operation, List<Object> arguments, Supplier<T> loader) {
+        if (completed == null) {
+            return loader.get();
+        }
+        Key key = new Key(operation, arguments, generation.get());
+        CompletableFuture<Object> existing = completed.getIfPresent(key);
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        if (existing == null) {
+            existing = inFlight.putIfAbsent(key, call);
+        }
+        if (existing != null) {
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            T result = loader.get();
+            call.complete(result);
+            // Cached before it leaves inFlight, so identical calls always find one or the other;
+            // the window runs from completion, not from the start of the load
+            completed.put(key, call);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    // Called after every committed write
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+}
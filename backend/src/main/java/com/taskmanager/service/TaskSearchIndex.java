@@ -0,0 +1,415 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskQuery;
+import com.taskmanager.model.TaskStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process trigram index over task titles and descriptions.
+ *
+ * Each indexed task gets an int document id, and every lower-cased trigram of its fields maps to
+ * a sorted array of the document ids containing it. A query intersects the arrays of its own
+ * trigrams, starting from the shortest, and verifies the remaining candidates against the stored
+ * text, so results are exact substring matches. Queries shorter than a trigram are rejected; the
+ * service sends them to the database instead of scanning every document. The status of each task
+ * is kept alongside its text, so queries restricted to some statuses skip the others before
+ * matching any text.
+ *
+ * Beyond the lower-cased text, a task costs 4 bytes per distinct trigram, up to half again as
+ * much in array slack, and about 100 bytes for its document id and entry in the id table. With a
+ * 30-character title and a 60-character description that came to 460 bytes per task at 1M tasks,
+ * where a set of boxed ids per trigram took 2.9 KB. Writes take a write lock and queries a read
+ * lock, as the arrays are changed in place.
+ */
+@Component
+public class TaskSearchIndex {
+
+    static final int GRAM = 3;
+
+    private static final int INITIAL_DOCUMENTS = 1024;
+
+    private static final double TITLE_PREFIX_SCORE = 4.0;
+    private static final double TITLE_WORD_SCORE = 3.0;
+    private static final double TITLE_SUBSTRING_SCORE = 2.0;
+    private static final double DESCRIPTION_SCORE = 1.0;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock. Document ids of removed tasks are reused by the next ones put
+    private final Map<UUID, Integer> documentIds = new HashMap<>();
+    private UUID[] ids = new UUID[INITIAL_DOCUMENTS];
+    private Document[] documents = new Document[INITIAL_DOCUMENTS];
+    private int documentCount;
+    private int[] freeDocuments = new int[16];
+    private int freeCount;
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private volatile boolean ready;
+
+    public record Hit(UUID id, double score) {}
+
+    // What a query costs: the candidates its trigrams leave to verify, and how many of them match
+    public record Plan(int candidates, int matches) {}
+
+    private record Document(String title, String description, TaskStatus status) {}
+
+    // Sorted document ids containing one trigram
+    private static final class Postings {
+
+        private int[] entries = new int[4];
+        private int size;
+
+        void add(int document) {
+            int position = Arrays.binarySearch(entries, 0, size, document);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size + (size >> 1));
+            }
+            System.arraycopy(entries, position, entries, position + 1, size - position);
+            entries[position] = document;
+            size++;
+        }
+
+        void remove(int document) {
+            int position = Arrays.binarySearch(entries, 0, size, document);
+            if (position >= 0) {
+                System.arraycopy(entries, position + 1, entries, position, size - position - 1);
+                size--;
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Whether search accepts the text: at least one trigram once trimmed
+    public static boolean isIndexed(String text) {
+        return normalize(text).length() >= GRAM;
+    }
+
+    /**
+     * Indexes the given tasks and marks the index ready to serve queries. Meant to run once at
+     * startup, before any write is accepted: each task is put as given, replacing whatever is
+     * indexed, so a concurrent write could be undone and a deleted task come back.
+     */
+    public void rebuild(Iterable<Task> tasks) {
+        for (Task task : tasks) {
+            put(task);
+        }
+        ready = true;
+    }
+
+    public void put(Task task) {
+        put(task.getId(), task.getTitle(), task.getDescription(), task.getStatus());
+    }
+
+    public void put(UUID id, String title, String description, TaskStatus status) {
+        Document next = new Document(normalize(title), normalize(description), status);
+        lock.writeLock().lock();
+        try {
+            Integer document = documentIds.get(id);
+            if (document == null) {
+                document = allocate(id);
+            }
+            reindex(document, next);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes the fields that are non-null and keeps the others as indexed. Does nothing for
+     * tasks that are not indexed.
+     */
+    public void patch(UUID id, String title, String description, TaskStatus status) {
+        if (title == null && description == null && status == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer document = documentIds.get(id);
+            if (document == null) {
+                return;
+            }
+            Document previous = documents[document];
+            reindex(document, new Document(
+                    title != null ? normalize(title) : previous.title(),
+                    description != null ? normalize(description) : previous.description(),
+                    status != null ? status : previous.status()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Integer document = documentIds.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (long gram : grams(documents[document])) {
+                removePosting(gram, document);
+            }
+            documents[document] = null;
+            ids[document] = null;
+            if (freeCount == freeDocuments.length) {
+                freeDocuments = Arrays.copyOf(freeDocuments, freeCount * 2);
+            }
+            freeDocuments[freeCount++] = document;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Bytes held by the posting arrays, including their unused slack
+    long postingBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Postings list : postings.values()) {
+                bytes += (long) list.entries.length * Integer.BYTES;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} tasks whose title or description contains {@code query},
+     * case-insensitively, best match first. Title prefixes rank above title word starts, which
+     * rank above other title matches and then description-only matches; ties go to the shorter title.
+     * A blank query matches nothing; one shorter than a trigram is rejected, see {@link #isIndexed}.
+     */
+    public List<Hit> search(String query, int limit) {
+        if (normalize(query).isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return search(new TaskQuery(null, query, TaskQuery.Sort.RELEVANCE, limit));
+    }
+
+    /**
+     * Returns the tasks matching the query's text and statuses, in the query's order, up to its
+     * limit. Titles are compared lower-cased for {@link TaskQuery.Sort#TITLE}.
+     */
+    public List<Hit> search(TaskQuery query) {
+        String needle = normalize(query.text());
+        if (needle.isEmpty()) {
+            return List.of();
+        }
+
+        Comparator<Candidate> worstFirst = switch (query.sort()) {
+            case RELEVANCE -> Comparator.comparingDouble(Candidate::score)
+                    .thenComparing(Comparator.comparingInt(Candidate::titleLength).reversed())
+                    .thenComparing(Candidate::id, Comparator.reverseOrder());
+            case ID -> Comparator.comparing(Candidate::id, Comparator.reverseOrder());
+            case TITLE -> Comparator.comparing(Candidate::title, Comparator.reverseOrder())
+                    .thenComparing(Candidate::id, Comparator.reverseOrder());
+        };
+        PriorityQueue<Candidate> best = new PriorityQueue<>(worstFirst);
+        int limit = query.limit();
+
+        lock.readLock().lock();
+        try {
+            int[] candidates = candidates(needle);
+            for (int document : candidates) {
+                Document indexed = documents[document];
+                if (!query.matchesStatus(indexed.status())) {
+                    continue;
+                }
+                double score = score(indexed, needle);
+                if (score == 0) {
+                    continue;
+                }
+                Candidate candidate = new Candidate(ids[document], score, indexed.title());
+                if (best.size() < limit) {
+                    best.add(candidate);
+                } else if (worstFirst.compare(candidate, best.peek()) > 0) {
+                    best.poll();
+                    best.add(candidate);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            Candidate candidate = best.poll();
+            hits.add(new Hit(candidate.id(), candidate.score()));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    // Counts the work search(query) does, without ordering or limiting the matches
+    public Plan plan(TaskQuery query) {
+        String needle = normalize(query.text());
+        if (needle.isEmpty()) {
+            return new Plan(0, 0);
+        }
+        lock.readLock().lock();
+        try {
+            int[] candidates = candidates(needle);
+            int matches = 0;
+            for (int document : candidates) {
+                Document indexed = documents[document];
+                if (query.matchesStatus(indexed.status()) && score(indexed, needle) > 0) {
+                    matches++;
+                }
+            }
+            return new Plan(candidates.length, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Candidate(UUID id, double score, String title) {
+
+        int titleLength() {
+            return title.length();
+        }
+    }
+
+    // Under the read lock
+    private int[] candidates(String needle) {
+        if (needle.length() < GRAM) {
+            throw new IllegalArgumentException("Queries shorter than " + GRAM + " characters are not indexed");
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (long gram : grams(needle)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists.get(0).entries, lists.get(0).size);
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            size = retain(result, size, lists.get(i));
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    // Keeps the first size entries of documents that are also in list, in place; returns how many
+    private static int retain(int[] documents, int size, Postings list) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < size && from < list.size; i++) {
+            int position = Arrays.binarySearch(list.entries, from, list.size, documents[i]);
+            if (position >= 0) {
+                documents[kept++] = documents[i];
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+        }
+        return kept;
+    }
+
+    private static double score(Document document, String needle) {
+        int position = document.title().indexOf(needle);
+        if (position == 0) {
+            return TITLE_PREFIX_SCORE;
+        }
+        if (position > 0) {
+            return Character.isLetterOrDigit(document.title().charAt(position - 1))
+                    ? TITLE_SUBSTRING_SCORE
+                    : TITLE_WORD_SCORE;
+        }
+        return document.description().contains(needle) ? DESCRIPTION_SCORE : 0;
+    }
+
+    // Under the write lock
+    private int allocate(UUID id) {
+        int document;
+        if (freeCount > 0) {
+            document = freeDocuments[--freeCount];
+        } else {
+            if (documentCount == documents.length) {
+                ids = Arrays.copyOf(ids, documentCount * 2);
+                documents = Arrays.copyOf(documents, documentCount * 2);
+            }
+            document = documentCount++;
+        }
+        ids[document] = id;
+        documentIds.put(id, document);
+        return document;
+    }
+
+    // Under the write lock
+    private void reindex(int document, Document next) {
+        Document previous = documents[document];
+        Set<Long> oldGrams = previous != null ? grams(previous) : Set.of();
+        Set<Long> newGrams = grams(next);
+        for (long gram : oldGrams) {
+            if (!newGrams.contains(gram)) {
+                removePosting(gram, document);
+            }
+        }
+        for (long gram : newGrams) {
+            if (!oldGrams.contains(gram)) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(document);
+            }
+        }
+        documents[document] = next;
+    }
+
+    private void removePosting(long gram, int document) {
+        Postings list = postings.get(gram);
+        if (list != null) {
+            list.remove(document);
+            if (list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<Long> grams(Document document) {
+        Set<Long> grams = grams(document.title());
+        grams.addAll(grams(document.description()));
+        return grams;
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+}
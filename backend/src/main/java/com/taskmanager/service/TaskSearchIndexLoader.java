@@ -0,0 +1,27 @@
+package com.taskmanager.service;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the search index once every bean exists, which is before the web server starts and so
+ * before any write can be accepted. {@link TaskSearchIndex#rebuild} puts each task as it was
+ * read, so a write indexed while it ran could be overwritten by an older copy. Calls the
+ * service through its proxy, so the streaming read runs in a transaction.
+ */
+@Component
+public class TaskSearchIndexLoader implements SmartInitializingSingleton {
+
+    private final TaskService taskService;
+
+    @Autowired
+    public TaskSearchIndexLoader(TaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        taskService.rebuildSearchIndex();
+    }
+}
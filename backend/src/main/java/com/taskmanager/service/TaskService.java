@@ -1,31 +1,148 @@
 package com.taskmanager.service;
 
 import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskField;
+import com.taskmanager.model.TaskPatch;
+import com.taskmanager.model.TaskQuery;
+import com.taskmanager.model.TaskQueryPlan;
 import com.taskmanager.model.TaskStatus;
-import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.model.TaskView;
+import com.taskmanager.repository.ReplicaReads;
+import com.taskmanager.repository.TaskStore;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("taskmanager.service")
 public class TaskService {
     
-    private final TaskRepository taskRepository;
+    private static final Logger log = LoggerFactory.getLogger(TaskService.class);
+    
+    private final TaskStore taskRepository;
+    private final TaskSearchIndex searchIndex;
+    private final TaskCache taskCache;
+    private final TaskEventBroadcaster eventBroadcaster;
+    private final TaskStatusCounters statusCounters;
+    private final TaskWriteBuffer writeBuffer;
+    private final TaskReadCoalescer readCoalescer;
     
     @Autowired
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskStore taskRepository,
+                       TaskSearchIndex searchIndex,
+                       TaskCache taskCache,
+                       TaskEventBroadcaster eventBroadcaster,
+                       TaskStatusCounters statusCounters,
+                       TaskWriteBuffer writeBuffer,
+                       TaskReadCoalescer readCoalescer) {
         this.taskRepository = taskRepository;
+        this.searchIndex = searchIndex;
+        this.taskCache = taskCache;
+        this.eventBroadcaster = eventBroadcaster;
+        this.statusCounters = statusCounters;
+        this.writeBuffer = writeBuffer;
+        this.readCoalescer = readCoalescer;
+    }
+    
+    // Runs before the web server accepts requests, so no write can race with it
+    @PostConstruct
+    public void reconcileStatusCounts() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, taskRepository.countByStatus(status));
+        }
+        statusCounters.reset(counts);
+        log.info("Status counters reconciled: {}", counts);
+    }
+    
+    // Run by TaskSearchIndexLoader before the web server starts, so no write can race with it
+    @Transactional(readOnly = true)
+    public void rebuildSearchIndex() {
+        long start = System.nanoTime();
+        try (Stream<Task> tasks = taskRepository.streamTasks(null, null)) {
+            searchIndex.rebuild(tasks::iterator);
+        }
+        log.info("Search index built with {} tasks in {} ms",
+                searchIndex.size(), (System.nanoTime() - start) / 1_000_000);
     }
     
+    // Concurrent identical list reads share one query; status lists and single tasks are
+    // loaded once per key by the cache instead. List reads may be served by a read replica
     public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+        return replicaRead("all", List.of(),
+                () -> Collections.unmodifiableList(taskRepository.findAll()));
+    }
+    
+    public List<Task> getTasksPage(UUID after, TaskStatus status, String search, int limit) {
+        String titleFilter = blankToNull(search);
+        return replicaRead("page", Arrays.asList(after, status, titleFilter, limit),
+                () -> Collections.unmodifiableList(
+                        taskRepository.findPage(after, status, titleFilter, Limit.of(limit))));
+    }
+    
+    /**
+     * The tasks {@link #getTasksByStatus}, {@link #searchTasksByTitle}, {@link #queryTasks} or
+     * {@link #getAllTasks} would return, holding only the given fields. Reads only those columns
+     * and bypasses the cache, which holds whole tasks. Only the repository query may go to a read
+     * replica; the matches of the search index are loaded from the primary, as in
+     * {@link #loadInOrder}.
+     */
+    public List<TaskView> getTaskViews(Set<TaskField> fields, TaskStatus status, String search) {
+        if (indexServes(blankToNull(search))) {
+            List<UUID> ids = searchIndex.search(unlimitedQuery(status, search)).stream()
+                    .map(TaskSearchIndex.Hit::id)
+                    .collect(Collectors.toList());
+            Map<UUID, TaskView> viewsById = taskRepository.findViewsById(withId(fields), ids).stream()
+                    .collect(Collectors.toMap(TaskView::id, Function.identity()));
+            return ids.stream()
+                    .map(viewsById::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+        return ReplicaReads.read(() -> taskRepository.findViews(fields, null, status, blankToNull(search), null));
     }
     
+    public List<TaskView> getTaskViewsPage(Set<TaskField> fields, UUID after, TaskStatus status, String search, int limit) {
+        return ReplicaReads.read(
+                () -> taskRepository.findViews(withId(fields), after, status, blankToNull(search), limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public void streamTasks(TaskStatus status, String search, Consumer<Task> consumer) {
+        try (Stream<Task> tasks = taskRepository.streamTasks(status, blankToNull(search))) {
+            tasks.forEach(consumer);
+        }
+    }
+    
+    // An update accepted by updateTaskLater is returned until it has been written
     public Optional<Task> getTaskById(UUID id) {
-        return taskRepository.findById(id);
+        Optional<Task> queued = writeBuffer.peek(id);
+        if (queued.isPresent()) {
+            return queued;
+        }
+        return taskCache.getTask(id, taskRepository::findById);
     }
     
     public Task createTask(Task task) {
@@ -33,32 +150,329 @@ public class TaskService {
         if (task.getStatus() == null) {
             task.setStatus(TaskStatus.TODO);
         }
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+        afterCreate(savedTask);
+        return savedTask;
     }
     
     public Optional<Task> updateTask(UUID id, Task taskUpdate) {
-        return taskRepository.findById(id)
-                .map(existingTask -> {
-                    existingTask.setTitle(taskUpdate.getTitle());
-                    existingTask.setDescription(taskUpdate.getDescription());
-                    existingTask.setStatus(taskUpdate.getStatus());
-                    return taskRepository.save(existingTask);
-                });
+        return updateTask(id, taskUpdate, null);
     }
     
-    public boolean deleteTask(UUID id) {
-        if (taskRepository.existsById(id)) {
-            taskRepository.deleteById(id);
-            return true;
+    /**
+     * Replaces the title, description and status of a task in one statement, which also returns
+     * the status the task had, so the status transition is known exactly without a lookup. A
+     * non-null {@code expectedVersion} must match the stored version, or {@link TaskVersionMismatchException}
+     * is thrown. The returned task carries its new version only when the expected one was given.
+     */
+    public Optional<Task> updateTask(UUID id, Task taskUpdate, Long expectedVersion) {
+        writePending(id);
+        return replaceTask(id, taskUpdate, expectedVersion);
+    }
+    
+    public boolean isWriteBehindEnabled() {
+        return writeBuffer.isEnabled();
+    }
+    
+    /**
+     * Write-behind variant of {@link #updateTask(UUID, Task)}: the update is queued, replacing
+     * any update of the task still queued, and {@link TaskWriteBehindFlusher} writes it later
+     * in a batch with others. Until then {@link #getTaskById} returns it. Empty when no task has
+     * the given id; throws {@link TaskWriteBufferFullException} when the queue is full.
+     */
+    public Optional<Task> updateTaskLater(UUID id, Task taskUpdate) {
+        if (writeBuffer.peek(id).isEmpty() && taskCache.peekTask(id).isEmpty() && !taskRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        Task queued = new Task(taskUpdate.getTitle(), taskUpdate.getDescription(), taskUpdate.getStatus());
+        queued.setId(id);
+        if (!writeBuffer.offer(queued)) {
+            throw new TaskWriteBufferFullException(writeBuffer.getCapacity());
         }
-        return false;
+        return Optional.of(queued);
     }
     
+    private Optional<Task> replaceTask(UUID id, Task taskUpdate, Long expectedVersion) {
+        Optional<TaskStatus> previousStatus = taskRepository.updateTask(id, taskUpdate.getTitle(),
+                taskUpdate.getDescription(), taskUpdate.getStatus(), expectedVersion);
+        if (previousStatus.isEmpty()) {
+            return notUpdated(id, expectedVersion);
+        }
+        Task updatedTask = new Task(taskUpdate.getTitle(), taskUpdate.getDescription(), taskUpdate.getStatus());
+        updatedTask.setId(id);
+        updatedTask.setVersion(expectedVersion != null ? expectedVersion + 1 : null);
+        afterUpdate(updatedTask, previousStatus.get());
+        return Optional.of(updatedTask);
+    }
+    
+    public boolean patchTask(UUID id, TaskPatch patch) {
+        return patchTask(id, patch, null);
+    }
+    
+    /**
+     * Updates only the non-null title, description and status of {@code patch} in one statement,
+     * which returns the previous status as in {@link #updateTask(UUID, Task, Long)}. A non-null
+     * {@code expectedVersion} must match the stored version, or {@link TaskVersionMismatchException}
+     * is thrown. Returns false when no task has the given id.
+     */
+    public boolean patchTask(UUID id, TaskPatch patch, Long expectedVersion) {
+        writePending(id);
+        Optional<Task> cached = taskCache.peekTask(id);
+        Optional<TaskStatus> previousStatus = taskRepository.patchTask(
+                id, patch.title(), patch.description(), patch.status(), expectedVersion);
+        if (previousStatus.isEmpty()) {
+            return notUpdated(id, expectedVersion).isPresent();
+        }
+        if (patch.hasChanges()) {
+            // A cached copy whose status turned out stale is not trusted for the other fields either
+            Task base = cached.filter(task -> task.getStatus() == previousStatus.get()).orElse(null);
+            if (base == null) {
+                cached.ifPresent(stale -> taskCache.evict(id, stale.getStatus()));
+            }
+            afterPatch(id, patch, expectedVersion, base, previousStatus.get());
+        }
+        return true;
+    }
+    
+    // cached is null when no cached copy can be trusted; previousStatus comes from the write
+    private void afterPatch(UUID id, TaskPatch patch, Long expectedVersion, Task cached, TaskStatus previousStatus) {
+        TaskStatus status = patch.status() != null ? patch.status() : previousStatus;
+        readCoalescer.invalidate();
+        searchIndex.patch(id, patch.title(), patch.description(), patch.status());
+        if (patch.status() != null) {
+            statusCounters.move(previousStatus, patch.status());
+        }
+        taskCache.evict(id, previousStatus, status);
+        if (cached != null) {
+            // The cached copy is only used to publish the whole task
+            Task patchedTask = new Task(
+                    patch.title() != null ? patch.title() : cached.getTitle(),
+                    patch.description() != null ? patch.description() : cached.getDescription(),
+                    status);
+            patchedTask.setId(id);
+            patchedTask.setVersion(expectedVersion != null ? expectedVersion + 1 : null);
+            eventBroadcaster.updated(patchedTask, previousStatus);
+        } else {
+            eventBroadcaster.updated(id, status, previousStatus);
+        }
+    }
+    
+    // No row matched: either the task is gone, or it exists with a different version
+    private <T> Optional<T> notUpdated(UUID id, Long expectedVersion) {
+        if (expectedVersion != null && taskRepository.existsById(id)) {
+            throw new TaskVersionMismatchException(id, expectedVersion);
+        }
+        return Optional.empty();
+    }
+    
+    public boolean deleteTask(UUID id) {
+        discardPending(id);
+        Optional<TaskStatus> previousStatus = taskRepository.deleteTaskById(id);
+        previousStatus.ifPresent(status -> afterDelete(id, status));
+        return previousStatus.isPresent();
+    }
+    
+    // Served by the cache, whose loads stay on the primary: writes patch cached lists on the
+    // assumption that a load sees every committed write, which a lagging replica may not
     public List<Task> getTasksByStatus(TaskStatus status) {
-        return taskRepository.findByStatus(status);
+        return taskCache.getTasksByStatus(status, taskRepository::findByStatus);
+    }
+    
+    public TaskStatusCounters.Counts getStatusCounts() {
+        return statusCounters.counts();
+    }
+    
+    public Map<String, TaskCache.Stats> getCacheStats() {
+        return taskCache.stats();
     }
     
     public List<Task> searchTasksByTitle(String title) {
-        return taskRepository.findByTitleContainingIgnoreCase(title);
+        return searchTasks(title, Integer.MAX_VALUE);
+    }
+    
+    // The tasks in the given status whose title or description contains the text, best match first
+    public List<Task> searchTasksByStatus(TaskStatus status, String text) {
+        return queryTasks(unlimitedQuery(status, text));
+    }
+    
+    /**
+     * Runs a combined query. With a text, the search index finds the matching tasks of the
+     * requested statuses, and only those are loaded, by id. Without one, with one shorter than a
+     * trigram, or until the index has been built, it is a single repository query.
+     */
+    public List<Task> queryTasks(TaskQuery query) {
+        return coalescedRead("query", Arrays.asList(query.statuses(), query.text(), query.sort(), query.limit()),
+                () -> Collections.unmodifiableList(loadQueryResults(query)));
+    }
+    
+    // How queryTasks would serve the query, without loading any task
+    public TaskQueryPlan explainQuery(TaskQuery query) {
+        if (!indexServes(query.text())) {
+            return ReplicaReads.read(() -> taskRepository.explainQuery(query));
+        }
+        TaskSearchIndex.Plan plan = searchIndex.plan(query);
+        return new TaskQueryPlan(TaskQueryPlan.SEARCH_INDEX, "trigram", plan.candidates(), String.format(
+                "%d candidates from the trigrams of '%s', %d matching, up to %d loaded by id",
+                plan.candidates(), query.text(), plan.matches(), Math.min(plan.matches(), query.limit())));
+    }
+    
+    private List<Task> loadQueryResults(TaskQuery query) {
+        if (!indexServes(query.text())) {
+            return ReplicaReads.read(() -> taskRepository.findByQuery(query));
+        }
+        return loadInOrder(searchIndex.search(query));
+    }
+    
+    /**
+     * Ranked substring search over titles and descriptions, served from the in-memory index.
+     * Queries shorter than a trigram are ranked by the database instead. Until the index has
+     * been built at startup, falls back to a title LIKE query.
+     */
+    public List<Task> searchTasks(String query, int limit) {
+        return coalescedRead("search", Arrays.asList(query, limit),
+                () -> Collections.unmodifiableList(loadSearchResults(query, limit)));
+    }
+    
+    private List<Task> loadSearchResults(String query, int limit) {
+        if (!searchIndex.isReady()) {
+            return ReplicaReads.read(() -> taskRepository.findByTitleContainingIgnoreCase(query)).stream()
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+        if (!query.isBlank() && !TaskSearchIndex.isIndexed(query)) {
+            return ReplicaReads.read(() -> taskRepository.findByQuery(
+                    new TaskQuery(null, query, TaskQuery.Sort.RELEVANCE, limit)));
+        }
+        
+        return loadInOrder(searchIndex.search(query, limit));
+    }
+    
+    // Texts shorter than a trigram would make the index scan every document; the database does that
+    private boolean indexServes(String text) {
+        return text != null && searchIndex.isReady() && TaskSearchIndex.isIndexed(text);
+    }
+    
+    // A coalesced list read that may go to a read replica
+    private <T> T replicaRead(String operation, List<Object> arguments, Supplier<T> loader) {
+        return coalescedRead(operation, arguments, () -> ReplicaReads.read(loader));
+    }
+    
+    /**
+     * A coalesced list read, whose loader decides what may go to a replica. Reads pinned to the
+     * primary are coalesced apart, so a client that has just written never shares a replica's
+     * older result.
+     */
+    private <T> T coalescedRead(String operation, List<Object> arguments, Supplier<T> loader) {
+        List<Object> key = arguments;
+        if (ReplicaReads.isPinned()) {
+            key = new ArrayList<>(arguments);
+            key.add("primary");
+        }
+        return readCoalescer.get(operation, key, loader);
+    }
+    
+    /**
+     * The tasks of the hits, in hit order, skipping any deleted since they were found. Loaded
+     * from the primary even for replica reads: the index holds every committed write, and a
+     * lagging replica would miss the tasks it has not caught up with yet, or return them stale.
+     */
+    private List<Task> loadInOrder(List<TaskSearchIndex.Hit> hits) {
+        List<UUID> ids = hits.stream()
+                .map(TaskSearchIndex.Hit::id)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Task> tasksById = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        return ids.stream()
+                .map(tasksById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Brings the search index, cache and status counters up to date with a committed insert and
+     * publishes it.
+     */
+    void afterCreate(Task task) {
+        readCoalescer.invalidate();
+        searchIndex.put(task);
+        taskCache.add(task);
+        statusCounters.increment(task.getStatus());
+        eventBroadcaster.created(task);
+    }
+    
+    /**
+     * Brings the search index, cache and status counters up to date with a committed chunk of
+     * inserts. Publishes one reset for the chunk rather than an event per task, so subscribers
+     * reload once instead of the change feed and its replay buffer filling with the chunk.
+     */
+    void afterImport(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        readCoalescer.invalidate();
+        Map<TaskStatus, Long> created = new EnumMap<>(TaskStatus.class);
+        for (Task task : tasks) {
+            searchIndex.put(task);
+            created.merge(task.getStatus(), 1L, Long::sum);
+        }
+        taskCache.evictStatuses(created.keySet());
+        created.forEach(statusCounters::add);
+        eventBroadcaster.reset();
+    }
+    
+    /**
+     * Brings the search index, cache and status counters up to date with a committed update and
+     * publishes it.
+     */
+    void afterUpdate(Task task, TaskStatus previousStatus) {
+        readCoalescer.invalidate();
+        searchIndex.put(task);
+        taskCache.evict(task.getId(), previousStatus, task.getStatus());
+        statusCounters.move(previousStatus, task.getStatus());
+        eventBroadcaster.updated(task, previousStatus);
+    }
+    
+    /**
+     * Brings the search index, cache and status counters up to date with a committed delete and
+     * publishes it.
+     */
+    void afterDelete(UUID id, TaskStatus previousStatus) {
+        readCoalescer.invalidate();
+        searchIndex.remove(id);
+        taskCache.remove(id, previousStatus);
+        statusCounters.decrement(previousStatus);
+        eventBroadcaster.deleted(id, previousStatus);
+    }
+    
+    /**
+     * Writes the update of the task still queued by {@link #updateTaskLater}, if any, so a
+     * write that follows is not overwritten by it later.
+     */
+    void writePending(UUID id) {
+        writeBuffer.flush(id, queued -> replaceTask(id, queued, null));
+    }
+    
+    // Drops the queued update of a task about to be deleted, which writing first would only publish
+    void discardPending(UUID id) {
+        writeBuffer.flush(id, queued -> { });
+    }
+    
+    // Search results are reordered, and pages continue, by id
+    private static Set<TaskField> withId(Set<TaskField> fields) {
+        Set<TaskField> result = EnumSet.of(TaskField.ID);
+        result.addAll(fields);
+        return result;
+    }
+    
+    // All the tasks of the status (any status when null) matching the text, best match first
+    private static TaskQuery unlimitedQuery(TaskStatus status, String text) {
+        return new TaskQuery(status != null ? Set.of(status) : Set.of(), text, TaskQuery.Sort.RELEVANCE, Integer.MAX_VALUE);
+    }
+    
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
     }
-} 
\ No newline at end of file
+}
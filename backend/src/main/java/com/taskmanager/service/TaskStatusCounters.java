@@ -0,0 +1,73 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.TaskStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of tasks in each status, kept in memory so reading the counts costs the same whatever
+ * the size of the table. Updated by {@link TaskService} after every committed write and
+ * reconciled with the database at startup.
+ */
+@Component
+public class TaskStatusCounters {
+
+    public record Counts(long total, Map<TaskStatus, Long> byStatus) {}
+
+    private final Map<TaskStatus, LongAdder> counters = new EnumMap<>(TaskStatus.class);
+
+    public TaskStatusCounters() {
+        for (TaskStatus status : TaskStatus.values()) {
+            counters.put(status, new LongAdder());
+        }
+    }
+
+    public void increment(TaskStatus status) {
+        counters.get(status).increment();
+    }
+
+    public void decrement(TaskStatus status) {
+        counters.get(status).decrement();
+    }
+
+    public void add(TaskStatus status, long count) {
+        counters.get(status).add(count);
+    }
+
+    public void move(TaskStatus from, TaskStatus to) {
+        if (from != to) {
+            decrement(from);
+            increment(to);
+        }
+    }
+
+    public long get(TaskStatus status) {
+        return counters.get(status).sum();
+    }
+
+    public Counts counts() {
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        long total = 0;
+        for (TaskStatus status : TaskStatus.values()) {
+            long count = get(status);
+            byStatus.put(status, count);
+            total += count;
+        }
+        return new Counts(total, byStatus);
+    }
+
+    /**
+     * Replaces the counts, e.g. with ones read from the database. Writes counted concurrently
+     * may be lost, so this is meant to run before the application takes traffic.
+     */
+    public void reset(Map<TaskStatus, Long> counts) {
+        for (TaskStatus status : TaskStatus.values()) {
+            LongAdder counter = counters.get(status);
+            counter.reset();
+            counter.add(counts.getOrDefault(status, 0L));
+        }
+    }
+}
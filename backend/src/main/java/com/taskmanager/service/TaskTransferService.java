@@ -0,0 +1,245 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.repository.TaskStore;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Export and import of all tasks as NDJSON or CSV, one task per line, in constant memory. The
+ * export reads the tasks with a forward-only cursor and writes each as it arrives. The import
+ * parses one row at a time and inserts them in chunks, each in its own transaction.
+ *
+ * Imported tasks keep their ids, and ids already stored are skipped, so an interrupted import
+ * resumes by sending the same file again. Rows without an id get a new one each time.
+ */
+@Service
+public class TaskTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskTransferService.class);
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("title")
+            .addColumn("description")
+            .addColumn("status")
+            .addColumn("version")
+            .setUseHeader(true)
+            .build();
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    public enum ImportStatus {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    /**
+     * Counts so far: rows read, tasks created, rows skipped because their id is already stored,
+     * and invalid rows. Errors name the row they refer to and are capped at
+     * {@value #MAX_REPORTED_ERRORS}.
+     */
+    public record ImportProgress(ImportStatus status, long read, long created, long existing, long invalid,
+                                 List<String> errors) {
+    }
+
+    private final TaskStore taskRepository;
+    private final TaskService taskService;
+    private final TransactionOperations transactionOperations;
+    private final Validator validator;
+    private final ObjectWriter jsonWriter;
+    private final ObjectReader jsonReader;
+    private final ObjectWriter csvWriter;
+    private final ObjectReader csvReader;
+    private final int chunkSize;
+    private final int progressInterval;
+
+    @Autowired
+    public TaskTransferService(TaskStore taskRepository,
+                               TaskService taskService,
+                               TransactionOperations transactionOperations,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               @Value("${taskmanager.batch.chunk-size:1000}") int chunkSize,
+                               @Value("${taskmanager.import.progress-interval:100000}") int progressInterval) {
+        this.taskRepository = taskRepository;
+        this.taskService = taskService;
+        this.transactionOperations = transactionOperations;
+        this.validator = validator;
+        this.jsonWriter = objectMapper.writerFor(Task.class);
+        this.jsonReader = objectMapper.readerFor(Task.class);
+        CsvMapper csvMapper = CsvMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .enable(CsvGenerator.Feature.STRICT_CHECK_FOR_QUOTING)
+                .build();
+        this.csvWriter = csvMapper.writerFor(Task.class).with(CSV_SCHEMA);
+        // Columns are matched by the header, so they may come in any order and some may be left out
+        this.csvReader = csvMapper.readerFor(Task.class).with(CsvSchema.emptySchema().withHeader());
+        this.chunkSize = chunkSize;
+        this.progressInterval = progressInterval;
+    }
+
+    // Writes every task, ordered by id; returns how many were written
+    public long exportTasks(Format format, OutputStream out) throws IOException {
+        long[] written = {0};
+        try (SequenceWriter csv = format == Format.CSV ? csvWriter.writeValues(out) : null) {
+            taskService.streamTasks(null, null, task -> {
+                try {
+                    if (csv != null) {
+                        csv.write(task);
+                    } else {
+                        out.write(jsonWriter.writeValueAsBytes(task));
+                        out.write('\n');
+                    }
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return written[0];
+    }
+
+    /**
+     * Imports the tasks in {@code in}, handing {@code progress} the counts every
+     * {@code progress-interval} rows and once more at the end. Invalid rows are counted and
+     * skipped. A row that cannot be parsed, or a chunk that cannot be stored, ends the import as
+     * failed; the chunks before it stay imported. Returns the final counts.
+     */
+    public ImportProgress importTasks(Format format, InputStream in, Consumer<ImportProgress> progress) {
+        Counts counts = new Counts();
+        List<Task> chunk = new ArrayList<>(chunkSize);
+        long nextReport = progressInterval;
+        try (MappingIterator<Task> rows = (format == Format.CSV ? csvReader : jsonReader).readValues(in)) {
+            while (rows.hasNextValue()) {
+                Task task = rows.nextValue();
+                counts.read++;
+                if (task != null && task.getStatus() == null) {
+                    task.setStatus(TaskStatus.TODO);
+                }
+                String violations = task == null ? "Task must not be null" : violations(validator, task);
+                if (violations != null) {
+                    counts.invalid++;
+                    counts.error("Row " + counts.read + ": " + violations);
+                } else {
+                    chunk.add(task);
+                }
+                if (chunk.size() == chunkSize) {
+                    insert(chunk, counts);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+                if (counts.read == nextReport) {
+                    progress.accept(counts.snapshot(ImportStatus.RUNNING));
+                    nextReport += progressInterval;
+                }
+            }
+            insert(chunk, counts);
+        } catch (IOException | RuntimeException e) {
+            String error = e instanceof ChunkFailedException ? e.getMessage()
+                    : "Row " + (counts.read + 1) + ": " + message(e);
+            counts.error(error);
+            log.warn("Task import stopped after {} rows: {}", counts.read, error);
+            ImportProgress failed = counts.snapshot(ImportStatus.FAILED);
+            progress.accept(failed);
+            return failed;
+        }
+        log.info("Imported {} tasks from {} rows ({} already present, {} invalid)",
+                counts.created, counts.read, counts.existing, counts.invalid);
+        ImportProgress completed = counts.snapshot(ImportStatus.COMPLETED);
+        progress.accept(completed);
+        return completed;
+    }
+
+    private void insert(List<Task> chunk, Counts counts) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Task> inserted;
+        try {
+            inserted = transactionOperations.execute(status -> taskRepository.insertMissing(chunk));
+        } catch (RuntimeException e) {
+            throw new ChunkFailedException("Rows up to " + counts.read + ": chunk of " + chunk.size()
+                    + " tasks could not be stored: " + e.getMessage(), e);
+        }
+        taskService.afterImport(inserted);
+        counts.created += inserted.size();
+        counts.existing += chunk.size() - inserted.size();
+    }
+
+    static String violations(Validator validator, Task task) {
+        Set<ConstraintViolation<Task>> violations = validator.validate(task);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    // Parse errors without the source location, which only repeats the row number
+    static String message(Throwable e) {
+        return e instanceof JsonProcessingException parse ? parse.getOriginalMessage() : e.getMessage();
+    }
+
+    static final class ChunkFailedException extends RuntimeException {
+        ChunkFailedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    static final class Counts {
+        long read;
+        long created;
+        long existing;
+        long invalid;
+        final List<String> errors = new ArrayList<>();
+
+        void error(String error) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        ImportProgress snapshot(ImportStatus status) {
+            return new ImportProgress(status, read, created, existing, invalid, List.copyOf(errors));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.taskmanager.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.UUID;
+
+/**
+ * Thrown by conditional writes when the task exists but no longer has the version the client
+ * based its change on.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class TaskVersionMismatchException extends RuntimeException {
+
+    public TaskVersionMismatchException(UUID id, long expectedVersion) {
+        super("Task " + id + " is no longer at version " + expectedVersion);
+    }
+}
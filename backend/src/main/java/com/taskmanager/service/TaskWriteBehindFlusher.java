@@ -0,0 +1,103 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background writer of the write-behind queue: every {@code flush-interval} it writes the queued
+ * updates in batches of {@code batch-size} through {@link TaskBatchService#replaceTasks}, so a
+ * burst of updates costs one transaction per batch instead of one per request. Updates that
+ * fail are kept and retried on the next flush; updates of tasks deleted meanwhile are dropped.
+ * On shutdown the queue is written out before the repository and database are closed.
+ */
+@Component
+public class TaskWriteBehindFlusher {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskWriteBehindFlusher.class);
+
+    private final TaskWriteBuffer writeBuffer;
+    private final TaskBatchService taskBatchService;
+    private final int batchSize;
+    private final ScheduledExecutorService writer;
+
+    @Autowired
+    public TaskWriteBehindFlusher(TaskWriteBuffer writeBuffer,
+                                  TaskBatchService taskBatchService,
+                                  @Value("${taskmanager.write-behind.batch-size:500}") int batchSize,
+                                  @Value("${taskmanager.write-behind.flush-interval:PT0.05S}") Duration flushInterval) {
+        this.writeBuffer = writeBuffer;
+        this.taskBatchService = taskBatchService;
+        this.batchSize = batchSize;
+        if (!writeBuffer.isEnabled()) {
+            this.writer = null;
+            return;
+        }
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(flushInterval.toMillis(), 1);
+        writer.scheduleWithFixedDelay(this::flushQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Writes the updates queued so far; returns how many were written
+    public int flush() {
+        return writeBuffer.flush(batchSize, this::write);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        writer.awaitTermination(30, TimeUnit.SECONDS);
+        int written = 0;
+        int flushed;
+        // Stops once a flush makes no progress, i.e. the store keeps failing
+        while (writeBuffer.size() > 0 && (flushed = flush()) > 0) {
+            written += flushed;
+        }
+        if (writeBuffer.size() > 0) {
+            log.error("{} queued task updates could not be written before shutdown", writeBuffer.size());
+        }
+        log.info("Wrote {} queued task updates on shutdown", written);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush failed", e);
+        }
+    }
+
+    // Returns the updates to retry
+    private List<Task> write(List<Task> batch) {
+        List<Task> failed = new ArrayList<>();
+        for (TaskBatchService.ItemResult result : taskBatchService.replaceTasks(batch)) {
+            if (result.outcome() == TaskBatchService.Outcome.FAILED) {
+                failed.add(batch.get(result.index()));
+            } else if (result.outcome() == TaskBatchService.Outcome.NOT_FOUND) {
+                log.debug("Dropped queued update of deleted task {}", result.id());
+            }
+        }
+        if (!failed.isEmpty()) {
+            log.warn("{} of {} queued task updates failed and will be retried", failed.size(), batch.size());
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,185 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Task updates acknowledged but not yet written, for write-behind mode. Updates are held per
+ * task id, so a newer update of a task replaces the one still waiting (last write wins), and
+ * at most {@code capacity} tasks can be waiting or being written at once.
+ *
+ * A flush moves a batch of updates to "in flight" until it has been written and the cache
+ * updated, and {@link #peek} looks at both, so reads on this node see an acknowledged update
+ * from the moment it is accepted. Flushes hold a lock, which writes that must not overtake a
+ * waiting update of the same task take through {@link #flush(UUID, Consumer)}.
+ */
+@Component
+public class TaskWriteBuffer {
+
+    private final boolean enabled;
+    private final int capacity;
+    private final Semaphore slots;
+    private final Map<UUID, Task> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, Task> inFlight = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Autowired
+    public TaskWriteBuffer(@Value("${taskmanager.write-behind.enabled:false}") boolean enabled,
+                           @Value("${taskmanager.write-behind.capacity:10000}") int capacity) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.slots = new Semaphore(capacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Tasks with an update waiting or being written
+    public int size() {
+        return capacity - slots.availablePermits();
+    }
+
+    /**
+     * Queues {@code task} as the new state of the task with its id, replacing any update of
+     * that task still waiting. Returns false, queueing nothing, when the task has no update
+     * waiting and the buffer is full.
+     */
+    public boolean offer(Task task) {
+        boolean[] accepted = {true};
+        pending.compute(task.getId(), (id, waiting) -> {
+            if (waiting == null && !slots.tryAcquire()) {
+                accepted[0] = false;
+                return null;
+            }
+            return task;
+        });
+        return accepted[0];
+    }
+
+    // The latest acknowledged update of the task not yet reflected in the cache
+    public Optional<Task> peek(UUID id) {
+        Task task = pending.get(id);
+        if (task == null) {
+            task = inFlight.get(id);
+        }
+        return Optional.ofNullable(task);
+    }
+
+    /**
+     * Writes the updates waiting when called, {@code batchSize} at a time; updates arriving
+     * meanwhile are left to the next flush, so a steady stream of them cannot hold the lock
+     * indefinitely. {@code write}
+     * returns the updates of a batch that failed; they are queued again unless a newer update
+     * of the same task arrived meanwhile. Returns the number of updates written.
+     */
+    public int flush(int batchSize, Function<List<Task>, List<Task>> write) {
+        int written = 0;
+        flushLock.lock();
+        try {
+            List<Task> batch;
+            int remaining = pending.size();
+            while (remaining > 0 && !(batch = drain(Math.min(batchSize, remaining))).isEmpty()) {
+                remaining -= batch.size();
+                List<Task> failed = List.of();
+                try {
+                    failed = write.apply(batch);
+                } catch (RuntimeException e) {
+                    failed = batch;
+                    throw e;
+                } finally {
+                    complete(batch, failed);
+                }
+                written += batch.size() - failed.size();
+                if (!failed.isEmpty()) {
+                    // Retried on the next flush rather than spinning on a failing store
+                    break;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        return written;
+    }
+
+    /**
+     * Hands the update waiting for {@code id}, if any, to {@code write} and removes it, after
+     * any flush in progress has finished. Afterwards no acknowledged update of the task is left
+     * to overwrite a write that follows. Cheap when nothing is queued for the task.
+     */
+    public void flush(UUID id, Consumer<Task> write) {
+        if (!pending.containsKey(id) && !inFlight.containsKey(id)) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Task task = pending.get(id);
+            if (task != null) {
+                // Left in place while written, for peek; kept for the next flush if this fails
+                write.accept(task);
+                if (pending.remove(id, task)) {
+                    slots.release();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private List<Task> drain(int batchSize) {
+        List<Task> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        Iterator<UUID> ids = pending.keySet().iterator();
+        while (batch.size() < batchSize && ids.hasNext()) {
+            // In flight before it leaves pending, so peek never misses it
+            pending.computeIfPresent(ids.next(), (id, task) -> {
+                inFlight.put(id, task);
+                batch.add(task);
+                return null;
+            });
+        }
+        return batch;
+    }
+
+    private void complete(List<Task> batch, List<Task> failed) {
+        Set<Task> retried = Collections.newSetFromMap(new IdentityHashMap<>());
+        retried.addAll(failed);
+        for (Task task : retried) {
+            boolean[] requeued = {false};
+            pending.computeIfAbsent(task.getId(), id -> {
+                requeued[0] = true;
+                return task;
+            });
+            inFlight.remove(task.getId(), task);
+            if (!requeued[0]) {
+                slots.release();
+            }
+        }
+        for (Task task : batch) {
+            if (!retried.contains(task)) {
+                inFlight.remove(task.getId(), task);
+                slots.release();
+            }
+        }
+    }
+}
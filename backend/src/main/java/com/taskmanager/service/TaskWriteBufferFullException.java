@@ -0,0 +1,16 @@
+package com.taskmanager.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a write-behind update cannot be queued because {@code capacity} tasks already have
+ * updates waiting to be written. The controller answers it with 429 and a Retry-After header.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TaskWriteBufferFullException extends RuntimeException {
+
+    public TaskWriteBufferFullException(int capacity) {
+        super("Write-behind queue is full (" + capacity + " tasks waiting)");
+    }
+}
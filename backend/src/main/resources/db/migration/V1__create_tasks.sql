@@ -0,0 +1,12 @@
+CREATE TABLE tasks (
+    id          UUID          NOT NULL,
+    title       VARCHAR(255)  NOT NULL,
+    description VARCHAR(1000),
+    status      VARCHAR(20)   NOT NULL,
+    version     BIGINT        NOT NULL DEFAULT 0,
+    CONSTRAINT pk_tasks PRIMARY KEY (id),
+    CONSTRAINT ck_tasks_status CHECK (status IN ('TODO', 'IN_PROGRESS', 'DONE'))
+);
+
+-- findByStatus and status-filtered keyset pages (status = ? AND id > ? ORDER BY id)
+CREATE INDEX idx_tasks_status_id ON tasks (status, id);
@@ -0,0 +1,3 @@
+-- Combined queries (GET /tasks/query) filtered by status and ordered by title
+-- (status IN (...) ORDER BY title, id); the id makes the order total
+CREATE INDEX idx_tasks_status_title_id ON tasks (status, title, id);
@@ -0,0 +1,8 @@
+-- One row, updated on the primary by the read-replica monitor; its age on a replica is the replica's lag
+CREATE TABLE replication_heartbeat (
+    id          INT     NOT NULL,
+    beat_millis BIGINT  NOT NULL,
+    CONSTRAINT pk_replication_heartbeat PRIMARY KEY (id)
+);
+
+INSERT INTO replication_heartbeat (id, beat_millis) VALUES (1, 0);
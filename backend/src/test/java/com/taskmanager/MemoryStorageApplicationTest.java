@@ -0,0 +1,55 @@
+package com.taskmanager;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.repository.InMemoryTaskRepository;
+import com.taskmanager.repository.TaskStore;
+import com.taskmanager.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles({"test", "memory"})
+class MemoryStorageApplicationTest {
+
+    @Autowired
+    private TaskStore taskRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @DynamicPropertySource
+    static void storageDirectory(DynamicPropertyRegistry registry) throws Exception {
+        Path directory = Files.createTempDirectory("tasks-memory");
+        registry.add("taskmanager.storage.memory.directory", directory::toString);
+    }
+
+    @Test
+    void contextLoads_WithInMemoryRepositoryInsteadOfJpa() {
+        // Then
+        assertInstanceOf(InMemoryTaskRepository.class, taskRepository);
+    }
+
+    @Test
+    void taskService_ShouldWriteThroughInMemoryRepository() {
+        // Given
+        Task created = taskService.createTask(new Task("Write docs", null, TaskStatus.TODO));
+
+        // When
+        taskService.updateTask(created.getId(), new Task("Write docs", "Now", TaskStatus.DONE));
+
+        // Then
+        Task stored = taskRepository.findById(created.getId()).orElseThrow();
+        assertEquals(TaskStatus.DONE, stored.getStatus());
+        assertEquals(1L, stored.getVersion());
+    }
+}
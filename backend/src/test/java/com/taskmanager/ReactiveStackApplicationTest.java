@@ -0,0 +1,159 @@
+package com.taskmanager;
+
+import com.taskmanager.controller.ReactiveTaskController;
+import com.taskmanager.controller.TaskController;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskEvent;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.service.TaskTransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:reactive")
+@ActiveProfiles({"test", "reactive"})
+class ReactiveStackApplicationTest {
+
+    @Autowired
+    private ReactiveWebServerApplicationContext context;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void contextLoads_WithNettyAndReactiveControllerOnly() {
+        // Then
+        assertInstanceOf(NettyWebServer.class, context.getWebServer());
+        assertEquals(1, context.getBeansOfType(ReactiveTaskController.class).size());
+        assertTrue(context.getBeansOfType(TaskController.class).isEmpty());
+    }
+
+    @Test
+    void tasks_ShouldBeWrittenAndReadThroughR2dbc() {
+        // Given
+        Task created = webTestClient.post().uri("/tasks")
+                .bodyValue(new Task("Write docs", null, null))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Task.class).returnResult().getResponseBody();
+        assertNotNull(created);
+        assertEquals(TaskStatus.TODO, created.getStatus());
+
+        // When
+        webTestClient.put().uri("/tasks/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(new Task("Write docs", "Now", TaskStatus.DONE))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        // Then
+        webTestClient.get().uri("/tasks/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("DONE")
+                .jsonPath("$.description").isEqualTo("Now");
+        webTestClient.get().uri("/tasks/{id}", created.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1\"")
+                .exchange()
+                .expectStatus().isNotModified();
+        webTestClient.put().uri("/tasks/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(new Task("Stale", null, TaskStatus.TODO))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        webTestClient.delete().uri("/tasks/{id}", created.getId()).exchange().expectStatus().isNoContent();
+        webTestClient.get().uri("/tasks/{id}", created.getId()).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void importTasks_ShouldStoreNdjsonRowsAndStreamThemBack() {
+        // Given
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1200; i++) {
+            body.append("{\"title\":\"Imported ").append(i).append("\"}\n");
+        }
+        body.append("{\"title\":\"\"}\n");
+
+        // When
+        List<TaskTransferService.ImportProgress> progress = webTestClient.post().uri("/tasks/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body.toString())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TaskTransferService.ImportProgress.class)
+                .getResponseBody()
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        // Then
+        assertNotNull(progress);
+        TaskTransferService.ImportProgress last = progress.get(progress.size() - 1);
+        assertEquals(TaskTransferService.ImportStatus.COMPLETED, last.status());
+        assertEquals(1201, last.read());
+        assertEquals(1200, last.created());
+        assertEquals(1, last.invalid());
+        // More than two stream pages, in id order
+        List<Task> streamed = webTestClient.get().uri("/tasks/stream?search=imported")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Task.class)
+                .getResponseBody()
+                .collectList()
+                .block(Duration.ofSeconds(30));
+        assertNotNull(streamed);
+        assertEquals(1200, streamed.size());
+        for (int i = 1; i < streamed.size(); i++) {
+            assertTrue(streamed.get(i - 1).getId().compareTo(streamed.get(i).getId()) < 0);
+        }
+        webTestClient.get().uri("/tasks?search=imported&limit=1000")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("X-Next-Cursor");
+    }
+
+    @Test
+    void events_ShouldPushCommittedChanges() {
+        // Given
+        Flux<ServerSentEvent<TaskEvent>> events = webTestClient.get().uri("/tasks/events?status=IN_PROGRESS")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<TaskEvent>>() {})
+                .getResponseBody()
+                .filter(event -> event.data() != null);
+
+        // When / Then
+        StepVerifier.create(events)
+                .then(() -> {
+                    webTestClient.post().uri("/tasks").bodyValue(new Task("Not listed", null, TaskStatus.TODO))
+                            .exchange().expectStatus().isCreated();
+                    webTestClient.post().uri("/tasks").bodyValue(new Task("Listed", null, TaskStatus.IN_PROGRESS))
+                            .exchange().expectStatus().isCreated();
+                })
+                .assertNext(event -> {
+                    assertEquals("created", event.event());
+                    assertEquals("Listed", event.data().task().getTitle());
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(30));
+    }
+}
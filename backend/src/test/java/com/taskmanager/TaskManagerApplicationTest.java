@@ -1,15 +1,49 @@
 package com.taskmanager;
 
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.repository.TaskStore;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 @SpringBootTest
 @ActiveProfiles("test")
 class TaskManagerApplicationTest {
 
+    @Autowired
+    private TaskStore taskRepository;
+
     @Test
     void contextLoads() {
         // This test ensures that the Spring Boot application context loads successfully
     }
-} 
\ No newline at end of file
+
+    @Test
+    void conditionalWrites_ShouldReturnPreviousStatusFromTheStatementItself() {
+        // Given
+        UUID id = taskRepository.save(new Task("Title", "Description", TaskStatus.TODO)).getId();
+
+        // When & Then
+        assertEquals(Optional.empty(), taskRepository.updateTask(id, "New", null, TaskStatus.IN_PROGRESS, 5L));
+        assertEquals(Optional.of(TaskStatus.TODO), taskRepository.updateTask(id, "New", null, TaskStatus.IN_PROGRESS, 0L));
+        assertEquals(Optional.of(TaskStatus.IN_PROGRESS), taskRepository.patchTask(id, null, null, TaskStatus.DONE, 1L));
+        assertEquals(Optional.of(TaskStatus.DONE), taskRepository.patchTask(id, null, null, null, 2L));
+
+        Task stored = taskRepository.findById(id).orElseThrow();
+        assertEquals("New", stored.getTitle());
+        assertNull(stored.getDescription());
+        assertEquals(TaskStatus.DONE, stored.getStatus());
+        assertEquals(2L, stored.getVersion());
+
+        assertEquals(Optional.of(TaskStatus.DONE), taskRepository.deleteTaskById(id));
+        assertEquals(Optional.empty(), taskRepository.deleteTaskById(id));
+        assertFalse(taskRepository.existsById(id));
+    }
+}
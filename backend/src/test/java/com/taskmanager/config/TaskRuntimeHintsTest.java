@@ -0,0 +1,40 @@
+package com.taskmanager.config;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskEvent;
+import com.taskmanager.model.TaskIdGenerator;
+import com.taskmanager.model.TaskView;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void registerHints_ShouldLetHibernateCreateTheIdGenerator() throws NoSuchMethodException {
+        // When
+        new TaskRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Then
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(TaskIdGenerator.class.getDeclaredConstructor()).test(hints));
+    }
+
+    @Test
+    void registerHints_ShouldLetJacksonBindTheTypesWrittenBehindUntypedBodies() throws NoSuchMethodException {
+        // When
+        new TaskRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Then
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Task.class.getMethod("getTitle")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(TaskView.class.getMethod("title")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(TaskEvent.class.getMethod("task")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TaskEvent.Type.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+    }
+}
@@ -0,0 +1,108 @@
+package com.taskmanager.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 20, clock::get);
+
+    @Test
+    void tryAcquire_ShouldShedRequestsOverTheLimit() {
+        // Given
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+
+        // When
+        boolean acquired = limit.tryAcquire();
+
+        // Then
+        assertFalse(acquired);
+        assertEquals(20, limit.getInFlight());
+        assertEquals(1, limit.getShed());
+    }
+
+    @Test
+    void release_ShouldFreeTheSlot() {
+        // Given
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+        }
+
+        // When
+        limit.release(TimeUnit.MILLISECONDS.toNanos(5));
+
+        // Then
+        assertEquals(19, limit.getInFlight());
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void release_ShouldLowerTheLimitWhenLatencyRises() {
+        // Given
+        runWindows(5, 20, 5);
+
+        // When
+        runWindows(30, 20, 50);
+
+        // Then
+        assertTrue(limit.getLimit() <= 10, "limit " + limit.getLimit());
+    }
+
+    @Test
+    void release_ShouldRaiseTheLimitAgainWhileLatencyHoldsUnderLoad() {
+        // Given
+        runWindows(5, 20, 5);
+        runWindows(3, 20, 50);
+        int lowered = limit.getLimit();
+
+        // When
+        runWindows(50, 20, 5);
+
+        // Then
+        assertTrue(lowered < 20);
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void release_ShouldKeepTheLimitWhileMostOfItIsUnused() {
+        // Given
+        runWindows(5, 1, 5);
+
+        // When
+        runWindows(10, 1, 50);
+
+        // Then
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void constructor_ShouldRejectMinimumAboveMaximum() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(10, 5));
+    }
+
+    // Completes windows of requests, each with up to concurrency of them in flight and taking latencyMillis
+    private void runWindows(int windows, int concurrency, long latencyMillis) {
+        for (int window = 0; window < windows; window++) {
+            clock.addAndGet(AdaptiveConcurrencyLimit.MIN_WINDOW_NANOS);
+            int requests = Math.max(concurrency, AdaptiveConcurrencyLimit.MIN_WINDOW_SAMPLES);
+            for (int done = 0; done < requests; ) {
+                int started = 0;
+                while (started < concurrency && limit.tryAcquire()) {
+                    started++;
+                }
+                for (int i = 0; i < started; i++) {
+                    limit.release(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+                }
+                done += Math.max(started, 1);
+            }
+        }
+    }
+}
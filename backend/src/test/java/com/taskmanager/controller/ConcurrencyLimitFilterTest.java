@@ -0,0 +1,123 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.controller.ConcurrencyLimitFilter.EndpointClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(true, 1, 1, 1, 1, 1, 1);
+
+    @Test
+    void classify_ShouldSortRequestsIntoEndpointClasses() {
+        assertEquals(EndpointClass.READ, ConcurrencyLimitFilter.classify(request("GET", "/tasks/" + UUID.randomUUID())));
+        assertEquals(EndpointClass.READ, ConcurrencyLimitFilter.classify(request("GET", "/tasks/stats")));
+        assertEquals(EndpointClass.LIST, ConcurrencyLimitFilter.classify(request("GET", "/tasks")));
+        assertEquals(EndpointClass.LIST, ConcurrencyLimitFilter.classify(request("GET", "/tasks/search")));
+        assertEquals(EndpointClass.LIST, ConcurrencyLimitFilter.classify(request("GET", "/tasks/query/explain")));
+        assertEquals(EndpointClass.WRITE, ConcurrencyLimitFilter.classify(request("POST", "/tasks/batch")));
+        assertEquals(EndpointClass.WRITE, ConcurrencyLimitFilter.classify(request("PUT", "/tasks/" + UUID.randomUUID())));
+        assertEquals(EndpointClass.WRITE, ConcurrencyLimitFilter.classify(request("DELETE", "/tasks/" + UUID.randomUUID())));
+    }
+
+    @Test
+    void classify_ShouldLeaveStreamingAndOtherRequestsUnlimited() {
+        assertNull(ConcurrencyLimitFilter.classify(request("GET", "/tasks/events")));
+        assertNull(ConcurrencyLimitFilter.classify(request("GET", "/tasks/stream")));
+        assertNull(ConcurrencyLimitFilter.classify(request("GET", "/tasks/export")));
+        assertNull(ConcurrencyLimitFilter.classify(request("POST", "/tasks/import")));
+        assertNull(ConcurrencyLimitFilter.classify(request("OPTIONS", "/tasks")));
+        assertNull(ConcurrencyLimitFilter.classify(request("GET", "/actuator/health")));
+        assertNull(ConcurrencyLimitFilter.classify(request("GET", "/tasksearch")));
+    }
+
+    @Test
+    void doFilter_ShouldPassRequestUnderTheLimitAndReleaseItsSlot() throws Exception {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request("GET", "/tasks"), response, chain);
+
+        // Then
+        assertNotNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+        assertEquals(0, filter.getLimit(EndpointClass.LIST).getInFlight());
+    }
+
+    @Test
+    void doFilter_ShouldShedRequestOverItsClassLimitWith503AndRetryAfter() throws Exception {
+        // Given
+        filter.getLimit(EndpointClass.LIST).tryAcquire();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request("GET", "/tasks/search"), response, chain);
+
+        // Then
+        assertNull(chain.getRequest());
+        assertEquals(503, response.getStatus());
+        assertEquals(ConcurrencyLimitFilter.RETRY_AFTER_SECONDS, response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, filter.getLimit(EndpointClass.LIST).getShed());
+    }
+
+    @Test
+    void doFilter_ShouldNotShedOtherClassesWhenOneIsAtItsLimit() throws Exception {
+        // Given
+        filter.getLimit(EndpointClass.LIST).tryAcquire();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request("GET", "/tasks/" + UUID.randomUUID()), response, chain);
+
+        // Then
+        assertNotNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void doFilter_ShouldPassEverythingWhenDisabled() throws Exception {
+        // Given
+        ConcurrencyLimitFilter disabled = new ConcurrencyLimitFilter(false, 1, 1, 1, 1, 1, 1);
+        disabled.getLimit(EndpointClass.WRITE).tryAcquire();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        disabled.doFilter(request("POST", "/tasks"), new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void bindTo_ShouldRegisterShedCounterAndGaugesPerClass() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+        filter.getLimit(EndpointClass.WRITE).tryAcquire();
+
+        // When
+        filter.doFilter(request("PATCH", "/tasks/" + UUID.randomUUID()), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertEquals(1.0, registry.get("taskmanager.requests.shed").tag("endpoint", "write").functionCounter().count());
+        assertEquals(0.0, registry.get("taskmanager.requests.shed").tag("endpoint", "read").functionCounter().count());
+        assertEquals(1.0, registry.get("taskmanager.concurrency.in.flight").tag("endpoint", "write").gauge().value());
+        assertEquals(1.0, registry.get("taskmanager.concurrency.limit").tag("endpoint", "list").gauge().value());
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        return new MockHttpServletRequest(method, path);
+    }
+}
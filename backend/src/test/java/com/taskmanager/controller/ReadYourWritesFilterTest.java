@@ -0,0 +1,84 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.repository.ReplicaReads;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+    private static final long NOW = 1_000_000;
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5), () -> NOW);
+
+    @Test
+    void doFilter_ShouldPinAWriteAndSetTheCookie() throws Exception {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean pinned = pinnedDuring(new MockHttpServletRequest("PUT", "/tasks/" + UUID.randomUUID()), response);
+
+        // Then
+        assertTrue(pinned);
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(cookie);
+        assertEquals(Long.toString(NOW + 5000), cookie.getValue());
+        assertEquals(5, cookie.getMaxAge());
+        assertFalse(ReplicaReads.isPinned());
+    }
+
+    @Test
+    void doFilter_ShouldPinReadsOfAClientThatWroteRecently() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(NOW + 1)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean pinned = pinnedDuring(request, response);
+
+        // Then
+        assertTrue(pinned);
+        assertNull(response.getCookie(ReadYourWritesFilter.COOKIE));
+    }
+
+    @Test
+    void doFilter_ShouldNotPinReadsOnceThePinHasExpired() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(NOW)));
+
+        // When
+        boolean pinned = pinnedDuring(request, new MockHttpServletResponse());
+
+        // Then
+        assertFalse(pinned);
+    }
+
+    @Test
+    void doFilter_ShouldNotPinReadsWithoutAValidCookie() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, "soon"));
+
+        // When
+        boolean pinned = pinnedDuring(request, new MockHttpServletResponse());
+
+        // Then
+        assertFalse(pinned);
+    }
+
+    private boolean pinnedDuring(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        filter.doFilter(request, response, (req, res) -> pinned.set(ReplicaReads.isPinned()));
+        return pinned.get();
+    }
+}
@@ -0,0 +1,68 @@
+package com.taskmanager.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedJsonBodyAdviceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SharedJsonBodyAdvice advice = new SharedJsonBodyAdvice(objectMapper, Duration.ofMinutes(1));
+
+    @Test
+    void beforeBodyWrite_ShouldEncodeSameListInstanceOnce() throws Exception {
+        // Given
+        List<Task> tasks = List.of(new Task("Shared", null, TaskStatus.TODO));
+
+        // When
+        Object first = write(tasks, MediaType.APPLICATION_JSON);
+        Object second = write(tasks, MediaType.APPLICATION_JSON);
+        Object equalCopy = write(new ArrayList<>(tasks), MediaType.APPLICATION_JSON);
+
+        // Then
+        assertInstanceOf(RawValue.class, first);
+        assertSame(first, second);
+        assertNotSame(first, equalCopy);
+        assertEquals(objectMapper.writeValueAsString(tasks), objectMapper.writeValueAsString(first));
+    }
+
+    @Test
+    void beforeBodyWrite_ForOtherMediaTypes_ShouldLeaveBodyAlone() {
+        // Given
+        List<Task> tasks = List.of(new Task("Shared", null, TaskStatus.TODO));
+
+        // When
+        Object result = write(tasks, MediaType.APPLICATION_NDJSON);
+
+        // Then
+        assertSame(tasks, result);
+    }
+
+    @Test
+    void supports_ShouldOnlyApplyToJsonTaskLists() throws Exception {
+        MethodParameter taskList = new MethodParameter(
+                TaskController.class.getMethod("searchTasks", String.class, int.class), -1);
+        MethodParameter batchResults = new MethodParameter(
+                TaskController.class.getMethod("deleteTasks", List.class), -1);
+
+        assertTrue(advice.supports(taskList, MappingJackson2HttpMessageConverter.class));
+        assertFalse(advice.supports(taskList, MappingJackson2SmileHttpMessageConverter.class));
+        assertFalse(advice.supports(batchResults, MappingJackson2HttpMessageConverter.class));
+    }
+
+    private Object write(Object body, MediaType mediaType) {
+        return advice.beforeBodyWrite(body, null, mediaType, MappingJackson2HttpMessageConverter.class, null, null);
+    }
+}
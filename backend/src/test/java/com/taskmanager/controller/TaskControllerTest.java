@@ -1,32 +1,67 @@
 package com.taskmanager.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.taskmanager.config.JacksonConfig;
 import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskPatch;
+import com.taskmanager.model.TaskField;
+import com.taskmanager.model.TaskQuery;
+import com.taskmanager.model.TaskQueryPlan;
 import com.taskmanager.model.TaskStatus;
+import com.taskmanager.model.TaskView;
+import com.taskmanager.service.TaskBatchService;
+import com.taskmanager.service.TaskCache;
+import com.taskmanager.service.TaskEventBroadcaster;
 import com.taskmanager.service.TaskService;
+import com.taskmanager.service.TaskStatusCounters;
+import com.taskmanager.service.TaskTransferService;
+import com.taskmanager.service.TaskVersionMismatchException;
+import com.taskmanager.service.TaskWriteBufferFullException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TaskController.class)
+@Import(JacksonConfig.class)
 class TaskControllerTest {
 
     @Autowired
@@ -35,6 +70,15 @@ class TaskControllerTest {
     @MockBean
     private TaskService taskService;
 
+    @MockBean
+    private TaskBatchService taskBatchService;
+
+    @MockBean
+    private TaskTransferService taskTransferService;
+
+    @MockBean
+    private TaskEventBroadcaster eventBroadcaster;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -65,6 +109,59 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$[0].status", is("TODO")));
     }
 
+    @Test
+    void getAllTasks_WithSmileAccept_ShouldReturnSmileEncodedList() throws Exception {
+        // Given
+        when(taskService.getAllTasks()).thenReturn(List.of(sampleTask));
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+
+        // When
+        MvcResult result = mockMvc.perform(get("/tasks").accept(smile))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(smile))
+                .andReturn();
+
+        // Then
+        List<Task> tasks = new ObjectMapper(new SmileFactory())
+                .readValue(result.getResponse().getContentAsByteArray(), new TypeReference<List<Task>>() {});
+        assertEquals(1, tasks.size());
+        assertEquals(taskId, tasks.get(0).getId());
+        assertEquals("Test Task", tasks.get(0).getTitle());
+        assertEquals(TaskStatus.TODO, tasks.get(0).getStatus());
+    }
+
+    @Test
+    void getAllTasks_WithCborAccept_ShouldReturnCborEncodedList() throws Exception {
+        // Given
+        when(taskService.getAllTasks()).thenReturn(List.of(sampleTask));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/tasks").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        // Then
+        List<Task> tasks = new ObjectMapper(new CBORFactory())
+                .readValue(result.getResponse().getContentAsByteArray(), new TypeReference<List<Task>>() {});
+        assertEquals(taskId, tasks.get(0).getId());
+        assertEquals("Test Description", tasks.get(0).getDescription());
+    }
+
+    @Test
+    void createTask_WithSmileBody_ShouldDecodeRequest() throws Exception {
+        // Given
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+        byte[] body = new ObjectMapper(new SmileFactory())
+                .writeValueAsBytes(new Task("Test Task", "Test Description", TaskStatus.TODO));
+        when(taskService.createTask(any(Task.class))).thenReturn(sampleTask);
+
+        // When & Then
+        mockMvc.perform(post("/tasks").contentType(smile).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.title", is("Test Task")));
+    }
+
     @Test
     void getAllTasks_WithStatusFilter_ShouldReturnFilteredTasks() throws Exception {
         // Given
@@ -80,6 +177,280 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$[0].status", is("TODO")));
     }
 
+    @Test
+    void getAllTasks_WithLimit_ShouldReturnPageAndNextCursor() throws Exception {
+        // Given
+        when(taskService.getTasksPage(null, TaskStatus.TODO, "Test", 1)).thenReturn(List.of(sampleTask));
+
+        // When & Then
+        mockMvc.perform(get("/tasks?status=TODO&search=Test&limit=1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(TaskController.NEXT_CURSOR_HEADER, TaskCursor.encode(taskId)));
+    }
+
+    @Test
+    void getTaskViews_ShouldWriteOnlySelectedFields() throws Exception {
+        // Given
+        Set<TaskField> fields = EnumSet.of(TaskField.ID, TaskField.TITLE, TaskField.DESCRIPTION);
+        when(taskService.getTaskViews(fields, TaskStatus.TODO, null))
+                .thenReturn(List.of(new TaskView(taskId, "Test Task", null, null, null)));
+
+        // When & Then
+        mockMvc.perform(get("/tasks?fields=title,description&status=TODO"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(taskId.toString())))
+                .andExpect(jsonPath("$[0].title", is("Test Task")))
+                .andExpect(jsonPath("$[0].status").doesNotExist())
+                .andExpect(jsonPath("$[0].version").doesNotExist())
+                .andExpect(content().string(containsString("\"description\":null")));
+        verify(taskService, never()).getTasksByStatus(any());
+    }
+
+    @Test
+    void getTaskViews_WithLimit_ShouldReturnPageAndNextCursor() throws Exception {
+        // Given
+        when(taskService.getTaskViewsPage(EnumSet.of(TaskField.ID, TaskField.STATUS), null, null, null, 1))
+                .thenReturn(List.of(new TaskView(taskId, null, null, TaskStatus.TODO, null)));
+
+        // When & Then
+        mockMvc.perform(get("/tasks?fields=status&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("TODO")))
+                .andExpect(header().string(TaskController.NEXT_CURSOR_HEADER, TaskCursor.encode(taskId)));
+    }
+
+    @Test
+    void getTaskViews_WithUnknownField_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/tasks?fields=title,owner"))
+                .andExpect(status().isBadRequest());
+        verify(taskService, never()).getTaskViews(any(), any(), any());
+    }
+
+    @Test
+    void getAllTasks_WithCursor_ShouldResumeAfterCursorAndOmitNextCursorOnLastPage() throws Exception {
+        // Given
+        when(taskService.getTasksPage(taskId, null, null, TaskController.DEFAULT_PAGE_SIZE))
+                .thenReturn(List.of(sampleTask));
+
+        // When & Then
+        mockMvc.perform(get("/tasks?after=" + TaskCursor.encode(taskId)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist(TaskController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getAllTasks_WithMalformedCursor_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/tasks?after=not-a-cursor"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).getTasksPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getAllTasks_WithLimitOutOfRange_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/tasks?limit=" + (TaskController.MAX_PAGE_SIZE + 1)))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchTasks_ShouldReturnRankedMatchesWithDefaultLimit() throws Exception {
+        // Given
+        when(taskService.searchTasks("test", TaskController.DEFAULT_SEARCH_LIMIT)).thenReturn(List.of(sampleTask));
+
+        // When & Then
+        mockMvc.perform(get("/tasks/search?q=test"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("Test Task")));
+    }
+
+    @Test
+    void getAllTasks_WithStatusAndSearch_ShouldCombineBoth() throws Exception {
+        // Given
+        when(taskService.searchTasksByStatus(TaskStatus.TODO, "test")).thenReturn(List.of(sampleTask));
+
+        // When & Then
+        mockMvc.perform(get("/tasks?status=TODO&search=test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        verify(taskService, never()).getTasksByStatus(any());
+    }
+
+    @Test
+    void queryTasks_ShouldPassStatusesTextSortAndLimit() throws Exception {
+        // Given
+        TaskQuery query = new TaskQuery(Set.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS), "test", TaskQuery.Sort.TITLE, 5);
+        when(taskService.queryTasks(query)).thenReturn(List.of(sampleTask));
+
+        // When & Then
+        mockMvc.perform(get("/tasks/query?status=TODO,IN_PROGRESS&q=test&sort=title&limit=5"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("Test Task")));
+    }
+
+    @Test
+    void queryTasks_ShouldDefaultToRelevanceWithTextAndIdWithout() throws Exception {
+        // Given
+        when(taskService.queryTasks(any())).thenReturn(List.of());
+
+        // When
+        mockMvc.perform(get("/tasks/query?q=test")).andExpect(status().isOk());
+        mockMvc.perform(get("/tasks/query?status=DONE")).andExpect(status().isOk());
+
+        // Then
+        verify(taskService).queryTasks(new TaskQuery(Set.of(), "test", TaskQuery.Sort.RELEVANCE, TaskController.DEFAULT_PAGE_SIZE));
+        verify(taskService).queryTasks(new TaskQuery(Set.of(TaskStatus.DONE), null, TaskQuery.Sort.ID, TaskController.DEFAULT_PAGE_SIZE));
+    }
+
+    @Test
+    void queryTasks_WithRelevanceWithoutTextOrUnknownSort_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/tasks/query?sort=relevance")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tasks/query?q=test&sort=size")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tasks/query?limit=0")).andExpect(status().isBadRequest());
+        verify(taskService, never()).queryTasks(any());
+    }
+
+    @Test
+    void explainQuery_ShouldReturnPlan() throws Exception {
+        // Given
+        TaskQuery query = new TaskQuery(Set.of(TaskStatus.IN_PROGRESS), null, TaskQuery.Sort.TITLE, 50);
+        when(taskService.explainQuery(query)).thenReturn(
+                new TaskQueryPlan(TaskQueryPlan.DATABASE, "idx_tasks_status_title_id", 50, "SELECT ..."));
+
+        // When & Then
+        mockMvc.perform(get("/tasks/query/explain?status=IN_PROGRESS&sort=title&limit=50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.source", is("database")))
+                .andExpect(jsonPath("$.index", is("idx_tasks_status_title_id")))
+                .andExpect(jsonPath("$.rowsScanned", is(50)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamTasks_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // Given
+        Task otherTask = new Task("Other Task", null, TaskStatus.DONE);
+        otherTask.setId(UUID.randomUUID());
+        doAnswer(invocation -> {
+            Consumer<Task> consumer = invocation.getArgument(2);
+            consumer.accept(sampleTask);
+            consumer.accept(otherTask);
+            return null;
+        }).when(taskService).streamTasks(isNull(), isNull(), any(Consumer.class));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/tasks/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Test Task", objectMapper.readValue(lines[0], Task.class).getTitle());
+        assertEquals(TaskStatus.DONE, objectMapper.readValue(lines[1], Task.class).getStatus());
+    }
+
+    @Test
+    void exportTasks_AsCsv_ShouldStreamAttachment() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("id,title\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        }).when(taskTransferService).exportTasks(eq(TaskTransferService.Format.CSV), any(OutputStream.class));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/tasks/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.csv\""))
+                .andExpect(content().string("id,title\n"));
+    }
+
+    @Test
+    void exportTasks_WithUnknownFormat_ShouldReturn400() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/tasks/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        verify(taskTransferService, never()).exportTasks(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importTasks_ShouldWriteProgressLines() throws Exception {
+        // Given
+        String body = "{\"title\":\"One\"}\n{\"title\":\"Two\"}\n";
+        doAnswer(invocation -> {
+            InputStream in = invocation.getArgument(1);
+            assertEquals(body, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            Consumer<TaskTransferService.ImportProgress> progress = invocation.getArgument(2);
+            progress.accept(new TaskTransferService.ImportProgress(
+                    TaskTransferService.ImportStatus.RUNNING, 1, 1, 0, 0, List.of()));
+            TaskTransferService.ImportProgress completed = new TaskTransferService.ImportProgress(
+                    TaskTransferService.ImportStatus.COMPLETED, 2, 2, 0, 0, List.of());
+            progress.accept(completed);
+            return completed;
+        }).when(taskTransferService).importTasks(
+                eq(TaskTransferService.Format.NDJSON), any(InputStream.class), any(Consumer.class));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/tasks/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("RUNNING", objectMapper.readTree(lines[0]).get("status").asText());
+        assertEquals(2, objectMapper.readTree(lines[1]).get("created").asLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importTasks_WithCsvBody_ShouldImportCsv() throws Exception {
+        // Given
+        when(taskTransferService.importTasks(eq(TaskTransferService.Format.CSV), any(InputStream.class), any(Consumer.class)))
+                .thenReturn(new TaskTransferService.ImportProgress(
+                        TaskTransferService.ImportStatus.COMPLETED, 0, 0, 0, 0, List.of()));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/tasks/import")
+                        .contentType("text/csv")
+                        .content("title\nOne\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        verify(taskTransferService).importTasks(eq(TaskTransferService.Format.CSV), any(InputStream.class), any(Consumer.class));
+    }
+
     @Test
     void getTaskById_WhenTaskExists_ShouldReturnTask() throws Exception {
         // Given
@@ -95,6 +466,77 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.status", is("TODO")));
     }
 
+    @Test
+    void getStats_ShouldReturnTotalAndCountsPerStatus() throws Exception {
+        // Given
+        when(taskService.getStatusCounts()).thenReturn(new TaskStatusCounters.Counts(5, Map.of(
+                TaskStatus.TODO, 3L, TaskStatus.IN_PROGRESS, 2L, TaskStatus.DONE, 0L)));
+
+        // When & Then
+        mockMvc.perform(get("/tasks/stats"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(5)))
+                .andExpect(jsonPath("$.byStatus.TODO", is(3)))
+                .andExpect(jsonPath("$.byStatus.DONE", is(0)));
+        verify(taskService, never()).getAllTasks();
+    }
+
+    @Test
+    void getCacheStats_ShouldReturnCountersPerCache() throws Exception {
+        // Given
+        when(taskService.getCacheStats()).thenReturn(Map.of("tasksById", new TaskCache.Stats(40, 2, 1, 12)));
+
+        // When & Then
+        mockMvc.perform(get("/tasks/cache/stats"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasksById.hits", is(40)))
+                .andExpect(jsonPath("$.tasksById.misses", is(2)))
+                .andExpect(jsonPath("$.tasksById.evictions", is(1)));
+    }
+
+    @Test
+    void getTaskById_ShouldReturnVersionAsStrongETag() throws Exception {
+        // Given
+        sampleTask.setVersion(7L);
+        when(taskService.getTaskById(taskId)).thenReturn(Optional.of(sampleTask));
+
+        // When & Then
+        mockMvc.perform(get("/tasks/" + taskId))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+                .andExpect(jsonPath("$.version", is(7)));
+    }
+
+    @Test
+    void getTaskById_WhenETagMatches_ShouldReturn304WithoutBody() throws Exception {
+        // Given
+        sampleTask.setVersion(7L);
+        when(taskService.getTaskById(taskId)).thenReturn(Optional.of(sampleTask));
+
+        // When & Then
+        mockMvc.perform(get("/tasks/" + taskId).header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getTaskById_WhenETagIsStale_ShouldReturnTask() throws Exception {
+        // Given
+        sampleTask.setVersion(8L);
+        when(taskService.getTaskById(taskId)).thenReturn(Optional.of(sampleTask));
+
+        // When & Then
+        mockMvc.perform(get("/tasks/" + taskId).header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Test Task")));
+    }
+
     @Test
     void getTaskById_WhenTaskNotExists_ShouldReturn404() throws Exception {
         // Given
@@ -140,6 +582,60 @@ class TaskControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void createTasks_ShouldReturnPerItemResults() throws Exception {
+        // Given
+        UUID createdId = UUID.randomUUID();
+        when(taskBatchService.createTasks(any(List.class))).thenReturn(List.of(
+                new TaskBatchService.ItemResult(0, createdId, TaskBatchService.Outcome.CREATED, null),
+                new TaskBatchService.ItemResult(1, null, TaskBatchService.Outcome.INVALID, "Title must not be blank")));
+
+        // When & Then
+        mockMvc.perform(post("/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(sampleTask, new Task("", null, TaskStatus.TODO)))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].outcome", is("CREATED")))
+                .andExpect(jsonPath("$[0].id", is(createdId.toString())))
+                .andExpect(jsonPath("$[1].outcome", is("INVALID")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateTasks_ShouldReturnPerItemResults() throws Exception {
+        // Given
+        when(taskBatchService.updateTasks(any(List.class))).thenReturn(List.of(
+                new TaskBatchService.ItemResult(0, taskId, TaskBatchService.Outcome.NOT_FOUND, null)));
+
+        // When & Then
+        mockMvc.perform(patch("/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"id\":\"" + taskId + "\",\"status\":\"DONE\"}]"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome", is("NOT_FOUND")));
+
+        verify(taskBatchService).updateTasks(List.of(new TaskPatch(taskId, null, null, TaskStatus.DONE)));
+    }
+
+    @Test
+    void deleteTasks_ShouldReturnPerItemResults() throws Exception {
+        // Given
+        when(taskBatchService.deleteTasks(List.of(taskId))).thenReturn(List.of(
+                new TaskBatchService.ItemResult(0, taskId, TaskBatchService.Outcome.DELETED, null)));
+
+        // When & Then
+        mockMvc.perform(delete("/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(taskId))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome", is("DELETED")));
+    }
+
     @Test
     void updateTask_WhenTaskExists_ShouldReturnUpdatedTask() throws Exception {
         // Given
@@ -147,7 +643,7 @@ class TaskControllerTest {
         Task updatedTask = new Task("Updated Task", "Updated Description", TaskStatus.IN_PROGRESS);
         updatedTask.setId(taskId);
         
-        when(taskService.updateTask(eq(taskId), any(Task.class))).thenReturn(Optional.of(updatedTask));
+        when(taskService.updateTask(eq(taskId), any(Task.class), isNull())).thenReturn(Optional.of(updatedTask));
 
         // When & Then
         mockMvc.perform(put("/tasks/" + taskId)
@@ -165,7 +661,7 @@ class TaskControllerTest {
     void updateTask_WhenTaskNotExists_ShouldReturn404() throws Exception {
         // Given
         Task updateData = new Task("Updated Task", "Updated Description", TaskStatus.IN_PROGRESS);
-        when(taskService.updateTask(eq(taskId), any(Task.class))).thenReturn(Optional.empty());
+        when(taskService.updateTask(eq(taskId), any(Task.class), isNull())).thenReturn(Optional.empty());
 
         // When & Then
         mockMvc.perform(put("/tasks/" + taskId)
@@ -175,6 +671,164 @@ class TaskControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void updateTask_WithIfMatch_ShouldPassExpectedVersionAndReturnNewETag() throws Exception {
+        // Given
+        Task updatedTask = new Task("Updated Task", null, TaskStatus.DONE);
+        updatedTask.setId(taskId);
+        updatedTask.setVersion(4L);
+        when(taskService.updateTask(eq(taskId), any(Task.class), eq(3L))).thenReturn(Optional.of(updatedTask));
+
+        // When & Then
+        mockMvc.perform(put("/tasks/" + taskId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedTask)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void updateTask_WhenVersionMismatch_ShouldReturn412() throws Exception {
+        // Given
+        when(taskService.updateTask(eq(taskId), any(Task.class), eq(3L)))
+                .thenThrow(new TaskVersionMismatchException(taskId, 3L));
+
+        // When & Then
+        mockMvc.perform(put("/tasks/" + taskId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sampleTask)))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateTask_WithWriteBehind_ShouldReturn202WithQueuedTask() throws Exception {
+        // Given
+        Task queued = new Task("Queued Task", null, TaskStatus.DONE);
+        queued.setId(taskId);
+        when(taskService.isWriteBehindEnabled()).thenReturn(true);
+        when(taskService.updateTaskLater(eq(taskId), any(Task.class))).thenReturn(Optional.of(queued));
+
+        // When & Then
+        mockMvc.perform(put("/tasks/" + taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(queued)))
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.title", is("Queued Task")));
+
+        verify(taskService, never()).updateTask(any(), any(), any());
+    }
+
+    @Test
+    void updateTask_WithWriteBehindWhenQueueFull_ShouldReturn429WithRetryAfter() throws Exception {
+        // Given
+        when(taskService.isWriteBehindEnabled()).thenReturn(true);
+        when(taskService.updateTaskLater(eq(taskId), any(Task.class)))
+                .thenThrow(new TaskWriteBufferFullException(10));
+
+        // When & Then
+        mockMvc.perform(put("/tasks/" + taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sampleTask)))
+                .andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void updateTask_WithWriteBehindAndIfMatch_ShouldUpdateSynchronously() throws Exception {
+        // Given
+        Task updatedTask = new Task("Updated Task", null, TaskStatus.DONE);
+        updatedTask.setId(taskId);
+        updatedTask.setVersion(4L);
+        when(taskService.isWriteBehindEnabled()).thenReturn(true);
+        when(taskService.updateTask(eq(taskId), any(Task.class), eq(3L))).thenReturn(Optional.of(updatedTask));
+
+        // When & Then
+        mockMvc.perform(put("/tasks/" + taskId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedTask)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+
+        verify(taskService, never()).updateTaskLater(any(), any());
+    }
+
+    @Test
+    void updateTask_WithWeakIfMatch_ShouldReturn412() throws Exception {
+        mockMvc.perform(put("/tasks/" + taskId)
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sampleTask)))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed());
+
+        verify(taskService, never()).updateTask(any(), any(), any());
+    }
+
+    @Test
+    void patchTask_WithIfMatch_ShouldReturnNextETag() throws Exception {
+        // Given
+        TaskPatch patch = new TaskPatch(null, null, TaskStatus.DONE);
+        when(taskService.patchTask(taskId, patch, 3L)).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(patch("/tasks/" + taskId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"DONE\"}"))
+                .andDo(print())
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void patchTask_ShouldPassOnlySentFieldsAndReturn204() throws Exception {
+        // Given
+        TaskPatch patch = new TaskPatch(null, null, TaskStatus.DONE);
+        when(taskService.patchTask(taskId, patch, null)).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(patch("/tasks/" + taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"DONE\"}"))
+                .andDo(print())
+                .andExpect(status().isNoContent());
+
+        verify(taskService).patchTask(taskId, patch, null);
+    }
+
+    @Test
+    void patchTask_WhenTaskNotExists_ShouldReturn404() throws Exception {
+        // Given
+        when(taskService.patchTask(eq(taskId), any(TaskPatch.class), isNull())).thenReturn(false);
+
+        // When & Then
+        mockMvc.perform(patch("/tasks/" + taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Renamed\"}"))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void patchTask_WithBlankTitle_ShouldReturn400() throws Exception {
+        mockMvc.perform(patch("/tasks/" + taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\" \"}"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).patchTask(any(), any(), any());
+    }
+
     @Test
     void deleteTask_WhenTaskExists_ShouldReturn204() throws Exception {
         // Given
@@ -196,4 +850,36 @@ class TaskControllerTest {
                 .andDo(print())
                 .andExpect(status().isNotFound());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void streamEvents_ShouldSubscribeWithStatusFilterAndLastEventId() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/tasks/events")
+                .param("status", "TODO", "DONE")
+                .header("Last-Event-ID", "42")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(eventBroadcaster).subscribe(any(), eq(Set.of(TaskStatus.TODO, TaskStatus.DONE)), eq(42L));
+    }
+
+    @Test
+    void streamEvents_WithoutFilter_ShouldSubscribeToAllEvents() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/tasks/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(eventBroadcaster).subscribe(any(), eq(Set.of()), isNull());
+    }
+
+    @Test
+    void streamEvents_WithMalformedLastEventId_ShouldReturn400() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/tasks/events")
+                .header("Last-Event-ID", "abc")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest());
+
+        verify(eventBroadcaster, never()).subscribe(any(), any(), any());
+    }
+}
@@ -0,0 +1,77 @@
+package com.taskmanager.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskIdsTest {
+
+    private static final long NOW = Instant.parse("2026-10-17T00:00:00Z").toEpochMilli();
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+
+    private final TaskIds ids = new TaskIds(clock::get);
+
+    @Test
+    void nextId_ShouldBeAVersion7UuidCarryingItsCreationTime() {
+        // When
+        UUID id = ids.nextId();
+
+        // Then
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(Instant.ofEpochMilli(NOW), TaskIds.createdAt(id));
+    }
+
+    @Test
+    void nextId_ShouldIncreaseWithinOneMillisecond() {
+        // Given
+        UUID previous = ids.nextId();
+
+        for (int i = 0; i < 10_000; i++) {
+            // When
+            UUID id = ids.nextId();
+
+            // Then
+            assertTrue(id.compareTo(previous) > 0, id + " after " + previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void nextId_ShouldKeepIncreasingWhenTheClockStepsBack() {
+        // Given
+        UUID before = ids.nextId();
+        clock.addAndGet(-1000);
+
+        // When
+        UUID after = ids.nextId();
+
+        // Then
+        assertTrue(after.compareTo(before) > 0);
+        assertEquals(Instant.ofEpochMilli(NOW), TaskIds.createdAt(after));
+    }
+
+    @Test
+    void nextId_ShouldOrderByTimeAcrossMilliseconds() {
+        // Given
+        UUID earlier = ids.nextId();
+        clock.addAndGet(1);
+
+        // When
+        UUID later = ids.nextId();
+
+        // Then
+        assertTrue(later.compareTo(earlier) > 0);
+        assertTrue(later.toString().compareTo(earlier.toString()) > 0);
+    }
+
+    @Test
+    void createdAt_ShouldBeNullForRandomIds() {
+        assertNull(TaskIds.createdAt(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,372 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskField;
+import com.taskmanager.model.TaskQuery;
+import com.taskmanager.model.TaskQueryPlan;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.model.TaskView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryTaskRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private InMemoryTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        repository.close();
+    }
+
+    @Test
+    void save_ShouldGenerateIdAndStartAtVersionZero() {
+        // When
+        Task saved = repository.save(new Task("Title", "Description", TaskStatus.TODO));
+
+        // Then
+        assertNotNull(saved.getId());
+        assertEquals(0L, saved.getVersion());
+        assertEquals("Title", repository.findById(saved.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void save_WithStaleVersion_ShouldThrowOptimisticLockingFailure() {
+        // Given
+        Task saved = repository.save(new Task("Title", null, TaskStatus.TODO));
+        Task first = repository.findById(saved.getId()).orElseThrow();
+        Task second = repository.findById(saved.getId()).orElseThrow();
+        first.setTitle("First");
+        repository.save(first);
+
+        // When & Then
+        second.setTitle("Second");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> repository.save(second));
+        assertEquals("First", repository.findById(saved.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void save_WithoutTitle_ShouldViolateIntegrity() {
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repository.save(new Task(null, null, TaskStatus.TODO)));
+    }
+
+    @Test
+    void returnedTasks_ShouldBeCopies() {
+        // Given
+        Task saved = repository.save(new Task("Title", null, TaskStatus.TODO));
+
+        // When
+        repository.findById(saved.getId()).orElseThrow().setTitle("Changed");
+
+        // Then
+        assertEquals("Title", repository.findById(saved.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void updateTask_ShouldApplyOnlyWhenVersionMatchesAndReturnPreviousStatus() {
+        // Given
+        UUID id = repository.save(new Task("Title", "Description", TaskStatus.TODO)).getId();
+
+        // When & Then
+        assertEquals(Optional.empty(), repository.updateTask(id, "New", null, TaskStatus.DONE, 3L));
+        assertEquals(Optional.of(TaskStatus.TODO), repository.updateTask(id, "New", null, TaskStatus.DONE, 0L));
+
+        Task stored = repository.findById(id).orElseThrow();
+        assertEquals("New", stored.getTitle());
+        assertNull(stored.getDescription());
+        assertEquals(1L, stored.getVersion());
+        assertEquals(List.of(), repository.findByStatus(TaskStatus.TODO));
+        assertEquals(List.of(id), ids(repository.findByStatus(TaskStatus.DONE)));
+    }
+
+    @Test
+    void patchTask_ShouldKeepFieldsThatAreNotGiven() {
+        // Given
+        UUID id = repository.save(new Task("Title", "Description", TaskStatus.TODO)).getId();
+
+        // When
+        Optional<TaskStatus> previous = repository.patchTask(id, null, null, TaskStatus.IN_PROGRESS, null);
+
+        // Then
+        assertEquals(Optional.of(TaskStatus.TODO), previous);
+        Task stored = repository.findById(id).orElseThrow();
+        assertEquals("Description", stored.getDescription());
+        assertEquals(TaskStatus.IN_PROGRESS, stored.getStatus());
+        assertEquals(Optional.empty(), repository.patchTask(UUID.randomUUID(), "Title", null, null, null));
+    }
+
+    @Test
+    void deleteTaskById_ShouldReturnPreviousStatusOnce() {
+        // Given
+        UUID id = repository.save(new Task("Title", null, TaskStatus.TODO)).getId();
+
+        // When & Then
+        assertEquals(Optional.of(TaskStatus.TODO), repository.deleteTaskById(id));
+        assertEquals(Optional.empty(), repository.deleteTaskById(id));
+        assertFalse(repository.existsById(id));
+        assertEquals(0, repository.countByStatus(TaskStatus.TODO));
+    }
+
+    @Test
+    void insertMissing_ShouldKeepIdsAndSkipStoredOrRepeatedOnes() {
+        // Given
+        UUID storedId = repository.save(new Task("Stored", null, TaskStatus.TODO)).getId();
+        UUID newId = UUID.randomUUID();
+        Task stored = new Task("Imported again", null, TaskStatus.DONE);
+        stored.setId(storedId);
+        Task imported = new Task("Imported", null, TaskStatus.DONE);
+        imported.setId(newId);
+        Task repeated = new Task("Repeated", null, TaskStatus.TODO);
+        repeated.setId(newId);
+        Task withoutId = new Task("Without id", null, TaskStatus.TODO);
+
+        // When
+        List<Task> inserted = repository.insertMissing(List.of(stored, imported, repeated, withoutId));
+
+        // Then
+        assertEquals(List.of(imported, withoutId), inserted);
+        assertNotNull(withoutId.getId());
+        assertEquals(0L, imported.getVersion());
+        assertEquals("Stored", repository.findById(storedId).orElseThrow().getTitle());
+        assertEquals("Imported", repository.findById(newId).orElseThrow().getTitle());
+        assertEquals(3, repository.count());
+    }
+
+    @Test
+    void findPage_ShouldReturnKeysetPagesInIdOrder() {
+        // Given
+        List<UUID> saved = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            saved.add(repository.save(new Task("Task " + i, null, i % 2 == 0 ? TaskStatus.TODO : TaskStatus.DONE)).getId());
+        }
+        List<UUID> todo = saved.stream().filter(id -> saved.indexOf(id) % 2 == 0).sorted().collect(Collectors.toList());
+
+        // When
+        List<Task> first = repository.findPage(null, TaskStatus.TODO, null, Limit.of(2));
+        List<Task> second = repository.findPage(first.get(1).getId(), TaskStatus.TODO, null, Limit.of(2));
+
+        // Then
+        assertEquals(todo.subList(0, 2), ids(first));
+        assertEquals(todo.subList(2, 3), ids(second));
+        assertEquals(1, repository.findPage(null, null, "TASK 3", Limit.of(10)).size());
+    }
+
+    @Test
+    void findByQuery_ShouldCombineStatusesTextOrderAndLimit() {
+        // Given
+        Task deploy = repository.save(new Task("Deploy api", null, TaskStatus.IN_PROGRESS));
+        Task docs = repository.save(new Task("Write docs", "How to deploy", TaskStatus.DONE));
+        Task redeploy = repository.save(new Task("Redeploy", null, TaskStatus.TODO));
+        repository.save(new Task("Deploy web", null, TaskStatus.TODO));
+        TaskQuery query = new TaskQuery(Set.of(TaskStatus.IN_PROGRESS, TaskStatus.DONE), "DEPLOY", TaskQuery.Sort.RELEVANCE, 10);
+
+        // When
+        List<Task> byRelevance = repository.findByQuery(query);
+        List<Task> byTitle = repository.findByQuery(new TaskQuery(Set.of(), "deploy", TaskQuery.Sort.TITLE, 3));
+
+        // Then
+        assertEquals(List.of(deploy.getId(), docs.getId()), ids(byRelevance));
+        assertEquals(List.of("Deploy api", "Deploy web", "Redeploy"), byTitle.stream().map(Task::getTitle).toList());
+        assertFalse(ids(byTitle).contains(docs.getId()));
+        assertTrue(ids(repository.findByQuery(new TaskQuery(Set.of(TaskStatus.TODO), null, TaskQuery.Sort.ID, 10)))
+                .contains(redeploy.getId()));
+    }
+
+    @Test
+    void explainQuery_ShouldCountOnlyRowsOfTheQueriedStatuses() {
+        // Given
+        for (int i = 0; i < 6; i++) {
+            repository.save(new Task("Task " + i, null, i < 2 ? TaskStatus.IN_PROGRESS : TaskStatus.DONE));
+        }
+
+        // When
+        TaskQueryPlan plan = repository.explainQuery(new TaskQuery(Set.of(TaskStatus.IN_PROGRESS), "task", TaskQuery.Sort.ID, 10));
+        TaskQueryPlan limited = repository.explainQuery(new TaskQuery(Set.of(), null, TaskQuery.Sort.ID, 1));
+
+        // Then
+        assertEquals(TaskQueryPlan.MEMORY, plan.source());
+        assertEquals("status", plan.index());
+        assertEquals(2, plan.rowsScanned());
+        assertEquals(1, limited.rowsScanned());
+    }
+
+    @Test
+    void findViews_ShouldHoldOnlySelectedFields() {
+        // Given
+        UUID id = repository.save(new Task("Title", "Description", TaskStatus.TODO)).getId();
+
+        // When
+        List<TaskView> views = repository.findViews(EnumSet.of(TaskField.ID, TaskField.STATUS), null, null, null, null);
+
+        // Then
+        assertEquals(List.of(new TaskView(id, null, null, TaskStatus.TODO, null)), views);
+    }
+
+    @Test
+    void reopen_ShouldRecoverWritesFromLog() throws IOException {
+        // Given
+        Task kept = repository.save(new Task("Kept", "Description", TaskStatus.TODO));
+        UUID deleted = repository.save(new Task("Deleted", null, TaskStatus.TODO)).getId();
+        repository.patchTask(kept.getId(), null, null, TaskStatus.DONE, null);
+        repository.deleteTaskById(deleted);
+
+        // When
+        repository.close();
+        repository = open();
+
+        // Then
+        Task recovered = repository.findById(kept.getId()).orElseThrow();
+        assertEquals("Description", recovered.getDescription());
+        assertEquals(TaskStatus.DONE, recovered.getStatus());
+        assertEquals(1L, recovered.getVersion());
+        assertFalse(repository.existsById(deleted));
+        assertEquals(1, repository.countByStatus(TaskStatus.DONE));
+    }
+
+    @Test
+    void reopen_ShouldRecoverSnapshotAndLaterWrites() throws IOException {
+        // Given
+        UUID first = repository.save(new Task("First", null, TaskStatus.TODO)).getId();
+        repository.snapshot();
+        UUID second = repository.save(new Task("Second", null, TaskStatus.TODO)).getId();
+        repository.deleteTaskById(first);
+
+        // When
+        repository.close();
+        repository = open();
+
+        // Then
+        assertFalse(repository.existsById(first));
+        assertTrue(repository.existsById(second));
+        assertEquals(1, segments().size());
+    }
+
+    @Test
+    void reopen_AfterSnapshotsDuringWrites_ShouldRecoverEveryAcknowledgedWrite() throws Exception {
+        // Given
+        Map<UUID, String> acknowledged = new ConcurrentHashMap<>();
+        List<UUID> deleted = new CopyOnWriteArrayList<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        List<Future<?>> results = new ArrayList<>();
+        for (int writer = 0; writer < 4; writer++) {
+            List<UUID> own = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                own.add(repository.save(new Task("Task", null, TaskStatus.TODO)).getId());
+            }
+            results.add(writers.submit(() -> {
+                for (int round = 0; running.get(); round++) {
+                    UUID id = own.get(round % own.size());
+                    String title = "Round " + round;
+                    if (round % 50 == 49) {
+                        repository.deleteTaskById(id);
+                        deleted.add(id);
+                        acknowledged.remove(id);
+                        own.set(round % own.size(), repository.save(new Task(title, null, TaskStatus.TODO)).getId());
+                        acknowledged.put(own.get(round % own.size()), title);
+                    } else {
+                        repository.patchTask(id, title, null, null, null);
+                        acknowledged.put(id, title);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            repository.snapshot();
+        }
+        running.set(false);
+        for (Future<?> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        writers.shutdown();
+        repository.close();
+        repository = open();
+
+        // Then
+        for (Map.Entry<UUID, String> write : acknowledged.entrySet()) {
+            assertEquals(write.getValue(), repository.findById(write.getKey()).orElseThrow().getTitle());
+        }
+        for (UUID id : deleted) {
+            assertFalse(repository.existsById(id));
+        }
+    }
+
+    @Test
+    void reopen_ShouldIgnoreTornTailOfLog() throws IOException {
+        // Given
+        UUID kept = repository.save(new Task("Kept", null, TaskStatus.TODO)).getId();
+        UUID torn = repository.save(new Task("Torn", null, TaskStatus.TODO)).getId();
+        repository.close();
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        // When
+        repository = open();
+
+        // Then
+        assertTrue(repository.existsById(kept));
+        assertFalse(repository.existsById(torn));
+        UUID after = repository.save(new Task("After", null, TaskStatus.TODO)).getId();
+        repository.close();
+        repository = open();
+        assertTrue(repository.existsById(after));
+    }
+
+    private InMemoryTaskRepository open() {
+        return new InMemoryTaskRepository(new TaskWriteAheadLog(directory), Duration.ofSeconds(10), Long.MAX_VALUE);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".wal")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static List<UUID> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).collect(Collectors.toList());
+    }
+}
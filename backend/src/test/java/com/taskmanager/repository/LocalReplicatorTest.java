@@ -0,0 +1,111 @@
+package com.taskmanager.repository;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalReplicatorTest {
+
+    private String primaryUrl;
+    private String replicaUrl;
+    private LocalReplicator replicator;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        primaryUrl = "jdbc:h2:mem:primary-" + run + ";DB_CLOSE_DELAY=-1";
+        replicaUrl = "jdbc:h2:mem:replica-" + run + ";DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(primaryUrl, "sa", "").load().migrate();
+        replicator = new LocalReplicator(h2(primaryUrl), List.of(replicaUrl), "sa", "", Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        replicator.close();
+        execute(primaryUrl, "SHUTDOWN");
+        execute(replicaUrl, "SHUTDOWN");
+    }
+
+    @Test
+    void replicate_ShouldCopyInsertsUpdatesAndDeletes() throws SQLException {
+        // Given
+        UUID kept = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        insert(kept, "Kept", 0);
+        insert(deleted, "Deleted", 0);
+        replicator.replicate();
+        execute(primaryUrl, "UPDATE tasks SET title = 'Renamed', version = 1 WHERE id = '" + kept + "'");
+        execute(primaryUrl, "DELETE FROM tasks WHERE id = '" + deleted + "'");
+
+        // When
+        replicator.replicate();
+
+        // Then
+        assertEquals(Map.of(kept.toString(), "Renamed"), titles(replicaUrl));
+    }
+
+    @Test
+    void replicate_ShouldCarryTheHeartbeatOver() throws SQLException {
+        // Given
+        execute(primaryUrl, "UPDATE replication_heartbeat SET beat_millis = 1234 WHERE id = 1");
+
+        // When
+        replicator.replicate();
+
+        // Then
+        assertEquals(1234, heartbeat(replicaUrl));
+    }
+
+    private void insert(UUID id, String title, long version) throws SQLException {
+        execute(primaryUrl, "INSERT INTO tasks (id, title, status, version) VALUES ('"
+                + id + "', '" + title + "', 'TODO', " + version + ")");
+    }
+
+    private static Map<String, String> titles(String url) throws SQLException {
+        Map<String, String> titles = new TreeMap<>();
+        try (Connection connection = h2(url).getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT id, title FROM tasks")) {
+            while (rows.next()) {
+                titles.put(rows.getString(1), rows.getString(2));
+            }
+        }
+        return titles;
+    }
+
+    private static long heartbeat(String url) throws SQLException {
+        try (Connection connection = h2(url).getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet row = statement.executeQuery("SELECT beat_millis FROM replication_heartbeat")) {
+            row.next();
+            return row.getLong(1);
+        }
+    }
+
+    private static JdbcDataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+    private static void execute(String url, String sql) throws SQLException {
+        try (Connection connection = h2(url).getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
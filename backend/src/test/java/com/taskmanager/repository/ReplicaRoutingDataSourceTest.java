@@ -0,0 +1,251 @@
+package com.taskmanager.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final String KEEP_OPEN = ";DB_CLOSE_DELAY=-1";
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final AtomicBoolean replicaDown = new AtomicBoolean();
+
+    private String primaryUrl;
+    private String replicaUrl;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        primaryUrl = "jdbc:h2:mem:primary-" + run;
+        replicaUrl = "jdbc:h2:mem:replica-" + run;
+        Flyway.configure().dataSource(primaryUrl + KEEP_OPEN, "sa", "").load().migrate();
+        Flyway.configure().dataSource(replicaUrl + KEEP_OPEN, "sa", "").load().migrate();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", new FailingDataSource(h2(replicaUrl), replicaDown));
+        dataSource = new ReplicaRoutingDataSource(h2(primaryUrl), replicas,
+                Duration.ofSeconds(2), Duration.ofMillis(500), clock::get);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        execute(primaryUrl, "SHUTDOWN");
+        execute(replicaUrl, "SHUTDOWN");
+        ReplicaReads.unpin();
+    }
+
+    @Test
+    void getConnection_ShouldUseThePrimaryOutsideReplicaReads() throws SQLException {
+        // Given
+        replicateHeartbeat();
+
+        // When
+        String url = connectedUrl();
+
+        // Then
+        assertEquals(primaryUrl, url);
+    }
+
+    @Test
+    void getConnection_ShouldUseAFreshReplicaForReplicaReads() throws SQLException {
+        // Given
+        replicateHeartbeat();
+
+        // When
+        String url = ReplicaReads.read(this::connectedUrlUnchecked);
+
+        // Then
+        assertEquals(replicaUrl, url);
+        assertEquals(List.of("replica-1"), dataSource.getAvailableReplicas());
+    }
+
+    @Test
+    void getConnection_ShouldNotUseAReplicaBeforeItHasAHeartbeat() {
+        // Given
+        dataSource.check();
+
+        // When
+        String url = ReplicaReads.read(this::connectedUrlUnchecked);
+
+        // Then
+        assertEquals(primaryUrl, url);
+        assertTrue(dataSource.getAvailableReplicas().isEmpty());
+    }
+
+    @Test
+    void getConnection_ShouldSkipAReplicaFurtherBehindThanTheStalenessTolerance() throws SQLException {
+        // Given
+        replicateHeartbeat();
+        clock.addAndGet(Duration.ofSeconds(3).toMillis());
+
+        // When
+        String url = ReplicaReads.read(this::connectedUrlUnchecked);
+
+        // Then
+        assertEquals(primaryUrl, url);
+    }
+
+    @Test
+    void getConnection_ShouldUseThePrimaryWhilePinned() throws SQLException {
+        // Given
+        replicateHeartbeat();
+        ReplicaReads.pinToPrimary();
+
+        // When
+        String url = ReplicaReads.read(this::connectedUrlUnchecked);
+
+        // Then
+        assertEquals(primaryUrl, url);
+    }
+
+    @Test
+    void getConnection_ShouldEjectAReplicaThatFailsAndFallBackToThePrimary() throws SQLException {
+        // Given
+        replicateHeartbeat();
+        replicaDown.set(true);
+
+        // When
+        String url = ReplicaReads.read(this::connectedUrlUnchecked);
+
+        // Then
+        assertEquals(primaryUrl, url);
+        assertTrue(dataSource.getAvailableReplicas().isEmpty());
+    }
+
+    @Test
+    void check_ShouldReadmitAnEjectedReplicaOnceItAnswersAgain() throws SQLException {
+        // Given
+        replicateHeartbeat();
+        replicaDown.set(true);
+        dataSource.check();
+        assertTrue(dataSource.getAvailableReplicas().isEmpty());
+
+        // When
+        replicaDown.set(false);
+        replicateHeartbeat();
+
+        // Then
+        assertEquals(List.of("replica-1"), dataSource.getAvailableReplicas());
+    }
+
+    @Test
+    void bindTo_ShouldCountReplicaReadsAndFallbacks() throws SQLException {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dataSource.bindTo(registry);
+        ReplicaReads.read(this::connectedUrlUnchecked);
+        replicateHeartbeat();
+
+        // When
+        ReplicaReads.read(this::connectedUrlUnchecked);
+
+        // Then
+        assertEquals(1.0, registry.get("taskmanager.replica.reads").tag("replica", "replica-1").functionCounter().count());
+        assertEquals(1.0, registry.get("taskmanager.replica.fallbacks").functionCounter().count());
+        assertEquals(1.0, registry.get("taskmanager.replica.available").tag("replica", "replica-1").gauge().value());
+    }
+
+    // Writes a heartbeat to the primary, copies it to the replica as replication would, and checks again
+    private void replicateHeartbeat() throws SQLException {
+        dataSource.check();
+        execute(replicaUrl, "UPDATE replication_heartbeat SET beat_millis = " + clock.get() + " WHERE id = 1");
+        dataSource.check();
+    }
+
+    private String connectedUrl() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private String connectedUrlUnchecked() {
+        try {
+            return connectedUrl();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static JdbcDataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url + KEEP_OPEN);
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+    private static void execute(String url, String sql) throws SQLException {
+        try (Connection connection = h2(url).getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    // A replica that refuses connections while down is set
+    private record FailingDataSource(DataSource delegate, AtomicBoolean down) implements DataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down.get()) {
+                throw new SQLException("Connection refused");
+            }
+            return delegate.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return null;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) {
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return 0;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> type) throws SQLException {
+            throw new SQLException("Not a wrapper");
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> type) {
+            return false;
+        }
+    }
+}
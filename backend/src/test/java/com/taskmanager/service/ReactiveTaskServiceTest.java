@@ -0,0 +1,190 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskEvent;
+import com.taskmanager.model.TaskPatch;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.repository.ReactiveTaskRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveTaskServiceTest {
+
+    private static final int PAGE_SIZE = 2;
+    private static final int EVENT_BUFFER_SIZE = 3;
+
+    @Mock
+    private ReactiveTaskRepository taskRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    private ReactiveTaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+        taskService = new ReactiveTaskService(taskRepository, transactionalOperator,
+                Validation.buildDefaultValidatorFactory().getValidator(), PAGE_SIZE, EVENT_BUFFER_SIZE, 2, 3);
+    }
+
+    @Test
+    void streamTasks_ShouldReadNextPageOnlyWhenRequested() {
+        // Given
+        List<Task> tasks = tasks(5);
+        when(taskRepository.findTasks(isNull(), isNull(), isNull(), eq(PAGE_SIZE))).thenReturn(Flux.just(tasks.get(0), tasks.get(1)));
+        when(taskRepository.findTasks(eq(tasks.get(1).getId()), isNull(), isNull(), eq(PAGE_SIZE)))
+                .thenReturn(Flux.just(tasks.get(2), tasks.get(3)));
+        when(taskRepository.findTasks(eq(tasks.get(3).getId()), isNull(), isNull(), eq(PAGE_SIZE)))
+                .thenReturn(Flux.just(tasks.get(4)));
+
+        // When / Then
+        StepVerifier.create(taskService.streamTasks(null, " "), 1)
+                .expectNext(tasks.get(0))
+                .then(() -> verify(taskRepository, never()).findTasks(eq(tasks.get(3).getId()), any(), any(), any()))
+                .thenRequest(4)
+                .expectNext(tasks.get(1), tasks.get(2), tasks.get(3), tasks.get(4))
+                .verifyComplete();
+        verify(taskRepository, times(3)).findTasks(any(), isNull(), isNull(), eq(PAGE_SIZE));
+    }
+
+    @Test
+    void updateTask_WhenVersionDiffers_ShouldFailWithoutWriting() {
+        // Given
+        Task stored = tasks(1).get(0);
+        stored.setVersion(4L);
+        when(taskRepository.findByIdForUpdate(stored.getId())).thenReturn(Mono.just(stored));
+
+        // When / Then
+        StepVerifier.create(taskService.updateTask(stored.getId(), new Task("New", null, TaskStatus.DONE), 3L))
+                .expectError(TaskVersionMismatchException.class)
+                .verify();
+        verify(taskRepository, never()).update(any());
+    }
+
+    @Test
+    void patchTask_ShouldWriteMergedTaskAndPublishStatusChange() {
+        // Given
+        Task stored = tasks(1).get(0);
+        stored.setVersion(4L);
+        when(taskRepository.findByIdForUpdate(stored.getId())).thenReturn(Mono.just(stored));
+        when(taskRepository.update(any())).thenReturn(Mono.just(1L));
+        List<TaskEvent> events = new ArrayList<>();
+        taskService.events(Set.of(TaskStatus.TODO)).subscribe(events::add);
+
+        // When
+        Task patched = taskService.patchTask(stored.getId(), new TaskPatch(null, null, TaskStatus.DONE), 4L).block();
+
+        // Then
+        assertNotNull(patched);
+        assertEquals(stored.getTitle(), patched.getTitle());
+        assertEquals(TaskStatus.DONE, patched.getStatus());
+        assertEquals(5L, patched.getVersion());
+        assertEquals(1, events.size());
+        assertEquals(TaskStatus.TODO, events.get(0).previousStatus());
+        assertEquals(1L, events.get(0).sequence());
+    }
+
+    @Test
+    void events_WhenSubscriberFallsBehindItsBuffer_ShouldEndOnlyItsFeed() {
+        // Given
+        when(taskRepository.insert(any())).thenReturn(Mono.empty());
+        List<TaskEvent> fast = new ArrayList<>();
+        taskService.events(Set.of()).subscribe(fast::add);
+
+        // When / Then
+        StepVerifier.create(taskService.events(Set.of()), 0)
+                .then(() -> {
+                    for (int i = 0; i <= EVENT_BUFFER_SIZE; i++) {
+                        taskService.createTask(new Task("Task " + i, null, null)).block();
+                    }
+                })
+                .thenRequest(EVENT_BUFFER_SIZE + 1)
+                .expectNextCount(EVENT_BUFFER_SIZE)
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verify(Duration.ofSeconds(5));
+        assertEquals(EVENT_BUFFER_SIZE + 1, fast.size());
+    }
+
+    @Test
+    void importTasks_ShouldInsertValidRowsInChunksAndReportProgress() {
+        // Given
+        when(taskRepository.insertMissing(anyList())).thenAnswer(invocation -> {
+            List<Task> chunk = invocation.getArgument(0);
+            return Mono.just(chunk.subList(1, chunk.size()));
+        });
+        Flux<Task> rows = Flux.just(new Task("A", null, null), new Task(" ", null, null),
+                new Task("B", null, TaskStatus.DONE), new Task("C", null, null), new Task("D", null, null));
+        List<TaskEvent> events = new ArrayList<>();
+        taskService.events(Set.of(TaskStatus.DONE)).subscribe(events::add);
+
+        // When / Then
+        StepVerifier.create(taskService.importTasks(rows))
+                .assertNext(progress -> {
+                    assertEquals(TaskTransferService.ImportStatus.RUNNING, progress.status());
+                    assertTrue(progress.read() >= 3);
+                })
+                .assertNext(progress -> {
+                    assertEquals(TaskTransferService.ImportStatus.COMPLETED, progress.status());
+                    assertEquals(5, progress.read());
+                    assertEquals(2, progress.created());
+                    assertEquals(2, progress.existing());
+                    assertEquals(1, progress.invalid());
+                    assertEquals(List.of("Row 2: Title must not be blank"), progress.errors());
+                })
+                .verifyComplete();
+        verify(taskRepository, times(2)).insertMissing(anyList());
+        assertEquals(List.of(TaskEvent.Type.RESET, TaskEvent.Type.RESET),
+                events.stream().map(TaskEvent::type).collect(Collectors.toList()));
+    }
+
+    @Test
+    void importTasks_WhenChunkFails_ShouldEndAsFailed() {
+        // Given
+        when(taskRepository.insertMissing(anyList())).thenReturn(Mono.error(new IllegalStateException("disk full")));
+
+        // When / Then
+        StepVerifier.create(taskService.importTasks(Flux.just(new Task("A", null, null))))
+                .assertNext(progress -> {
+                    assertEquals(TaskTransferService.ImportStatus.FAILED, progress.status());
+                    assertEquals(0, progress.created());
+                    assertTrue(progress.errors().get(0).contains("disk full"));
+                })
+                .verifyComplete();
+    }
+
+    private static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = new Task("Task " + i, null, TaskStatus.TODO);
+            task.setId(new UUID(0, i + 1));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,200 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskPatch;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.repository.TaskStore;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskBatchServiceTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private TaskStore taskRepository;
+
+    @Mock
+    private TaskService taskService;
+
+    private TaskBatchService taskBatchService;
+
+    @BeforeEach
+    void setUp() {
+        taskBatchService = new TaskBatchService(
+                taskRepository, taskService, TransactionOperations.withoutTransaction(), VALIDATOR, 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createTasks_ShouldSaveValidItemsInChunksAndReportEachItem() {
+        // Given
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Task> chunk = new ArrayList<>((List<Task>) invocation.getArgument(0));
+            chunk.forEach(task -> task.setId(UUID.randomUUID()));
+            return chunk;
+        });
+        List<Task> tasks = Arrays.asList(
+                new Task("One", null, null),
+                new Task("", null, TaskStatus.TODO),
+                new Task("Two", null, TaskStatus.DONE),
+                new Task("Three", null, TaskStatus.TODO));
+
+        // When
+        List<TaskBatchService.ItemResult> results = taskBatchService.createTasks(tasks);
+
+        // Then
+        assertEquals(4, results.size());
+        assertEquals(TaskBatchService.Outcome.CREATED, results.get(0).outcome());
+        assertEquals(TaskStatus.TODO, tasks.get(0).getStatus());
+        assertEquals(TaskBatchService.Outcome.INVALID, results.get(1).outcome());
+        assertEquals("Title must not be blank", results.get(1).error());
+        assertEquals(TaskBatchService.Outcome.CREATED, results.get(2).outcome());
+        assertEquals(tasks.get(3).getId(), results.get(3).id());
+        verify(taskRepository, times(2)).saveAll(anyList());
+        verify(taskService, times(3)).afterCreate(any(Task.class));
+    }
+
+    @Test
+    void createTasks_WhenChunkFails_ShouldReportFailureAndContinue() {
+        // Given
+        when(taskRepository.saveAll(anyList()))
+                .thenThrow(new IllegalStateException("constraint violated"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        List<Task> tasks = List.of(
+                new Task("One", null, null), new Task("Two", null, null), new Task("Three", null, null));
+
+        // When
+        List<TaskBatchService.ItemResult> results = taskBatchService.createTasks(tasks);
+
+        // Then
+        assertEquals(TaskBatchService.Outcome.FAILED, results.get(0).outcome());
+        assertEquals("constraint violated", results.get(1).error());
+        assertEquals(TaskBatchService.Outcome.CREATED, results.get(2).outcome());
+    }
+
+    @Test
+    void updateTasks_ShouldApplyNonNullFieldsAndReportMissingTasks() {
+        // Given
+        Task existing = new Task("Old title", "Keep me", TaskStatus.TODO);
+        existing.setId(UUID.randomUUID());
+        UUID missingId = UUID.randomUUID();
+        when(taskRepository.findAllById(Set.of(existing.getId(), missingId))).thenReturn(List.of(existing));
+
+        TaskPatch update = new TaskPatch(existing.getId(), null, null, TaskStatus.DONE);
+        TaskPatch missing = new TaskPatch(missingId, "Anything", null, null);
+
+        // When
+        List<TaskBatchService.ItemResult> results = taskBatchService.updateTasks(List.of(update, missing));
+
+        // Then
+        assertEquals(TaskBatchService.Outcome.UPDATED, results.get(0).outcome());
+        assertEquals(TaskBatchService.Outcome.NOT_FOUND, results.get(1).outcome());
+        assertEquals("Old title", existing.getTitle());
+        assertEquals("Keep me", existing.getDescription());
+        assertEquals(TaskStatus.DONE, existing.getStatus());
+        verify(taskRepository).saveAll(List.of(existing));
+        verify(taskService).afterUpdate(existing, TaskStatus.TODO);
+    }
+
+    @Test
+    void updateTasks_WhenVersionDiffers_ShouldReportConflictAndLeaveTaskUnchanged() {
+        // Given
+        Task existing = new Task("Title", null, TaskStatus.TODO);
+        existing.setId(UUID.randomUUID());
+        existing.setVersion(5L);
+        when(taskRepository.findAllById(Set.of(existing.getId()))).thenReturn(List.of(existing));
+
+        // When
+        List<TaskBatchService.ItemResult> results = taskBatchService.updateTasks(
+                List.of(new TaskPatch(existing.getId(), null, null, TaskStatus.DONE, 4L)));
+
+        // Then
+        assertEquals(TaskBatchService.Outcome.CONFLICT, results.get(0).outcome());
+        assertEquals(TaskStatus.TODO, existing.getStatus());
+        verify(taskService, never()).afterUpdate(any(Task.class), any());
+    }
+
+    @Test
+    void updateTasks_ShouldFirstWriteQueuedWriteBehindUpdates() {
+        // Given
+        UUID id = UUID.randomUUID();
+        when(taskRepository.findAllById(Set.of(id))).thenReturn(List.of());
+
+        // When
+        taskBatchService.updateTasks(List.of(new TaskPatch(id, "Title", null, null)));
+
+        // Then
+        verify(taskService).writePending(id);
+    }
+
+    @Test
+    void replaceTasks_ShouldOverwriteAllFieldsIncludingNullDescription() {
+        // Given
+        Task existing = new Task("Old title", "Old description", TaskStatus.TODO);
+        existing.setId(UUID.randomUUID());
+        Task replacement = new Task("New title", null, TaskStatus.DONE);
+        replacement.setId(existing.getId());
+        Task deleted = new Task("Gone", null, TaskStatus.TODO);
+        deleted.setId(UUID.randomUUID());
+        when(taskRepository.findAllById(Set.of(existing.getId(), deleted.getId()))).thenReturn(List.of(existing));
+
+        // When
+        List<TaskBatchService.ItemResult> results = taskBatchService.replaceTasks(List.of(replacement, deleted));
+
+        // Then
+        assertEquals(TaskBatchService.Outcome.UPDATED, results.get(0).outcome());
+        assertEquals(TaskBatchService.Outcome.NOT_FOUND, results.get(1).outcome());
+        assertEquals("New title", existing.getTitle());
+        assertNull(existing.getDescription());
+        assertEquals(TaskStatus.DONE, existing.getStatus());
+        verify(taskService).afterUpdate(existing, TaskStatus.TODO);
+        verify(taskService, never()).writePending(any());
+    }
+
+    @Test
+    void updateTasks_WithoutId_ShouldBeInvalid() {
+        // When
+        List<TaskBatchService.ItemResult> results = taskBatchService.updateTasks(List.of(new TaskPatch("Title", null, null)));
+
+        // Then
+        assertEquals(TaskBatchService.Outcome.INVALID, results.get(0).outcome());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void deleteTasks_ShouldDeleteExistingTasksInOneStatementPerChunk() {
+        // Given
+        Task existing = new Task("Title", null, TaskStatus.IN_PROGRESS);
+        existing.setId(UUID.randomUUID());
+        UUID missingId = UUID.randomUUID();
+        when(taskRepository.findAllById(Set.of(existing.getId(), missingId))).thenReturn(List.of(existing));
+
+        // When
+        List<TaskBatchService.ItemResult> results = taskBatchService.deleteTasks(List.of(existing.getId(), missingId));
+
+        // Then
+        assertEquals(TaskBatchService.Outcome.DELETED, results.get(0).outcome());
+        assertEquals(TaskBatchService.Outcome.NOT_FOUND, results.get(1).outcome());
+        verify(taskRepository).deleteAllByIdInBatch(Set.of(existing.getId()));
+        verify(taskService).afterDelete(existing.getId(), TaskStatus.IN_PROGRESS);
+    }
+}
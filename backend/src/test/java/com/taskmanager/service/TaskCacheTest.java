@@ -0,0 +1,164 @@
+package com.taskmanager.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+
+    private TaskCache cache;
+    private Task todoTask;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TaskCache(2, Duration.ofSeconds(30), ticker, Runnable::run);
+        todoTask = task("Todo", TaskStatus.TODO);
+    }
+
+    @Test
+    void getTask_ShouldLoadOnceAndCountHitsAndMisses() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        cache.getTask(todoTask.getId(), id -> { loads.incrementAndGet(); return Optional.of(todoTask); });
+        Optional<Task> result = cache.getTask(todoTask.getId(), id -> { loads.incrementAndGet(); return Optional.of(todoTask); });
+
+        // Then
+        assertEquals(Optional.of(todoTask), result);
+        assertEquals(1, loads.get());
+        TaskCache.Stats stats = cache.stats().get("tasksById");
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    void getTask_ShouldReloadAfterTtl() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        cache.getTask(todoTask.getId(), id -> { loads.incrementAndGet(); return Optional.of(todoTask); });
+
+        // When
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        cache.getTask(todoTask.getId(), id -> { loads.incrementAndGet(); return Optional.of(todoTask); });
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void add_ShouldEvictBeyondMaximumSize() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            cache.add(task("Task " + i, TaskStatus.TODO));
+        }
+        cache.getTask(todoTask.getId(), id -> Optional.of(todoTask));
+
+        // Then
+        TaskCache.Stats stats = cache.stats().get("tasksById");
+        assertTrue(stats.size() <= 2, "size " + stats.size());
+        assertTrue(stats.evictions() > 0);
+    }
+
+    @Test
+    void add_ShouldAppendToCachedStatusListsOnly() {
+        // Given
+        cache.getTasksByStatus(TaskStatus.TODO, status -> List.of());
+
+        // When
+        cache.add(todoTask);
+        cache.add(task("Done", TaskStatus.DONE));
+
+        // Then
+        assertEquals(List.of(todoTask), cache.getTasksByStatus(TaskStatus.TODO, status -> fail("should be cached")));
+        assertEquals(1, cache.stats().get("tasksByStatus").size(), "DONE list must not be created by a patch");
+    }
+
+    @Test
+    void evict_ShouldDropTaskAndListsOfBothStatuses() {
+        // Given
+        cache.getTask(todoTask.getId(), id -> Optional.of(todoTask));
+        cache.getTasksByStatus(TaskStatus.TODO, status -> List.of(todoTask));
+        cache.getTasksByStatus(TaskStatus.DONE, status -> List.of());
+
+        // When
+        cache.evict(todoTask.getId(), TaskStatus.TODO, TaskStatus.DONE);
+
+        // Then
+        assertTrue(cache.peekTask(todoTask.getId()).isEmpty());
+        assertEquals(0, cache.stats().get("tasksByStatus").size());
+    }
+
+    @Test
+    void evict_DuringLoadOfOlderCopy_ShouldDropTheLoadedCopy() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Optional<Task>> load = executor.submit(() -> cache.getTask(todoTask.getId(), id -> {
+            loading.countDown();
+            await(release);
+            return Optional.of(todoTask);
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // When
+        Future<?> evict = executor.submit(() -> cache.evict(todoTask.getId(), TaskStatus.TODO));
+        Thread.sleep(50);
+        release.countDown();
+        load.get(5, TimeUnit.SECONDS);
+        evict.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(cache.peekTask(todoTask.getId()).isEmpty());
+        executor.shutdown();
+    }
+
+    @Test
+    void remove_WithUnknownStatus_ShouldDropAllStatusLists() {
+        // Given
+        cache.getTasksByStatus(TaskStatus.TODO, status -> List.of(todoTask));
+        cache.getTasksByStatus(TaskStatus.DONE, status -> List.of());
+
+        // When
+        cache.remove(todoTask.getId(), null);
+
+        // Then
+        assertEquals(0, cache.stats().get("tasksByStatus").size());
+        assertTrue(cache.peekTask(todoTask.getId()).isEmpty());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Task task(String title, TaskStatus status) {
+        Task task = new Task(title, null, status);
+        task.setId(UUID.randomUUID());
+        task.setVersion(0L);
+        return task;
+    }
+}
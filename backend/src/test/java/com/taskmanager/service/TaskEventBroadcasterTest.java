@@ -0,0 +1,304 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskEvent;
+import com.taskmanager.model.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEventBroadcasterTest {
+
+    private static final int BUFFER_SIZE = 10;
+    private static final int SENDERS = 4;
+
+    private TaskEventBroadcaster broadcaster;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new TaskEventBroadcaster(3, BUFFER_SIZE, Duration.ofHours(1), SENDERS);
+        task = new Task("Task", "Description", TaskStatus.TODO);
+        task.setId(UUID.randomUUID());
+        task.setVersion(0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void publish_ShouldSendEventsInOrderWithIncreasingSequence() throws Exception {
+        // Given
+        RecordingEmitter emitter = subscribe(Set.of(), null);
+
+        // When
+        broadcaster.created(task);
+        broadcaster.updated(task, TaskStatus.TODO);
+        broadcaster.deleted(task.getId(), TaskStatus.TODO);
+        broadcaster.awaitDispatch();
+
+        // Then
+        assertEquals(List.of(TaskEvent.Type.CREATED, TaskEvent.Type.UPDATED, TaskEvent.Type.DELETED),
+                emitter.events.stream().map(TaskEvent::type).collect(Collectors.toList()));
+        assertEquals(List.of(1L, 2L, 3L),
+                emitter.events.stream().map(TaskEvent::sequence).collect(Collectors.toList()));
+        assertEquals(task, emitter.events.get(0).task());
+    }
+
+    @Test
+    void updated_WithoutTask_ShouldTellSubscribersOfThePreviousStatusThatTheTaskLeftIt() throws Exception {
+        // Given
+        RecordingEmitter emitter = subscribe(Set.of(TaskStatus.DONE), null);
+
+        // When
+        broadcaster.updated(task.getId(), TaskStatus.TODO, TaskStatus.DONE);
+        broadcaster.awaitDispatch();
+
+        // Then
+        assertEquals(1, emitter.events.size());
+        TaskEvent event = emitter.events.get(0);
+        assertEquals(TaskStatus.TODO, event.status());
+        assertEquals(TaskStatus.DONE, event.previousStatus());
+        assertNull(event.task());
+    }
+
+    @Test
+    void reset_ShouldReachSubscribersOfEveryStatusAndBeReplayed() throws Exception {
+        // Given
+        RecordingEmitter filtered = subscribe(Set.of(TaskStatus.DONE), null);
+
+        // When
+        broadcaster.reset();
+        broadcaster.awaitDispatch();
+        RecordingEmitter reconnected = subscribe(Set.of(), 0L);
+        broadcaster.awaitDispatch();
+
+        // Then
+        assertEquals(List.of(TaskEvent.Type.RESET),
+                filtered.events.stream().map(TaskEvent::type).collect(Collectors.toList()));
+        assertEquals(List.of(1L),
+                reconnected.events.stream().map(TaskEvent::sequence).collect(Collectors.toList()));
+    }
+
+    @Test
+    void publish_ShouldOnlySendEventsTouchingSubscribedStatuses() throws Exception {
+        // Given
+        RecordingEmitter emitter = subscribe(Set.of(TaskStatus.DONE), null);
+        Task done = new Task("Done", null, TaskStatus.DONE);
+        done.setId(task.getId());
+
+        // When
+        broadcaster.created(task);
+        broadcaster.updated(done, TaskStatus.TODO);
+        broadcaster.updated(task.getId(), TaskStatus.TODO, TaskStatus.IN_PROGRESS);
+        broadcaster.updated(task.getId(), TaskStatus.TODO, TaskStatus.DONE);
+        broadcaster.deleted(task.getId(), TaskStatus.IN_PROGRESS);
+        broadcaster.awaitDispatch();
+
+        // Then
+        assertEquals(List.of(2L, 4L),
+                emitter.events.stream().map(TaskEvent::sequence).collect(Collectors.toList()));
+    }
+
+    @Test
+    void publish_ShouldSendCreatesAndDeletesToSubscribersOfTheirStatus() throws Exception {
+        // Given
+        RecordingEmitter emitter = subscribe(Set.of(TaskStatus.TODO), null);
+
+        // When
+        broadcaster.created(task);
+        broadcaster.deleted(task.getId(), TaskStatus.TODO);
+        broadcaster.deleted(UUID.randomUUID(), TaskStatus.DONE);
+        broadcaster.awaitDispatch();
+
+        // Then
+        assertEquals(List.of(TaskEvent.Type.CREATED, TaskEvent.Type.DELETED),
+                emitter.events.stream().map(TaskEvent::type).collect(Collectors.toList()));
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void publish_WhenSubscriberStalls_ShouldDropItWithoutHoldingUpOthers() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Connection reset");
+            }
+        };
+        broadcaster.subscribe(stalled, Set.of(), null);
+        RecordingEmitter emitter = subscribe(Set.of(), null);
+        broadcaster.created(task);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        // When: one event is being sent to the stalled client, and more than its queue holds follow,
+        // as fast as the other client takes them
+        for (int i = 0; i < BUFFER_SIZE + 1; i++) {
+            broadcaster.updated(task, TaskStatus.TODO);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (emitter.events.size() < i + 2 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+        broadcaster.awaitDispatch();
+
+        // Then
+        assertEquals(BUFFER_SIZE + 2, emitter.events.size());
+        assertEquals(1, broadcaster.getSubscriberCount());
+        release.countDown();
+    }
+
+    @Test
+    void publish_ToManySlowSubscribers_ShouldSendFromTheFixedSenderPool() throws Exception {
+        // Given: ten times as many subscribers as sender threads, each taking a while per event
+        Set<String> senderThreads = ConcurrentHashMap.newKeySet();
+        AtomicInteger sending = new AtomicInteger();
+        AtomicInteger maxSending = new AtomicInteger();
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < SENDERS * 10; i++) {
+            RecordingEmitter emitter = new RecordingEmitter() {
+                @Override
+                public void send(SseEventBuilder builder) throws IOException {
+                    senderThreads.add(Thread.currentThread().getName());
+                    maxSending.accumulateAndGet(sending.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    sending.decrementAndGet();
+                    super.send(builder);
+                }
+            };
+            broadcaster.subscribe(emitter, Set.of(), null);
+            emitters.add(emitter);
+        }
+
+        // When
+        broadcaster.created(task);
+        broadcaster.updated(task, TaskStatus.TODO);
+        broadcaster.awaitDispatch();
+
+        // Then
+        for (RecordingEmitter emitter : emitters) {
+            assertEquals(2, emitter.events.size());
+        }
+        assertEquals(SENDERS * 10, broadcaster.getSubscriberCount());
+        assertTrue(senderThreads.size() <= SENDERS, "sender threads: " + senderThreads);
+        assertTrue(maxSending.get() <= SENDERS, "concurrent sends: " + maxSending.get());
+    }
+
+    @Test
+    void constructor_WithoutReplayBuffer_ShouldFail() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> new TaskEventBroadcaster(0, BUFFER_SIZE, Duration.ofHours(1), SENDERS));
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ShouldReplayMissedEvents() throws Exception {
+        // Given
+        broadcaster.created(task);
+        broadcaster.updated(task, TaskStatus.TODO);
+        broadcaster.updated(task, TaskStatus.TODO);
+
+        // When
+        RecordingEmitter emitter = subscribe(Set.of(), 1L);
+        broadcaster.deleted(task.getId(), TaskStatus.TODO);
+        broadcaster.awaitDispatch();
+
+        // Then
+        assertFalse(emitter.reset);
+        assertEquals(List.of(2L, 3L, 4L),
+                emitter.events.stream().map(TaskEvent::sequence).collect(Collectors.toList()));
+    }
+
+    @Test
+    void subscribe_WhenMissedEventsLeftBuffer_ShouldSendReset() throws Exception {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            broadcaster.updated(task, TaskStatus.TODO);
+        }
+
+        // When
+        RecordingEmitter emitter = subscribe(Set.of(), 1L);
+        broadcaster.awaitDispatch();
+
+        // Then
+        assertTrue(emitter.reset);
+        assertEquals(List.of(3L, 4L, 5L),
+                emitter.events.stream().map(TaskEvent::sequence).collect(Collectors.toList()));
+    }
+
+    @Test
+    void publish_WhenSendFails_ShouldDropSubscriber() throws Exception {
+        // Given
+        RecordingEmitter emitter = subscribe(Set.of(), null);
+        broadcaster.awaitDispatch();
+        assertEquals(1, broadcaster.getSubscriberCount());
+        emitter.broken = true;
+
+        // When
+        broadcaster.created(task);
+        broadcaster.awaitDispatch();
+
+        // Then
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    private RecordingEmitter subscribe(Set<TaskStatus> statuses, Long lastEventId) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter, statuses, lastEventId);
+        return emitter;
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        // Written by the broadcaster's sender threads
+        private final List<TaskEvent> events = new CopyOnWriteArrayList<>();
+        private volatile boolean reset;
+        private volatile boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof TaskEvent event) {
+                    assertEquals(MediaType.APPLICATION_JSON, part.getMediaType());
+                    events.add(event);
+                } else if (part.getData().toString().contains("event:" + TaskEventBroadcaster.RESET_EVENT)) {
+                    reset = true;
+                }
+            }
+        }
+    }
+}
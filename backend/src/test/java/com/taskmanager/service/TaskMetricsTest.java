@@ -0,0 +1,51 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskMetricsTest {
+
+    private final TaskStatusCounters statusCounters = new TaskStatusCounters();
+
+    private final TaskWriteBuffer writeBuffer = new TaskWriteBuffer(true, 10);
+
+    private final TaskMetrics taskMetrics = new TaskMetrics(statusCounters, writeBuffer);
+
+    @Test
+    void bindTo_ShouldRegisterGaugePerStatusReadingCurrentCount() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        statusCounters.increment(TaskStatus.TODO);
+        statusCounters.increment(TaskStatus.DONE);
+
+        // When
+        taskMetrics.bindTo(registry);
+        statusCounters.move(TaskStatus.TODO, TaskStatus.DONE);
+
+        // Then
+        assertEquals(TaskStatus.values().length, registry.find("taskmanager.tasks").gauges().size());
+        assertEquals(0.0, registry.get("taskmanager.tasks").tag("status", "TODO").gauge().value());
+        assertEquals(2.0, registry.get("taskmanager.tasks").tag("status", "DONE").gauge().value());
+    }
+
+    @Test
+    void bindTo_ShouldRegisterGaugeReadingQueuedWriteBehindUpdates() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        taskMetrics.bindTo(registry);
+        Task task = new Task("Queued", null, TaskStatus.DONE);
+        task.setId(UUID.randomUUID());
+
+        // When
+        writeBuffer.offer(task);
+
+        // Then
+        assertEquals(1.0, registry.get("taskmanager.write.behind.queued").gauge().value());
+    }
+}
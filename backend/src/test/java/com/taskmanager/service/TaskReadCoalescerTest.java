@@ -0,0 +1,141 @@
+package com.taskmanager.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskReadCoalescerTest {
+
+    private final TaskReadCoalescer coalescer = new TaskReadCoalescer(Duration.ofMinutes(1));
+
+    @Test
+    void get_ShouldShareOneLoadBetweenConcurrentIdenticalCalls() throws Exception {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        Future<String> leader = executor.submit(() -> coalescer.get("status", List.of("DONE"), () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "result";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        List<Future<String>> followers = List.of(
+                executor.submit(() -> coalescer.get("status", List.of("DONE"), () -> "second load")),
+                executor.submit(() -> coalescer.get("status", List.of("DONE"), () -> "third load")));
+        release.countDown();
+
+        // Then
+        assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void get_WhenLoadOutlastsWindow_ShouldStillShareIt() throws Exception {
+        // Given
+        TaskReadCoalescer shortWindow = new TaskReadCoalescer(Duration.ofMillis(1));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        Future<String> leader = executor.submit(() -> shortWindow.get("status", List.of("DONE"), () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "result";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        Future<String> follower = executor.submit(() -> shortWindow.get("status", List.of("DONE"), () -> {
+            loads.incrementAndGet();
+            return "second load";
+        }));
+        Thread.sleep(50);
+        release.countDown();
+
+        // Then
+        assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void get_ShouldReuseResultWithinWindowForSameArgumentsOnly() {
+        // When
+        String first = coalescer.get("search", List.of("report"), () -> "first");
+        String repeated = coalescer.get("search", List.of("report"), () -> "repeated");
+        String other = coalescer.get("search", List.of("invoice"), () -> "other");
+
+        // Then
+        assertEquals("first", first);
+        assertEquals("first", repeated);
+        assertEquals("other", other);
+    }
+
+    @Test
+    void get_AfterInvalidate_ShouldLoadAgain() {
+        // Given
+        coalescer.get("all", List.of(), () -> "before write");
+
+        // When
+        coalescer.invalidate();
+        String result = coalescer.get("all", List.of(), () -> "after write");
+
+        // Then
+        assertEquals("after write", result);
+    }
+
+    @Test
+    void get_WhenLoadFails_ShouldNotReuseFailure() {
+        // Given
+        assertThrows(IllegalStateException.class,
+                () -> coalescer.get("all", List.of(), () -> { throw new IllegalStateException("down"); }));
+
+        // When
+        String result = coalescer.get("all", List.of(), () -> "recovered");
+
+        // Then
+        assertEquals("recovered", result);
+    }
+
+    @Test
+    void get_WithZeroWindow_ShouldAlwaysLoad() {
+        // Given
+        TaskReadCoalescer disabled = new TaskReadCoalescer(Duration.ZERO);
+        disabled.get("all", List.of(), () -> "first");
+
+        // When
+        String result = disabled.get("all", List.of(), () -> "second");
+
+        // Then
+        assertEquals("second", result);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
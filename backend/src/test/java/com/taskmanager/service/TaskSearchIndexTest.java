@@ -0,0 +1,214 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskQuery;
+import com.taskmanager.model.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSearchIndexTest {
+
+    private TaskSearchIndex index;
+
+    private final UUID deployId = UUID.randomUUID();
+    private final UUID redeployId = UUID.randomUUID();
+    private final UUID docsId = UUID.randomUUID();
+    private final UUID releaseId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex();
+        index.rebuild(List.of(
+                task(deployId, "Deploy backend", "Roll out the new API", TaskStatus.IN_PROGRESS),
+                task(redeployId, "Redeploy frontend", null, TaskStatus.TODO),
+                task(docsId, "Write docs", "Explain how to deploy", TaskStatus.TODO),
+                task(releaseId, "Cut the release", "Tag and deploy to staging", TaskStatus.IN_PROGRESS)));
+    }
+
+    @Test
+    void rebuild_ShouldMarkIndexReady() {
+        assertTrue(index.isReady());
+        assertEquals(4, index.size());
+        assertFalse(new TaskSearchIndex().isReady());
+    }
+
+    @Test
+    void search_ShouldRankTitlePrefixThenTitleMatchThenDescription() {
+        // When
+        List<UUID> ids = ids(index.search("DEPLOY", 10));
+
+        // Then
+        assertEquals(List.of(deployId, redeployId, docsId, releaseId), ids);
+    }
+
+    @Test
+    void search_ShouldRespectLimit() {
+        assertEquals(List.of(deployId, redeployId), ids(index.search("deploy", 2)));
+    }
+
+    @Test
+    void search_ShouldMatchSubstringsAcrossWordBoundaries() {
+        assertEquals(List.of(deployId), ids(index.search("oy back", 10)));
+    }
+
+    @Test
+    void search_WithShortQuery_ShouldBeRejected() {
+        assertFalse(TaskSearchIndex.isIndexed(" wr "));
+        assertTrue(TaskSearchIndex.isIndexed("wri"));
+        assertThrows(IllegalArgumentException.class, () -> index.search("wr", 10));
+    }
+
+    @Test
+    void search_WithNoMatchingGram_ShouldReturnEmpty() {
+        assertTrue(index.search("kubernetes", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void put_ShouldReplacePreviousText() {
+        // When
+        index.put(deployId, "Provision database", null, TaskStatus.IN_PROGRESS);
+
+        // Then
+        assertFalse(ids(index.search("deploy", 10)).contains(deployId));
+        assertEquals(List.of(deployId), ids(index.search("provision", 10)));
+    }
+
+    @Test
+    void remove_ShouldDropTaskFromResults() {
+        // When
+        index.remove(redeployId);
+
+        // Then
+        assertEquals(List.of(deployId, docsId, releaseId), ids(index.search("deploy", 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void put_AfterRemove_ShouldReuseTheDocumentIdForTheNewTaskOnly() {
+        // Given
+        UUID planId = UUID.randomUUID();
+        index.remove(redeployId);
+
+        // When
+        index.put(task(planId, "Plan the deploy window", null, TaskStatus.TODO));
+
+        // Then
+        assertEquals(List.of(deployId, planId, docsId, releaseId), ids(index.search("deploy", 10)));
+        assertTrue(index.search("frontend", 10).isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void postings_ShouldTakeAboutFourBytesPerTrigramOfEachTask() {
+        // Given: 90 characters of text per task, drawn from a vocabulary
+        String[] words = {"deploy", "backend", "release", "review", "staging", "schema", "migrate", "invoice",
+                "customer", "report", "dashboard", "latency", "cache", "index", "search", "export"};
+        Random random = new Random(42);
+        TaskSearchIndex large = new TaskSearchIndex();
+        int rows = 10_000;
+        long grams = 0;
+        for (int i = 0; i < rows; i++) {
+            String title = text(words, random, 30);
+            String description = text(words, random, 60);
+            large.put(task(UUID.randomUUID(), title, description, TaskStatus.TODO));
+            grams += distinctGrams(title + "\n" + description);
+        }
+
+        // Then: 4 bytes per distinct trigram and task, plus at most half again as much slack
+        long bytes = large.postingBytes();
+        assertTrue(bytes >= grams * Integer.BYTES, bytes + " bytes for " + grams + " trigrams");
+        assertTrue(bytes <= grams * Integer.BYTES * 3 / 2, bytes + " bytes for " + grams + " trigrams");
+        assertTrue(bytes / rows < 512, (bytes / rows) + " bytes per task");
+    }
+
+    @Test
+    void search_WithStatuses_ShouldOnlyReturnTasksInThem() {
+        // When
+        List<UUID> ids = ids(index.search(query(Set.of(TaskStatus.IN_PROGRESS), TaskQuery.Sort.RELEVANCE, 10)));
+
+        // Then
+        assertEquals(List.of(deployId, releaseId), ids);
+    }
+
+    @Test
+    void search_ByTitle_ShouldOrderMatchesByTitleAndApplyLimitAfterOrdering() {
+        // When
+        List<UUID> ids = ids(index.search(query(Set.of(), TaskQuery.Sort.TITLE, 3)));
+
+        // Then
+        assertEquals(List.of(releaseId, deployId, redeployId), ids);
+    }
+
+    @Test
+    void search_ById_ShouldOrderMatchesById() {
+        // When
+        List<UUID> ids = ids(index.search(query(Set.of(TaskStatus.TODO), TaskQuery.Sort.ID, 10)));
+
+        // Then
+        assertEquals(List.of(redeployId, docsId).stream().sorted().toList(), ids);
+    }
+
+    @Test
+    void patch_ShouldMoveTaskToNewStatus() {
+        // When
+        index.patch(docsId, null, null, TaskStatus.IN_PROGRESS);
+
+        // Then
+        assertEquals(List.of(deployId, docsId, releaseId),
+                ids(index.search(query(Set.of(TaskStatus.IN_PROGRESS), TaskQuery.Sort.RELEVANCE, 10))));
+        assertEquals(List.of(docsId), ids(index.search("explain", 10)));
+    }
+
+    @Test
+    void plan_ShouldCountCandidatesAndMatchesInStatuses() {
+        // When
+        TaskSearchIndex.Plan plan = index.plan(query(Set.of(TaskStatus.TODO), TaskQuery.Sort.RELEVANCE, 1));
+
+        // Then
+        assertEquals(new TaskSearchIndex.Plan(4, 2), plan);
+    }
+
+    private static TaskQuery query(Set<TaskStatus> statuses, TaskQuery.Sort sort, int limit) {
+        return new TaskQuery(statuses, "deploy", sort, limit);
+    }
+
+    private static Task task(UUID id, String title, String description, TaskStatus status) {
+        Task task = new Task(title, description, status);
+        task.setId(id);
+        return task;
+    }
+
+    private static String text(String[] words, Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < length) {
+            text.append(words[random.nextInt(words.length)]).append(' ');
+        }
+        return text.substring(0, length);
+    }
+
+    // Trigrams of the title and the description, without those spanning the two
+    private static int distinctGrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + TaskSearchIndex.GRAM <= text.length(); i++) {
+            String gram = text.substring(i, i + TaskSearchIndex.GRAM);
+            if (gram.indexOf('\n') < 0) {
+                grams.add(gram);
+            }
+        }
+        return grams.size();
+    }
+
+    private static List<UUID> ids(List<TaskSearchIndex.Hit> hits) {
+        return hits.stream().map(TaskSearchIndex.Hit::id).collect(Collectors.toList());
+    }
+}
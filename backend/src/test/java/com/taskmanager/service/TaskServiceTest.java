@@ -1,29 +1,65 @@
 package com.taskmanager.service;
 
 import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskField;
+import com.taskmanager.model.TaskPatch;
+import com.taskmanager.model.TaskQuery;
+import com.taskmanager.model.TaskQueryPlan;
 import com.taskmanager.model.TaskStatus;
-import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.model.TaskView;
+import com.taskmanager.repository.ReplicaReads;
+import com.taskmanager.repository.TaskStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class TaskServiceTest {
 
     @Mock
-    private TaskRepository taskRepository;
+    private TaskStore taskRepository;
+
+    @Spy
+    private TaskSearchIndex searchIndex = new TaskSearchIndex();
+
+    @Spy
+    private TaskCache taskCache = new TaskCache(100, Duration.ofMinutes(5));
+
+    @Mock
+    private TaskEventBroadcaster eventBroadcaster;
+
+    @Spy
+    private TaskStatusCounters statusCounters = new TaskStatusCounters();
+
+    @Spy
+    private TaskWriteBuffer writeBuffer = new TaskWriteBuffer(true, 1);
+
+    @Spy
+    private TaskReadCoalescer readCoalescer = new TaskReadCoalescer(Duration.ofMinutes(1));
 
     @InjectMocks
     private TaskService taskService;
@@ -36,6 +72,7 @@ class TaskServiceTest {
         taskId = UUID.randomUUID();
         sampleTask = new Task("Test Task", "Test Description", TaskStatus.TODO);
         sampleTask.setId(taskId);
+        sampleTask.setVersion(0L);
     }
 
     @Test
@@ -52,6 +89,68 @@ class TaskServiceTest {
         verify(taskRepository, times(1)).findAll();
     }
 
+    @Test
+    void getAllTasks_ShouldNotShareAReplicaReadWithAReadPinnedToThePrimary() {
+        // Given
+        when(taskRepository.findAll()).thenReturn(List.of(sampleTask));
+        taskService.getAllTasks();
+
+        // When
+        ReplicaReads.pinToPrimary();
+        try {
+            taskService.getAllTasks();
+            taskService.getAllTasks();
+        } finally {
+            ReplicaReads.unpin();
+        }
+
+        // Then
+        verify(taskRepository, times(2)).findAll();
+    }
+
+    @Test
+    void getTasksPage_ShouldPassCursorFiltersAndLimitToRepository() {
+        // Given
+        UUID after = UUID.randomUUID();
+        List<Task> expectedTasks = Arrays.asList(sampleTask);
+        when(taskRepository.findPage(after, TaskStatus.TODO, "Test", Limit.of(50))).thenReturn(expectedTasks);
+
+        // When
+        List<Task> result = taskService.getTasksPage(after, TaskStatus.TODO, "  Test ", 50);
+
+        // Then
+        assertEquals(expectedTasks, result);
+    }
+
+    @Test
+    void getTasksPage_WithBlankSearch_ShouldNotFilterByTitle() {
+        // Given
+        when(taskRepository.findPage(null, null, null, Limit.of(10))).thenReturn(List.of());
+
+        // When
+        List<Task> result = taskService.getTasksPage(null, null, "   ", 10);
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(taskRepository, times(1)).findPage(null, null, null, Limit.of(10));
+    }
+
+    @Test
+    void streamTasks_ShouldPassEveryTaskToConsumerAndCloseStream() {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(taskRepository.streamTasks(TaskStatus.TODO, null))
+                .thenReturn(Stream.of(sampleTask).onClose(() -> closed.set(true)));
+        List<Task> received = new ArrayList<>();
+
+        // When
+        taskService.streamTasks(TaskStatus.TODO, null, received::add);
+
+        // Then
+        assertEquals(List.of(sampleTask), received);
+        assertTrue(closed.get());
+    }
+
     @Test
     void getTaskById_WhenTaskExists_ShouldReturnTask() {
         // Given
@@ -95,71 +194,349 @@ class TaskServiceTest {
         assertNotNull(result);
         assertEquals(TaskStatus.TODO, newTask.getStatus()); // Should set default status
         verify(taskRepository, times(1)).save(newTask);
+        verify(searchIndex, times(1)).put(savedTask);
+        verify(eventBroadcaster, times(1)).created(savedTask);
     }
 
     @Test
-    void updateTask_WhenTaskExists_ShouldUpdateAndReturnTask() {
+    void updateTask_WhenTaskExists_ShouldUpdateInOneStatementAndReturnTask() {
         // Given
         Task updateData = new Task("Updated Title", "Updated Description", TaskStatus.IN_PROGRESS);
-        Task existingTask = new Task("Old Title", "Old Description", TaskStatus.TODO);
-        existingTask.setId(taskId);
-        
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(existingTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(existingTask);
+        when(taskRepository.updateTask(taskId, "Updated Title", "Updated Description", TaskStatus.IN_PROGRESS,
+                null)).thenReturn(Optional.of(TaskStatus.TODO));
 
         // When
         Optional<Task> result = taskService.updateTask(taskId, updateData);
 
         // Then
         assertTrue(result.isPresent());
-        assertEquals("Updated Title", existingTask.getTitle());
-        assertEquals("Updated Description", existingTask.getDescription());
-        assertEquals(TaskStatus.IN_PROGRESS, existingTask.getStatus());
-        verify(taskRepository, times(1)).findById(taskId);
-        verify(taskRepository, times(1)).save(existingTask);
+        assertEquals(taskId, result.get().getId());
+        assertEquals("Updated Title", result.get().getTitle());
+        assertEquals("Updated Description", result.get().getDescription());
+        assertEquals(TaskStatus.IN_PROGRESS, result.get().getStatus());
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).existsById(any());
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(statusCounters, times(1)).move(TaskStatus.TODO, TaskStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void updateTask_WhenCachedStatusIsStale_ShouldMoveCountersFromStatusTheWriteReplaced() {
+        // Given
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(sampleTask));
+        taskService.getTaskById(taskId);
+        Task updateData = new Task("Updated Title", null, TaskStatus.DONE);
+        when(taskRepository.updateTask(taskId, "Updated Title", null, TaskStatus.DONE, null))
+                .thenReturn(Optional.of(TaskStatus.IN_PROGRESS));
+
+        // When
+        Optional<Task> result = taskService.updateTask(taskId, updateData);
+
+        // Then
+        assertTrue(result.isPresent());
+        verify(statusCounters, times(1)).move(TaskStatus.IN_PROGRESS, TaskStatus.DONE);
+        verify(statusCounters, never()).move(eq(TaskStatus.TODO), any());
     }
 
     @Test
     void updateTask_WhenTaskNotExists_ShouldReturnEmpty() {
         // Given
         Task updateData = new Task("Updated Title", "Updated Description", TaskStatus.IN_PROGRESS);
-        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskRepository.updateTask(taskId, "Updated Title", "Updated Description", TaskStatus.IN_PROGRESS,
+                null)).thenReturn(Optional.empty());
 
         // When
         Optional<Task> result = taskService.updateTask(taskId, updateData);
 
         // Then
         assertFalse(result.isPresent());
-        verify(taskRepository, times(1)).findById(taskId);
-        verify(taskRepository, never()).save(any(Task.class));
+        verify(statusCounters, never()).move(any(), any());
+        verify(searchIndex, never()).put(any(Task.class));
     }
 
     @Test
-    void deleteTask_WhenTaskExists_ShouldReturnTrue() {
+    void updateTask_WithExpectedVersion_ShouldReturnNextVersion() {
+        // Given
+        Task updateData = new Task("Updated Title", null, TaskStatus.DONE);
+        when(taskRepository.updateTask(taskId, "Updated Title", null, TaskStatus.DONE, 3L))
+                .thenReturn(Optional.of(TaskStatus.TODO));
+
+        // When
+        Optional<Task> result = taskService.updateTask(taskId, updateData, 3L);
+
+        // Then
+        assertEquals(4L, result.orElseThrow().getVersion());
+        verify(taskRepository, never()).existsById(taskId);
+    }
+
+    @Test
+    void updateTask_WhenVersionDiffers_ShouldThrowMismatch() {
+        // Given
+        Task updateData = new Task("Updated Title", null, TaskStatus.DONE);
+        when(taskRepository.updateTask(taskId, "Updated Title", null, TaskStatus.DONE, 3L))
+                .thenReturn(Optional.empty());
+        when(taskRepository.existsById(taskId)).thenReturn(true);
+
+        // When & Then
+        assertThrows(TaskVersionMismatchException.class, () -> taskService.updateTask(taskId, updateData, 3L));
+        verify(searchIndex, never()).put(any(Task.class));
+        verify(statusCounters, never()).move(any(), any());
+    }
+
+    @Test
+    void updateTask_WithExpectedVersionWhenTaskNotExists_ShouldReturnEmpty() {
+        // Given
+        Task updateData = new Task("Updated Title", null, TaskStatus.DONE);
+        when(taskRepository.updateTask(taskId, "Updated Title", null, TaskStatus.DONE, 3L))
+                .thenReturn(Optional.empty());
+
+        // When
+        Optional<Task> result = taskService.updateTask(taskId, updateData, 3L);
+
+        // Then
+        assertFalse(result.isPresent());
+    }
+
+    @Test
+    void updateTask_WithoutExpectedVersion_ShouldEvictCachedTaskSoVersionIsReloaded() {
+        // Given
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(sampleTask));
+        taskService.getTaskById(taskId);
+        when(taskRepository.updateTask(taskId, "Updated Title", null, TaskStatus.DONE, null))
+                .thenReturn(Optional.of(TaskStatus.TODO));
+
+        // When
+        taskService.updateTask(taskId, new Task("Updated Title", null, TaskStatus.DONE));
+        taskService.getTaskById(taskId);
+
+        // Then
+        verify(taskRepository, times(2)).findById(taskId);
+    }
+
+    @Test
+    void patchTask_WhenVersionDiffers_ShouldThrowMismatch() {
+        // Given
+        when(taskRepository.patchTask(taskId, null, null, TaskStatus.DONE, 2L)).thenReturn(Optional.empty());
+        when(taskRepository.existsById(taskId)).thenReturn(true);
+
+        // When & Then
+        assertThrows(TaskVersionMismatchException.class,
+                () -> taskService.patchTask(taskId, new TaskPatch(null, null, TaskStatus.DONE), 2L));
+    }
+
+    @Test
+    void patchTask_ShouldUpdateOnlyGivenFieldsAndMoveCountersFromPreviousStatus() {
+        // Given
+        when(taskRepository.patchTask(taskId, null, null, TaskStatus.DONE, null)).thenReturn(Optional.of(TaskStatus.TODO));
+
+        // When
+        boolean result = taskService.patchTask(taskId, new TaskPatch(null, null, TaskStatus.DONE));
+
+        // Then
+        assertTrue(result);
+        verify(taskRepository, times(1)).patchTask(taskId, null, null, TaskStatus.DONE, null);
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).existsById(any());
+        verify(statusCounters, times(1)).move(TaskStatus.TODO, TaskStatus.DONE);
+    }
+
+    @Test
+    void patchTask_WithoutStatus_ShouldNotTouchCounters() {
+        // Given
+        when(taskRepository.patchTask(taskId, "Title", null, null, null)).thenReturn(Optional.of(TaskStatus.TODO));
+
+        // When
+        boolean result = taskService.patchTask(taskId, new TaskPatch("Title", null, null));
+
+        // Then
+        assertTrue(result);
+        verify(statusCounters, never()).move(any(), any());
+    }
+
+    @Test
+    void patchTask_WhenTaskNotExists_ShouldReturnFalse() {
+        // Given
+        when(taskRepository.patchTask(taskId, "Title", null, null, null)).thenReturn(Optional.empty());
+
+        // When
+        boolean result = taskService.patchTask(taskId, new TaskPatch("Title", null, null));
+
+        // Then
+        assertFalse(result);
+    }
+
+    @Test
+    void patchTask_ShouldEvictCachedTaskAndPublishItMerged() {
+        // Given
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(sampleTask));
+        when(taskRepository.findByStatus(TaskStatus.TODO)).thenReturn(List.of(sampleTask));
+        taskService.getTaskById(taskId);
+        taskService.getTasksByStatus(TaskStatus.TODO);
+        searchIndex.rebuild(List.of(sampleTask));
+        when(taskRepository.patchTask(taskId, "Renamed", null, TaskStatus.DONE, 0L)).thenReturn(Optional.of(TaskStatus.TODO));
+
+        // When
+        taskService.patchTask(taskId, new TaskPatch("Renamed", null, TaskStatus.DONE), 0L);
+
+        // Then
+        ArgumentCaptor<Task> published = ArgumentCaptor.forClass(Task.class);
+        verify(eventBroadcaster, times(1)).updated(published.capture(), eq(TaskStatus.TODO));
+        assertEquals("Renamed", published.getValue().getTitle());
+        assertEquals("Test Description", published.getValue().getDescription());
+        assertEquals(TaskStatus.DONE, published.getValue().getStatus());
+        assertEquals(1L, published.getValue().getVersion());
+        assertEquals(1, searchIndex.search("renamed", 10).size());
+        taskService.getTaskById(taskId);
+        taskService.getTasksByStatus(TaskStatus.TODO);
+        verify(taskRepository, times(2)).findById(taskId);
+        verify(taskRepository, times(2)).findByStatus(TaskStatus.TODO);
+    }
+
+    @Test
+    void patchTask_WhenNotCached_ShouldInvalidateTargetStatusList() {
+        // Given
+        when(taskRepository.findByStatus(TaskStatus.DONE)).thenReturn(List.of());
+        taskService.getTasksByStatus(TaskStatus.DONE);
+        when(taskRepository.patchTask(taskId, null, null, TaskStatus.DONE, null)).thenReturn(Optional.of(TaskStatus.TODO));
+
+        // When
+        taskService.patchTask(taskId, new TaskPatch(null, null, TaskStatus.DONE));
+
+        // Then
+        taskService.getTasksByStatus(TaskStatus.DONE);
+        verify(taskRepository, times(2)).findByStatus(TaskStatus.DONE);
+        verify(eventBroadcaster, times(1)).updated(taskId, TaskStatus.DONE, TaskStatus.TODO);
+    }
+
+    @Test
+    void patchTask_WhenCachedStatusIsStale_ShouldEvictCachedCopiesAndPublishStoredPreviousStatus() {
+        // Given
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(sampleTask));
+        when(taskRepository.findByStatus(TaskStatus.TODO)).thenReturn(List.of(sampleTask));
+        taskService.getTaskById(taskId);
+        taskService.getTasksByStatus(TaskStatus.TODO);
+        when(taskRepository.patchTask(taskId, "Renamed", null, TaskStatus.DONE, null))
+                .thenReturn(Optional.of(TaskStatus.IN_PROGRESS));
+
+        // When
+        taskService.patchTask(taskId, new TaskPatch("Renamed", null, TaskStatus.DONE));
+
+        // Then
+        taskService.getTaskById(taskId);
+        taskService.getTasksByStatus(TaskStatus.TODO);
+        verify(taskRepository, times(2)).findById(taskId);
+        verify(taskRepository, times(2)).findByStatus(TaskStatus.TODO);
+        verify(taskCache, times(1)).evict(taskId, TaskStatus.IN_PROGRESS, TaskStatus.DONE);
+        verify(statusCounters, times(1)).move(TaskStatus.IN_PROGRESS, TaskStatus.DONE);
+        verify(eventBroadcaster, times(1)).updated(taskId, TaskStatus.DONE, TaskStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void updateTaskLater_ShouldQueueUpdateAndServeItFromGetTaskById() {
         // Given
         when(taskRepository.existsById(taskId)).thenReturn(true);
 
+        // When
+        Optional<Task> queued = taskService.updateTaskLater(taskId, new Task("Queued", null, TaskStatus.DONE));
+        Optional<Task> read = taskService.getTaskById(taskId);
+
+        // Then
+        assertTrue(queued.isPresent());
+        assertNull(queued.get().getVersion());
+        assertEquals("Queued", read.orElseThrow().getTitle());
+        assertEquals(TaskStatus.DONE, read.get().getStatus());
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).updateTask(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void updateTaskLater_WhenTaskNotExists_ShouldReturnEmptyAndQueueNothing() {
+        // Given
+        when(taskRepository.existsById(taskId)).thenReturn(false);
+
+        // When
+        Optional<Task> result = taskService.updateTaskLater(taskId, new Task("Queued", null, TaskStatus.DONE));
+
+        // Then
+        assertTrue(result.isEmpty());
+        assertEquals(0, writeBuffer.size());
+    }
+
+    @Test
+    void updateTaskLater_WhenQueueFull_ShouldThrow() {
+        // Given
+        UUID otherId = UUID.randomUUID();
+        when(taskRepository.existsById(any())).thenReturn(true);
+        taskService.updateTaskLater(otherId, new Task("First", null, TaskStatus.DONE));
+
+        // When / Then
+        assertThrows(TaskWriteBufferFullException.class,
+                () -> taskService.updateTaskLater(taskId, new Task("Second", null, TaskStatus.DONE)));
+    }
+
+    @Test
+    void patchTask_WhenUpdateQueued_ShouldWriteQueuedUpdateFirst() {
+        // Given
+        when(taskRepository.existsById(taskId)).thenReturn(true);
+        taskService.updateTaskLater(taskId, new Task("Queued", null, TaskStatus.DONE));
+        when(taskRepository.updateTask(taskId, "Queued", null, TaskStatus.DONE, null)).thenReturn(Optional.of(TaskStatus.TODO));
+        when(taskRepository.patchTask(taskId, "Patched", null, null, null)).thenReturn(Optional.of(TaskStatus.DONE));
+
+        // When
+        taskService.patchTask(taskId, new TaskPatch("Patched", null, null));
+
+        // Then
+        InOrder inOrder = inOrder(taskRepository);
+        inOrder.verify(taskRepository).updateTask(taskId, "Queued", null, TaskStatus.DONE, null);
+        inOrder.verify(taskRepository).patchTask(taskId, "Patched", null, null, null);
+        assertEquals(0, writeBuffer.size());
+    }
+
+    @Test
+    void deleteTask_WhenUpdateQueued_ShouldDiscardIt() {
+        // Given
+        when(taskRepository.existsById(taskId)).thenReturn(true);
+        taskService.updateTaskLater(taskId, new Task("Queued", null, TaskStatus.DONE));
+        when(taskRepository.deleteTaskById(taskId)).thenReturn(Optional.of(TaskStatus.TODO));
+
+        // When
+        boolean deleted = taskService.deleteTask(taskId);
+
+        // Then
+        assertTrue(deleted);
+        assertTrue(writeBuffer.peek(taskId).isEmpty());
+        verify(taskRepository, never()).updateTask(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void deleteTask_WhenTaskExists_ShouldReturnTrue() {
+        // Given
+        when(taskRepository.deleteTaskById(taskId)).thenReturn(Optional.of(TaskStatus.TODO));
+
         // When
         boolean result = taskService.deleteTask(taskId);
 
         // Then
         assertTrue(result);
-        verify(taskRepository, times(1)).existsById(taskId);
-        verify(taskRepository, times(1)).deleteById(taskId);
+        verify(taskRepository, times(1)).deleteTaskById(taskId);
+        verify(taskRepository, never()).existsById(taskId);
+        verify(searchIndex, times(1)).remove(taskId);
+        verify(statusCounters, times(1)).decrement(TaskStatus.TODO);
+        verify(eventBroadcaster, times(1)).deleted(taskId, TaskStatus.TODO);
     }
 
     @Test
     void deleteTask_WhenTaskNotExists_ShouldReturnFalse() {
         // Given
-        when(taskRepository.existsById(taskId)).thenReturn(false);
+        when(taskRepository.deleteTaskById(taskId)).thenReturn(Optional.empty());
 
         // When
         boolean result = taskService.deleteTask(taskId);
 
         // Then
         assertFalse(result);
-        verify(taskRepository, times(1)).existsById(taskId);
-        verify(taskRepository, never()).deleteById(taskId);
+        verify(searchIndex, never()).remove(taskId);
+        verifyNoInteractions(eventBroadcaster);
     }
 
     @Test
@@ -190,4 +567,363 @@ class TaskServiceTest {
         assertEquals(expectedTasks, result);
         verify(taskRepository, times(1)).findByTitleContainingIgnoreCase(searchTerm);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void searchTasks_WhenIndexReady_ShouldReturnTasksInRankedOrder() {
+        // Given
+        Task descriptionMatch = new Task("Write docs", "How to test", TaskStatus.TODO);
+        descriptionMatch.setId(UUID.randomUUID());
+        searchIndex.rebuild(List.of(sampleTask, descriptionMatch));
+        when(taskRepository.findAllById(List.of(taskId, descriptionMatch.getId())))
+                .thenReturn(List.of(descriptionMatch, sampleTask));
+
+        // When
+        List<Task> result = taskService.searchTasks("test", 10);
+
+        // Then
+        assertEquals(List.of(sampleTask, descriptionMatch), result);
+        verify(taskRepository, never()).findByTitleContainingIgnoreCase(any());
+    }
+
+    @Test
+    void searchTasks_WithQueryShorterThanTrigram_ShouldRankInDatabase() {
+        // Given
+        searchIndex.rebuild(List.of(sampleTask));
+        TaskQuery query = new TaskQuery(null, "te", TaskQuery.Sort.RELEVANCE, 10);
+        when(taskRepository.findByQuery(query)).thenReturn(List.of(sampleTask));
+
+        // When
+        List<Task> result = taskService.searchTasks("te", 10);
+
+        // Then
+        assertEquals(List.of(sampleTask), result);
+        verify(searchIndex, never()).search(any(), anyInt());
+        verify(taskRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void queryTasks_WithTextShorterThanTrigram_ShouldRunRepositoryQuery() {
+        // Given
+        searchIndex.rebuild(List.of(sampleTask));
+        TaskQuery query = new TaskQuery(Set.of(TaskStatus.TODO), "te", TaskQuery.Sort.RELEVANCE, 10);
+        when(taskRepository.findByQuery(query)).thenReturn(List.of(sampleTask));
+
+        // When
+        List<Task> result = taskService.queryTasks(query);
+
+        // Then
+        assertEquals(List.of(sampleTask), result);
+        verify(searchIndex, never()).search(any(TaskQuery.class));
+    }
+
+    @Test
+    void searchTasks_ShouldShareResultOfIdenticalSearchUntilNextWrite() {
+        // Given
+        searchIndex.rebuild(List.of(sampleTask));
+        when(taskRepository.findAllById(List.of(taskId))).thenReturn(List.of(sampleTask));
+        Task created = new Task("Unrelated", null, TaskStatus.TODO);
+        created.setId(UUID.randomUUID());
+        when(taskRepository.save(created)).thenReturn(created);
+
+        // When
+        List<Task> first = taskService.searchTasks("test", 10);
+        List<Task> repeated = taskService.searchTasks("test", 10);
+        taskService.createTask(created);
+        taskService.searchTasks("test", 10);
+
+        // Then
+        assertSame(first, repeated);
+        verify(taskRepository, times(2)).findAllById(List.of(taskId));
+    }
+
+    @Test
+    void queryTasks_WithText_ShouldLoadOnlyMatchingTasksOfTheStatuses() {
+        // Given
+        Task inProgress = new Task("Test deploy", null, TaskStatus.IN_PROGRESS);
+        inProgress.setId(UUID.randomUUID());
+        searchIndex.rebuild(List.of(sampleTask, inProgress));
+        when(taskRepository.findAllById(List.of(inProgress.getId()))).thenReturn(List.of(inProgress));
+
+        // When
+        List<Task> result = taskService.queryTasks(
+                new TaskQuery(Set.of(TaskStatus.IN_PROGRESS), "test", TaskQuery.Sort.RELEVANCE, 10));
+
+        // Then
+        assertEquals(List.of(inProgress), result);
+        verify(taskRepository, never()).findByQuery(any());
+        verify(taskRepository, never()).findByStatus(any());
+    }
+
+    @Test
+    void queryTasks_WithoutText_ShouldRunOneRepositoryQuery() {
+        // Given
+        searchIndex.rebuild(List.of(sampleTask));
+        TaskQuery query = new TaskQuery(Set.of(TaskStatus.TODO, TaskStatus.DONE), null, TaskQuery.Sort.TITLE, 10);
+        when(taskRepository.findByQuery(query)).thenReturn(List.of(sampleTask));
+
+        // When
+        List<Task> result = taskService.queryTasks(query);
+
+        // Then
+        assertEquals(List.of(sampleTask), result);
+    }
+
+    @Test
+    void queryTasks_BeforeIndexIsBuilt_ShouldRunRepositoryQuery() {
+        // Given
+        TaskQuery query = new TaskQuery(Set.of(TaskStatus.TODO), "test", TaskQuery.Sort.RELEVANCE, 10);
+        when(taskRepository.findByQuery(query)).thenReturn(List.of(sampleTask));
+
+        // When
+        List<Task> result = taskService.queryTasks(query);
+
+        // Then
+        assertEquals(List.of(sampleTask), result);
+    }
+
+    @Test
+    void explainQuery_WithText_ShouldReportSearchIndexCounts() {
+        // Given
+        Task done = new Task("Test release", null, TaskStatus.DONE);
+        done.setId(UUID.randomUUID());
+        searchIndex.rebuild(List.of(sampleTask, done));
+
+        // When
+        TaskQueryPlan plan = taskService.explainQuery(
+                new TaskQuery(Set.of(TaskStatus.DONE), "test", TaskQuery.Sort.RELEVANCE, 10));
+
+        // Then
+        assertEquals(TaskQueryPlan.SEARCH_INDEX, plan.source());
+        assertEquals(2, plan.rowsScanned());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void getTaskViews_WithStatusAndSearch_ShouldCombineBothFilters() {
+        // Given
+        Task done = new Task("Test release", null, TaskStatus.DONE);
+        done.setId(UUID.randomUUID());
+        searchIndex.rebuild(List.of(sampleTask, done));
+        Set<TaskField> fields = EnumSet.of(TaskField.ID);
+        TaskView view = new TaskView(done.getId(), null, null, null, null);
+        when(taskRepository.findViewsById(fields, List.of(done.getId()))).thenReturn(List.of(view));
+
+        // When
+        List<TaskView> result = taskService.getTaskViews(fields, TaskStatus.DONE, "test");
+
+        // Then
+        assertEquals(List.of(view), result);
+    }
+
+    @Test
+    void getTaskViews_WithStatus_ShouldQueryOnlySelectedColumns() {
+        // Given
+        Set<TaskField> fields = EnumSet.of(TaskField.ID, TaskField.TITLE);
+        TaskView view = new TaskView(taskId, "Test Task", null, null, null);
+        when(taskRepository.findViews(fields, null, TaskStatus.TODO, null, null)).thenReturn(List.of(view));
+
+        // When
+        List<TaskView> result = taskService.getTaskViews(fields, TaskStatus.TODO, null);
+
+        // Then
+        assertEquals(List.of(view), result);
+        verify(taskRepository, never()).findByStatus(any());
+    }
+
+    @Test
+    void getTaskViews_WithSearch_ShouldReturnViewsInRankedOrder() {
+        // Given
+        Task descriptionMatch = new Task("Write docs", "How to test", TaskStatus.TODO);
+        descriptionMatch.setId(UUID.randomUUID());
+        searchIndex.rebuild(List.of(sampleTask, descriptionMatch));
+        Set<TaskField> fields = EnumSet.of(TaskField.ID, TaskField.STATUS);
+        TaskView first = new TaskView(taskId, null, null, TaskStatus.TODO, null);
+        TaskView second = new TaskView(descriptionMatch.getId(), null, null, TaskStatus.TODO, null);
+        when(taskRepository.findViewsById(fields, List.of(taskId, descriptionMatch.getId())))
+                .thenReturn(List.of(second, first));
+
+        // When
+        List<TaskView> result = taskService.getTaskViews(fields, null, "test");
+
+        // Then
+        assertEquals(List.of(first, second), result);
+        verify(taskRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void getTaskViewsPage_ShouldAlwaysSelectIdForTheCursor() {
+        // Given
+        when(taskRepository.findViews(EnumSet.of(TaskField.ID, TaskField.TITLE), taskId, null, "Test", 50))
+                .thenReturn(List.of());
+
+        // When
+        List<TaskView> result = taskService.getTaskViewsPage(EnumSet.of(TaskField.TITLE), taskId, null, " Test ", 50);
+
+        // Then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void searchTasks_WhenNothingMatches_ShouldNotQueryRepository() {
+        // Given
+        searchIndex.rebuild(List.of(sampleTask));
+
+        // When
+        List<Task> result = taskService.searchTasks("missing", 10);
+
+        // Then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void rebuildSearchIndex_ShouldIndexAllTasksFromRepository() {
+        // Given
+        when(taskRepository.streamTasks(null, null)).thenReturn(Stream.of(sampleTask));
+
+        // When
+        taskService.rebuildSearchIndex();
+
+        // Then
+        assertTrue(searchIndex.isReady());
+        assertEquals(1, searchIndex.size());
+    }
+
+    @Test
+    void getTaskById_ShouldServeRepeatedReadsFromCache() {
+        // Given
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(sampleTask));
+
+        // When
+        taskService.getTaskById(taskId);
+        Optional<Task> result = taskService.getTaskById(taskId);
+
+        // Then
+        assertEquals(Optional.of(sampleTask), result);
+        verify(taskRepository, times(1)).findById(taskId);
+        assertEquals(1, taskService.getCacheStats().get("tasksById").hits());
+    }
+
+    @Test
+    void getTaskById_WhenTaskNotExists_ShouldNotCacheMiss() {
+        // Given
+        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+
+        // When
+        taskService.getTaskById(taskId);
+        taskService.getTaskById(taskId);
+
+        // Then
+        verify(taskRepository, times(2)).findById(taskId);
+    }
+
+    @Test
+    void updateTask_ShouldEvictTaskAndListsOfBothStatuses() {
+        // Given
+        when(taskRepository.findByStatus(TaskStatus.TODO)).thenReturn(List.of(sampleTask));
+        when(taskRepository.findByStatus(TaskStatus.IN_PROGRESS)).thenReturn(List.of());
+        taskService.getTasksByStatus(TaskStatus.TODO);
+        taskService.getTasksByStatus(TaskStatus.IN_PROGRESS);
+        when(taskRepository.updateTask(taskId, "Test Task", "Test Description", TaskStatus.IN_PROGRESS,
+                0L)).thenReturn(Optional.of(TaskStatus.TODO));
+
+        // When
+        Task updatedTask = taskService.updateTask(taskId,
+                new Task("Test Task", "Test Description", TaskStatus.IN_PROGRESS), 0L).orElseThrow();
+
+        // Then
+        taskService.getTasksByStatus(TaskStatus.TODO);
+        taskService.getTasksByStatus(TaskStatus.IN_PROGRESS);
+        taskService.getTaskById(taskId);
+        verify(taskRepository, times(2)).findByStatus(TaskStatus.TODO);
+        verify(taskRepository, times(2)).findByStatus(TaskStatus.IN_PROGRESS);
+        verify(taskRepository, times(1)).findById(taskId);
+        assertEquals(1L, updatedTask.getVersion());
+    }
+
+    @Test
+    void createTask_ShouldAppendToCachedStatusList() {
+        // Given
+        when(taskRepository.findByStatus(TaskStatus.TODO)).thenReturn(List.of());
+        taskService.getTasksByStatus(TaskStatus.TODO);
+        when(taskRepository.save(sampleTask)).thenReturn(sampleTask);
+
+        // When
+        taskService.createTask(sampleTask);
+
+        // Then
+        assertEquals(List.of(sampleTask), taskService.getTasksByStatus(TaskStatus.TODO));
+        verify(taskRepository, times(1)).findByStatus(TaskStatus.TODO);
+    }
+
+    @Test
+    void deleteTask_ShouldEvictCachedTaskAndStatusList() {
+        // Given
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(sampleTask));
+        when(taskRepository.findByStatus(TaskStatus.TODO)).thenReturn(List.of(sampleTask));
+        taskService.getTaskById(taskId);
+        taskService.getTasksByStatus(TaskStatus.TODO);
+        when(taskRepository.deleteTaskById(taskId)).thenReturn(Optional.of(TaskStatus.TODO));
+
+        // When
+        taskService.deleteTask(taskId);
+
+        // Then
+        assertTrue(taskService.getTasksByStatus(TaskStatus.TODO).isEmpty());
+        verify(taskCache, times(1)).remove(taskId, TaskStatus.TODO);
+    }
+
+    @Test
+    void createTask_ShouldIncrementStatusCounter() {
+        // Given
+        when(taskRepository.save(sampleTask)).thenReturn(sampleTask);
+
+        // When
+        taskService.createTask(sampleTask);
+
+        // Then
+        assertEquals(1, taskService.getStatusCounts().byStatus().get(TaskStatus.TODO));
+        assertEquals(1, taskService.getStatusCounts().total());
+    }
+
+    @Test
+    void afterImport_ShouldUpdateCountersAndListsInBulkAndPublishOneReset() {
+        // Given
+        when(taskRepository.findByStatus(TaskStatus.DONE)).thenReturn(List.of());
+        taskService.getTasksByStatus(TaskStatus.DONE);
+        Task done = new Task("Imported done", null, TaskStatus.DONE);
+        done.setId(UUID.randomUUID());
+        List<Task> chunk = List.of(sampleTask, done, new Task("Imported todo", null, TaskStatus.TODO));
+        chunk.get(2).setId(UUID.randomUUID());
+
+        // When
+        taskService.afterImport(chunk);
+
+        // Then
+        assertEquals(2, taskService.getStatusCounts().byStatus().get(TaskStatus.TODO));
+        assertEquals(1, taskService.getStatusCounts().byStatus().get(TaskStatus.DONE));
+        assertEquals(1, searchIndex.search("imported done", 10).size());
+        taskService.getTasksByStatus(TaskStatus.DONE);
+        verify(taskRepository, times(2)).findByStatus(TaskStatus.DONE);
+        verify(eventBroadcaster, times(1)).reset();
+        verifyNoMoreInteractions(eventBroadcaster);
+    }
+
+    @Test
+    void reconcileStatusCounts_ShouldResetCountersFromDatabase() {
+        // Given
+        statusCounters.increment(TaskStatus.DONE);
+        when(taskRepository.countByStatus(TaskStatus.TODO)).thenReturn(4L);
+        when(taskRepository.countByStatus(TaskStatus.IN_PROGRESS)).thenReturn(2L);
+        when(taskRepository.countByStatus(TaskStatus.DONE)).thenReturn(0L);
+
+        // When
+        taskService.reconcileStatusCounts();
+
+        // Then
+        TaskStatusCounters.Counts counts = taskService.getStatusCounts();
+        assertEquals(6, counts.total());
+        assertEquals(4, counts.byStatus().get(TaskStatus.TODO));
+        assertEquals(0, counts.byStatus().get(TaskStatus.DONE));
+    }
+}
@@ -0,0 +1,46 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskStatusCountersTest {
+
+    private final TaskStatusCounters counters = new TaskStatusCounters();
+
+    @Test
+    void counts_ShouldReflectIncrementsMovesAndDecrements() {
+        // Given
+        counters.increment(TaskStatus.TODO);
+        counters.increment(TaskStatus.TODO);
+        counters.increment(TaskStatus.IN_PROGRESS);
+
+        // When
+        counters.move(TaskStatus.TODO, TaskStatus.DONE);
+        counters.move(TaskStatus.IN_PROGRESS, TaskStatus.IN_PROGRESS);
+        counters.decrement(TaskStatus.IN_PROGRESS);
+
+        // Then
+        TaskStatusCounters.Counts counts = counters.counts();
+        assertEquals(2, counts.total());
+        assertEquals(Map.of(TaskStatus.TODO, 1L, TaskStatus.IN_PROGRESS, 0L, TaskStatus.DONE, 1L), counts.byStatus());
+    }
+
+    @Test
+    void reset_ShouldReplaceCountsAndDefaultMissingStatusesToZero() {
+        // Given
+        counters.increment(TaskStatus.DONE);
+
+        // When
+        counters.reset(Map.of(TaskStatus.TODO, 5L, TaskStatus.IN_PROGRESS, 2L));
+
+        // Then
+        assertEquals(5, counters.get(TaskStatus.TODO));
+        assertEquals(2, counters.get(TaskStatus.IN_PROGRESS));
+        assertEquals(0, counters.get(TaskStatus.DONE));
+        assertEquals(7, counters.counts().total());
+    }
+}
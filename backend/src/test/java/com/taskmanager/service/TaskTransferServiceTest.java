@@ -0,0 +1,144 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.repository.TaskStore;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskTransferServiceTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private TaskStore taskRepository;
+
+    @Mock
+    private TaskService taskService;
+
+    private TaskTransferService taskTransferService;
+
+    @BeforeEach
+    void setUp() {
+        taskTransferService = new TaskTransferService(taskRepository, taskService,
+                TransactionOperations.withoutTransaction(), VALIDATOR, new ObjectMapper(), 2, 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportTasks_AsCsv_ShouldWriteHeaderAndOneRowPerTask() throws Exception {
+        // Given
+        UUID id = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        Task task = new Task("Write, then test", null, TaskStatus.DONE);
+        task.setId(id);
+        task.setVersion(3L);
+        doAnswer(invocation -> {
+            ((Consumer<Task>) invocation.getArgument(2)).accept(task);
+            return null;
+        }).when(taskService).streamTasks(isNull(), isNull(), any(Consumer.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = taskTransferService.exportTasks(TaskTransferService.Format.CSV, out);
+
+        // Then
+        assertEquals(1, written);
+        assertEquals("id,title,description,status,version\n" + id + ",\"Write, then test\",,DONE,3\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importTasks_ShouldInsertValidRowsInChunksAndReportProgress() {
+        // Given
+        UUID storedId = UUID.randomUUID();
+        when(taskRepository.insertMissing(anyList())).thenAnswer(invocation -> {
+            List<Task> inserted = new ArrayList<>(invocation.<List<Task>>getArgument(0));
+            inserted.removeIf(task -> storedId.equals(task.getId()));
+            return inserted;
+        });
+        String body = "{\"id\":\"" + storedId + "\",\"title\":\"Stored\"}\n"
+                + "{\"title\":\"One\",\"status\":\"DONE\"}\n"
+                + "{\"title\":\"\"}\n"
+                + "{\"title\":\"Two\"}\n";
+        List<TaskTransferService.ImportProgress> reported = new ArrayList<>();
+
+        // When
+        TaskTransferService.ImportProgress result =
+                taskTransferService.importTasks(TaskTransferService.Format.NDJSON, input(body), reported::add);
+
+        // Then
+        assertEquals(TaskTransferService.ImportStatus.COMPLETED, result.status());
+        assertEquals(4, result.read());
+        assertEquals(2, result.created());
+        assertEquals(1, result.existing());
+        assertEquals(1, result.invalid());
+        assertEquals(List.of("Row 3: Title must not be blank"), result.errors());
+        assertEquals(3, reported.size());
+        assertEquals(TaskTransferService.ImportStatus.RUNNING, reported.get(0).status());
+        assertEquals(result, reported.get(2));
+        verify(taskRepository, times(2)).insertMissing(anyList());
+        verify(taskService, times(2)).afterImport(argThat(tasks -> tasks.size() == 1));
+        verify(taskService, never()).afterCreate(any(Task.class));
+    }
+
+    @Test
+    void importTasks_FromCsv_ShouldMatchColumnsByHeaderAndDefaultStatus() {
+        // Given
+        when(taskRepository.insertMissing(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        String body = "title,description\nOne,\nTwo,Second\n";
+
+        // When
+        TaskTransferService.ImportProgress result =
+                taskTransferService.importTasks(TaskTransferService.Format.CSV, input(body), progress -> { });
+
+        // Then
+        assertEquals(2, result.created());
+        verify(taskRepository).insertMissing(argThat(tasks -> tasks.size() == 2
+                && tasks.get(0).getDescription() == null
+                && tasks.get(1).getStatus() == TaskStatus.TODO));
+    }
+
+    @Test
+    void importTasks_WithMalformedRow_ShouldKeepEarlierChunksAndFail() {
+        // Given
+        when(taskRepository.insertMissing(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        String body = "{\"title\":\"One\"}\n{\"title\":\"Two\"}\n{\"title\":\"Three\",\"status\":\"LATER\"}\n";
+
+        // When
+        TaskTransferService.ImportProgress result =
+                taskTransferService.importTasks(TaskTransferService.Format.NDJSON, input(body), progress -> { });
+
+        // Then
+        assertEquals(TaskTransferService.ImportStatus.FAILED, result.status());
+        assertEquals(2, result.created());
+        assertEquals(1, result.errors().size());
+        assertTrue(result.errors().get(0).startsWith("Row 3: "));
+    }
+
+    private static InputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,79 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskWriteBehindFlusherTest {
+
+    @Mock
+    private TaskBatchService taskBatchService;
+
+    private final TaskWriteBuffer writeBuffer = new TaskWriteBuffer(true, 100);
+
+    @Test
+    void flush_ShouldRetryFailedUpdatesAndDropUpdatesOfDeletedTasks() {
+        // Given
+        TaskWriteBehindFlusher flusher = new TaskWriteBehindFlusher(
+                writeBuffer, taskBatchService, 10, Duration.ofHours(1));
+        Task failing = queue("Failing");
+        Task deleted = queue("Deleted");
+        when(taskBatchService.replaceTasks(anyList())).thenAnswer(invocation -> {
+            List<Task> batch = invocation.getArgument(0);
+            return List.of(
+                    result(batch, 0, batch.get(0) == failing ? TaskBatchService.Outcome.FAILED : TaskBatchService.Outcome.NOT_FOUND),
+                    result(batch, 1, batch.get(1) == failing ? TaskBatchService.Outcome.FAILED : TaskBatchService.Outcome.NOT_FOUND));
+        });
+
+        // When
+        int written = flusher.flush();
+
+        // Then
+        assertEquals(1, written);
+        assertSame(failing, writeBuffer.peek(failing.getId()).orElseThrow());
+        assertTrue(writeBuffer.peek(deleted.getId()).isEmpty());
+    }
+
+    @Test
+    void close_ShouldWriteQueuedUpdatesBeforeShutdown() throws InterruptedException {
+        // Given
+        TaskWriteBehindFlusher flusher = new TaskWriteBehindFlusher(
+                writeBuffer, taskBatchService, 1, Duration.ofHours(1));
+        queue("One");
+        queue("Two");
+        when(taskBatchService.replaceTasks(anyList())).thenAnswer(invocation -> {
+            List<Task> batch = invocation.getArgument(0);
+            return List.of(result(batch, 0, TaskBatchService.Outcome.UPDATED));
+        });
+
+        // When
+        flusher.close();
+
+        // Then
+        verify(taskBatchService, times(2)).replaceTasks(anyList());
+        assertEquals(0, writeBuffer.size());
+    }
+
+    private Task queue(String title) {
+        Task task = new Task(title, null, TaskStatus.DONE);
+        task.setId(UUID.randomUUID());
+        writeBuffer.offer(task);
+        return task;
+    }
+
+    private static TaskBatchService.ItemResult result(List<Task> batch, int index, TaskBatchService.Outcome outcome) {
+        return new TaskBatchService.ItemResult(index, batch.get(index).getId(), outcome, null);
+    }
+}
@@ -0,0 +1,119 @@
+package com.taskmanager.service;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskWriteBufferTest {
+
+    private final TaskWriteBuffer buffer = new TaskWriteBuffer(true, 2);
+
+    @Test
+    void offer_ShouldKeepLatestUpdatePerTask() {
+        // Given
+        UUID id = UUID.randomUUID();
+
+        // When
+        buffer.offer(task(id, "First", TaskStatus.IN_PROGRESS));
+        buffer.offer(task(id, "Second", TaskStatus.DONE));
+
+        // Then
+        assertEquals(1, buffer.size());
+        assertEquals("Second", buffer.peek(id).orElseThrow().getTitle());
+    }
+
+    @Test
+    void offer_WhenFull_ShouldRejectNewTasksButCoalesceQueuedOnes() {
+        // Given
+        UUID first = UUID.randomUUID();
+        buffer.offer(task(first, "One", TaskStatus.TODO));
+        buffer.offer(task(UUID.randomUUID(), "Two", TaskStatus.TODO));
+
+        // When
+        boolean newTask = buffer.offer(task(UUID.randomUUID(), "Three", TaskStatus.TODO));
+        boolean queuedTask = buffer.offer(task(first, "One again", TaskStatus.DONE));
+
+        // Then
+        assertFalse(newTask);
+        assertTrue(queuedTask);
+        assertEquals(2, buffer.size());
+    }
+
+    @Test
+    void flush_ShouldWriteInBatchesAndKeepUpdatesVisibleUntilWritten() {
+        // Given
+        UUID id = UUID.randomUUID();
+        buffer.offer(task(id, "Queued", TaskStatus.DONE));
+        buffer.offer(task(UUID.randomUUID(), "Other", TaskStatus.DONE));
+        List<Integer> batchSizes = new ArrayList<>();
+        List<Optional<Task>> seenWhileWriting = new ArrayList<>();
+
+        // When
+        int written = buffer.flush(1, batch -> {
+            batchSizes.add(batch.size());
+            seenWhileWriting.add(buffer.peek(batch.get(0).getId()));
+            return List.of();
+        });
+
+        // Then
+        assertEquals(2, written);
+        assertEquals(List.of(1, 1), batchSizes);
+        assertTrue(seenWhileWriting.stream().allMatch(Optional::isPresent));
+        assertTrue(buffer.peek(id).isEmpty());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void flush_WhenWriteFails_ShouldRequeueUnlessNewerUpdateArrived() {
+        // Given
+        TaskWriteBuffer buffer = new TaskWriteBuffer(true, 3);
+        UUID failing = UUID.randomUUID();
+        UUID superseded = UUID.randomUUID();
+        buffer.offer(task(failing, "Failing", TaskStatus.DONE));
+        buffer.offer(task(superseded, "Old", TaskStatus.DONE));
+
+        // When
+        int written = buffer.flush(10, batch -> {
+            buffer.offer(task(superseded, "New", TaskStatus.TODO));
+            return batch;
+        });
+
+        // Then
+        assertEquals(0, written);
+        assertEquals("Failing", buffer.peek(failing).orElseThrow().getTitle());
+        assertEquals("New", buffer.peek(superseded).orElseThrow().getTitle());
+        assertEquals(2, buffer.size());
+    }
+
+    @Test
+    void flushTask_ShouldWriteOnlyThatTaskAndRemoveIt() {
+        // Given
+        UUID id = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        buffer.offer(task(id, "Queued", TaskStatus.DONE));
+        buffer.offer(task(other, "Other", TaskStatus.DONE));
+        List<Task> written = new ArrayList<>();
+
+        // When
+        buffer.flush(id, written::add);
+
+        // Then
+        assertEquals(List.of("Queued"), written.stream().map(Task::getTitle).toList());
+        assertTrue(buffer.peek(id).isEmpty());
+        assertTrue(buffer.peek(other).isPresent());
+        assertEquals(1, buffer.size());
+    }
+
+    private static Task task(UUID id, String title, TaskStatus status) {
+        Task task = new Task(title, null, status);
+        task.setId(id);
+        return task;
+    }
+}
@@ -0,0 +1,71 @@
+package com.taskmanager.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to start the backend (without the web server) over {@link #size} durably stored tasks,
+ * until the search index is built and the context is ready: the {@code prod} file-backed H2
+ * database through JPA and Flyway, or the in-memory engine recovering from its snapshot and
+ * log. Each fork stores the tasks once, then every iteration is one start.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"jpa", "memory"})
+    public String storage;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("task-startup");
+        try (ConfigurableApplicationContext context = start()) {
+            TaskDataset.load(context, size);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        TaskDataset.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void start(Blackhole blackhole) {
+        try (ConfigurableApplicationContext context = start()) {
+            blackhole.consume(context);
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return TaskDataset.start(storage, directory, List.of("prod"),
+                "spring.datasource.url=jdbc:h2:file:" + directory.resolve("h2").resolve("tasks"));
+    }
+}
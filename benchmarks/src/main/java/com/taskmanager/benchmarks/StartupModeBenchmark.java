@@ -0,0 +1,144 @@
+package com.taskmanager.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching the backend as a process until {@code /actuator/health} answers, and the
+ * process's resident set size (VmRSS) at that moment, for each way of running it ({@link #mode}):
+ * the exec jar ({@code jvm}), the exec jar with its AOT-processed context ({@code aot}), the
+ * plain jar and its dependencies with AOT and the AppCDS archive ({@code cds}), and the GraalVM native
+ * executable ({@code native}). The artifacts are taken from the backend's {@code target}
+ * directory (system property {@code taskmanager.backend.target}, {@code ../backend/target} by
+ * default); {@code aot} and {@code cds} need a {@code -Paot} build, {@code native} a
+ * {@code -Pnative native:compile} one. Each iteration is one start on the default in-memory
+ * database; the resident set size of each start and their mean are printed.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class StartupModeBenchmark {
+
+    private static final String JAR = "task-manager-backend-0.0.1-SNAPSHOT";
+
+    @Param({"jvm", "aot", "cds", "native"})
+    public String mode;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<Long> residentKilobytes = new ArrayList<>();
+    private Path target;
+    private Path log;
+    private List<String> command;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        target = Path.of(System.getProperty("taskmanager.backend.target", "../backend/target")).toAbsolutePath();
+        log = Files.createTempFile("task-startup", ".log");
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        command = switch (mode) {
+            case "jvm" -> List.of(java, "-jar", JAR + "-exec.jar");
+            case "aot" -> List.of(java, "-Dspring.aot.enabled=true", "-jar", JAR + "-exec.jar");
+            // Same working directory and class path as the training run, which the archive is checked against
+            case "cds" -> List.of(java, "-XX:SharedArchiveFile=app.jsa", "-Dspring.aot.enabled=true",
+                    "-cp", JAR + ".jar:lib/*", "com.taskmanager.TaskManagerApplication");
+            case "native" -> List.of(target.resolve("task-manager-backend").toString());
+            default -> throw new IllegalArgumentException("Unknown mode " + mode);
+        };
+        Path artifact = target.resolve(switch (mode) {
+            case "cds" -> "app.jsa";
+            case "native" -> "task-manager-backend";
+            default -> JAR + "-exec.jar";
+        });
+        if (!Files.exists(artifact)) {
+            throw new IllegalStateException(artifact + " is missing; build the backend with the profile for " + mode);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.printf("%n%s: mean resident set size at readiness %,d KB over %d starts%n", mode,
+                (long) residentKilobytes.stream().mapToLong(Long::longValue).average().orElse(0),
+                residentKilobytes.size());
+        Files.deleteIfExists(log);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() throws IOException, InterruptedException {
+        long kilobytes = residentKilobytes(process.pid());
+        residentKilobytes.add(kilobytes);
+        System.out.printf("%n%s: resident set size at readiness %,d KB%n", mode, kilobytes);
+        process.destroy();
+        process.waitFor();
+    }
+
+    @Benchmark
+    public void start() throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        arguments.add("--spring.jpa.show-sql=false");
+        process = new ProcessBuilder(arguments)
+                .directory(target.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build();
+        while (true) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(mode + " exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // VmRSS from /proc, so Linux only
+    private static long residentKilobytes(long pid) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        throw new IllegalStateException("No VmRSS for process " + pid);
+    }
+}
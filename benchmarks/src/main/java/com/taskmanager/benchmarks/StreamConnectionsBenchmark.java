@@ -0,0 +1,165 @@
+package com.taskmanager.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of idle long-lived connections on each web stack ({@link #stack}): the servlet stack
+ * (Spring MVC on Tomcat) and the reactive one (WebFlux on Reactor Netty, the {@code reactive}
+ * profile). Each iteration launches the exec jar as a process, as {@link StartupModeBenchmark}
+ * does, and times opening {@link #connections} subscriptions to {@code /tasks/events} until each
+ * has its response headers. The growth of the backend's resident set size (VmRSS) and thread
+ * count while they are open is printed per connection.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class StreamConnectionsBenchmark {
+
+    private static final String JAR = "task-manager-backend-0.0.1-SNAPSHOT-exec.jar";
+
+    @Param({"servlet", "reactive"})
+    public String stack;
+
+    @Param({"1000", "5000"})
+    public int connections;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final List<InputStream> streams = new ArrayList<>();
+    private Path target;
+    private Path log;
+    private Process process;
+    private URI events;
+    private long baselineKilobytes;
+    private long baselineThreads;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        target = Path.of(System.getProperty("taskmanager.backend.target", "../backend/target")).toAbsolutePath();
+        if (!Files.exists(target.resolve(JAR))) {
+            throw new IllegalStateException(target.resolve(JAR) + " is missing; build the backend first");
+        }
+        log = Files.createTempFile("task-connections", ".log");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(log);
+    }
+
+    @Setup(Level.Iteration)
+    public void start() throws IOException, InterruptedException {
+        int port = freePort();
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>(List.of(java, "-jar", JAR, "--server.port=" + port,
+                "--spring.jpa.show-sql=false", "--logging.level.com.taskmanager=INFO",
+                "--logging.level.org.springframework.web=WARN"));
+        if (stack.equals("reactive")) {
+            command.add("--spring.profiles.active=reactive");
+        }
+        process = new ProcessBuilder(command)
+                .directory(target.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        awaitHealth(port);
+        events = URI.create("http://localhost:" + port + "/tasks/events");
+        // One connection first, so what a first subscriber initializes is not counted per connection
+        streams.add(client.send(HttpRequest.newBuilder(events).build(), HttpResponse.BodyHandlers.ofInputStream()).body());
+        Thread.sleep(1000);
+        baselineKilobytes = procStatus(process.pid(), "VmRSS:");
+        baselineThreads = procStatus(process.pid(), "Threads:");
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() throws IOException, InterruptedException {
+        Thread.sleep(1000);
+        long kilobytes = procStatus(process.pid(), "VmRSS:") - baselineKilobytes;
+        long threads = procStatus(process.pid(), "Threads:") - baselineThreads;
+        System.out.printf("%n%s, %,d connections: resident set size +%,d KB (%.1f KB per connection), threads +%d%n",
+                stack, connections, kilobytes, (double) kilobytes / connections, threads);
+        for (InputStream stream : streams) {
+            stream.close();
+        }
+        streams.clear();
+        process.destroy();
+        process.waitFor();
+    }
+
+    @Benchmark
+    public void open() {
+        List<CompletableFuture<HttpResponse<InputStream>>> responses = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            responses.add(client.sendAsync(HttpRequest.newBuilder(events).build(), HttpResponse.BodyHandlers.ofInputStream()));
+        }
+        for (CompletableFuture<HttpResponse<InputStream>> response : responses) {
+            HttpResponse<InputStream> opened = response.join();
+            if (opened.statusCode() != 200) {
+                throw new IllegalStateException("/tasks/events answered " + opened.statusCode() + ", see " + log);
+            }
+            streams.add(opened.body());
+        }
+    }
+
+    private void awaitHealth(int port) throws IOException, InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build();
+        while (true) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(stack + " exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // A numeric field of /proc/<pid>/status, so Linux only
+    private static long procStatus(long pid, String field) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+            if (line.startsWith(field)) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        throw new IllegalStateException("No " + field + " for process " + pid);
+    }
+}
@@ -0,0 +1,133 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.TaskManagerApplication;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.service.TaskBatchService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * The backend's service layer, without the web server, holding {@link #size} tasks in the
+ * given {@link #storage} engine: an in-memory H2 database behind JPA, or the in-memory
+ * repository with its write-ahead log in a temporary directory. Titles are built from a small
+ * vocabulary so searches for one of its words match a stable fraction of the dataset.
+ */
+@State(Scope.Benchmark)
+public class TaskDataset {
+
+    static final String[] WORDS = {
+            "review", "deploy", "migrate", "design", "fix", "document", "refactor", "test",
+            "budget", "release", "invoice", "onboarding", "roadmap", "backup", "audit", "sprint",
+            "customer", "report", "pipeline", "dashboard", "meeting", "contract", "hiring", "security"
+    };
+
+    private static final int LOAD_CHUNK = 10_000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"jpa", "memory"})
+    public String storage;
+
+    ConfigurableApplicationContext context;
+    UUID[] ids;
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("task-benchmark");
+        context = start(storage, directory, List.of(), "spring.datasource.url=jdbc:h2:mem:benchmark");
+        ids = load(context, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        deleteRecursively(directory);
+    }
+
+    /**
+     * Starts the backend without the web server, with the given engine and extra profiles. The
+     * engine keeps its files in {@code directory}; {@code properties} override the profiles.
+     */
+    static ConfigurableApplicationContext start(String storage, Path directory, List<String> profiles,
+                                                String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--taskmanager.storage.memory.directory=" + directory.resolve("memory"),
+                "--logging.level.root=WARN",
+                "--logging.level.com.taskmanager=WARN",
+                "--logging.level.org.springframework.web=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        List<String> active = new ArrayList<>(profiles);
+        if (storage.equals("memory")) {
+            active.add("memory");
+        }
+        return new SpringApplicationBuilder(TaskManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(active.toArray(String[]::new))
+                .run(args.toArray(String[]::new));
+    }
+
+    static UUID[] load(ConfigurableApplicationContext context, int size) {
+        TaskBatchService batchService = context.getBean(TaskBatchService.class);
+        SplittableRandom random = new SplittableRandom(42);
+        List<UUID> loaded = new ArrayList<>(size);
+        for (int from = 0; from < size; from += LOAD_CHUNK) {
+            List<Task> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(from + LOAD_CHUNK, size); i++) {
+                chunk.add(task(random, i));
+            }
+            batchService.createTasks(chunk).forEach(result -> loaded.add(result.id()));
+        }
+        return loaded.toArray(UUID[]::new);
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    static Task task(SplittableRandom random, int n) {
+        String title = capitalize(word(random)) + " " + word(random) + " " + word(random) + " #" + n;
+        String description = "Follow up on the " + word(random) + " and " + word(random) + " items";
+        return new Task(title, description, TaskStatus.values()[random.nextInt(TaskStatus.values().length)]);
+    }
+
+    static String word(SplittableRandom random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
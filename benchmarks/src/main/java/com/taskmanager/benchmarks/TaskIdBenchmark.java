@@ -0,0 +1,126 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskIds;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads {@link #size} tasks into an empty file-backed H2 database with the backend's schema, keyed
+ * by random version 4 UUIDs as before or by {@link TaskIds} time-ordered ones ({@link #ids}). One
+ * operation is the whole load, through JDBC batches of {@value #BATCH_SIZE} rows with a commit
+ * each, as the batch endpoints write. After each load, the disk space of the tasks table with its
+ * indexes and the time of a 1,000-row keyset page from the middle of the table are printed.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+// A 10M-row load runs past JMH's default 10-minute timeout, whose interrupt would close H2's file channel
+@Timeout(time = 3, timeUnit = TimeUnit.HOURS)
+@State(Scope.Thread)
+public class TaskIdBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"random", "time-ordered"})
+    public String ids;
+
+    private Path directory;
+    private String url;
+    private UUID middle;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("task-ids");
+        url = "jdbc:h2:file:" + directory.resolve("tasks") + ";DB_CLOSE_ON_EXIT=FALSE";
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws SQLException, IOException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            long tableBytes;
+            try (ResultSet row = statement.executeQuery("CALL DISK_SPACE_USED('TASKS')")) {
+                row.next();
+                tableBytes = row.getLong(1);
+            }
+            long start = System.nanoTime();
+            int rows = 0;
+            try (PreparedStatement page = connection.prepareStatement(
+                    "SELECT id, title, description, status, version FROM tasks WHERE id > ? ORDER BY id LIMIT 1000")) {
+                page.setObject(1, middle);
+                try (ResultSet result = page.executeQuery()) {
+                    while (result.next()) {
+                        rows++;
+                    }
+                }
+            }
+            System.out.printf("%n%s ids, %,d tasks: tasks table and indexes %,d bytes (%.1f per task), "
+                            + "%d-row keyset page %.2f ms%n",
+                    ids, size, tableBytes, (double) tableBytes / size, rows, (System.nanoTime() - start) / 1e6);
+            statement.execute("SHUTDOWN");
+        }
+        TaskDataset.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void insert() throws SQLException {
+        SplittableRandom random = new SplittableRandom(42);
+        boolean timeOrdered = ids.equals("time-ordered");
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO tasks (id, title, description, status, version) VALUES (?, ?, ?, ?, 0)")) {
+            connection.setAutoCommit(false);
+            for (int n = 0; n < size; n++) {
+                UUID id = timeOrdered ? TaskIds.next() : UUID.randomUUID();
+                if (n == size / 2) {
+                    middle = id;
+                }
+                Task task = TaskDataset.task(random, n);
+                insert.setObject(1, id);
+                insert.setString(2, task.getTitle());
+                insert.setString(3, task.getDescription());
+                insert.setString(4, task.getStatus().name());
+                insert.addBatch();
+                if ((n + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+}
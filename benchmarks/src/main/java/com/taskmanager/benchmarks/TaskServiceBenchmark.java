@@ -0,0 +1,113 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskPatch;
+import com.taskmanager.model.TaskStatus;
+import com.taskmanager.repository.TaskStore;
+import com.taskmanager.service.TaskCache;
+import com.taskmanager.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TaskService} operations against a database of {@link TaskDataset#size} tasks, each
+ * picking a random existing task or vocabulary word per invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class TaskServiceBenchmark {
+
+    private TaskService taskService;
+    private TaskStore taskRepository;
+    private TaskCache taskCache;
+    private UUID[] ids;
+    private SplittableRandom random;
+    private int created;
+
+    @Setup(Level.Trial)
+    public void setUp(TaskDataset dataset) {
+        taskService = dataset.bean(TaskService.class);
+        taskRepository = dataset.bean(TaskStore.class);
+        taskCache = dataset.bean(TaskCache.class);
+        ids = dataset.ids;
+        random = new SplittableRandom(7);
+    }
+
+    @Benchmark
+    public Optional<Task> getTaskById() {
+        return taskService.getTaskById(randomId());
+    }
+
+    @Benchmark
+    public Task createAndDeleteTask() {
+        Task task = taskService.createTask(TaskDataset.task(random, created++));
+        taskService.deleteTask(task.getId());
+        return task;
+    }
+
+    @Benchmark
+    public Optional<Task> updateTask() {
+        return taskService.updateTask(randomId(), TaskDataset.task(random, created++));
+    }
+
+    @Benchmark
+    public boolean patchTask() {
+        TaskStatus status = TaskStatus.values()[random.nextInt(TaskStatus.values().length)];
+        return taskService.patchTask(randomId(), new TaskPatch(null, null, status));
+    }
+
+    @Benchmark
+    public List<Task> getTasksByStatus() {
+        return taskService.getTasksByStatus(randomStatus());
+    }
+
+    // Every call misses the cache and goes to the database
+    @Benchmark
+    public List<Task> getTasksByStatusUncached() {
+        taskCache.clear();
+        return taskService.getTasksByStatus(randomStatus());
+    }
+
+    @Benchmark
+    public List<Task> searchTasksByTitle() {
+        return taskService.searchTasksByTitle(TaskDataset.word(random));
+    }
+
+    @Benchmark
+    public List<Task> searchTasksTop20() {
+        return taskService.searchTasks(TaskDataset.word(random), 20);
+    }
+
+    // The LIKE query the search index replaced, for comparison with searchTasksByTitle
+    @Benchmark
+    public List<Task> searchTasksByTitleLike() {
+        return taskRepository.findByTitleContainingIgnoreCase(TaskDataset.word(random));
+    }
+
+    private UUID randomId() {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private TaskStatus randomStatus() {
+        return TaskStatus.values()[random.nextInt(TaskStatus.values().length)];
+    }
+}
@@ -1,5 +1,5 @@
-import React, { useState, useEffect } from 'react';
-import { Task, TaskStatus, CreateTaskRequest, UpdateTaskRequest } from './types/Task';
+import React, { useState, useEffect, useCallback } from 'react';
+import { Task, TaskStatus, TaskEvent, TaskStats, CreateTaskRequest, UpdateTaskRequest } from './types/Task';
 import { taskService } from './services/taskService';
 import TaskList from './components/TaskList';
 import TaskForm from './components/TaskForm';
@@ -13,12 +13,41 @@ function App() {
   const [editingTask, setEditingTask] = useState<Task | null>(null);
   const [statusFilter, setStatusFilter] = useState<TaskStatus | 'ALL'>('ALL');
   const [searchTerm, setSearchTerm] = useState('');
+  const [stats, setStats] = useState<TaskStats | null>(null);
 
   // Load tasks on component mount
   useEffect(() => {
     loadTasks();
   }, []);
 
+  // Counts come from the server so they cover every task, not just the ones loaded or found;
+  // refreshed whenever the list changes, whether by this client or through the change feed
+  useEffect(() => {
+    taskService.getStats()
+      .then(setStats)
+      .catch(err => console.error('Error loading task counts:', err));
+  }, [tasks]);
+
+  // Keep the list current with changes made by other clients
+  const applyEvent = useCallback(async (event: TaskEvent) => {
+    if (event.type === 'DELETED') {
+      setTasks(prev => prev.filter(task => task.id !== event.taskId));
+      return;
+    }
+    try {
+      const task = event.task ?? await taskService.getTaskById(event.taskId);
+      setTasks(prev => event.type === 'CREATED' || prev.some(t => t.id === task.id)
+        ? upsertTask(prev, task)
+        : prev);
+    } catch (err) {
+      console.error('Error applying task event:', err);
+    }
+  }, []);
+
+  useEffect(() => {
+    return taskService.subscribeToEvents(applyEvent, () => loadTasks());
+  }, [applyEvent]);
+
   const loadTasks = async () => {
     try {
       setLoading(true);
@@ -36,7 +65,7 @@ function App() {
   const handleCreateTask = async (taskData: CreateTaskRequest) => {
     try {
       const newTask = await taskService.createTask(taskData);
-      setTasks(prev => [...prev, newTask]);
+      setTasks(prev => upsertTask(prev, newTask));
       setShowForm(false);
       setError(null);
     } catch (err) {
@@ -139,10 +168,10 @@ function App() {
 
   const getTaskCounts = () => {
     return {
-      total: tasks.length,
-      todo: tasks.filter(t => t.status === TaskStatus.TODO).length,
-      inProgress: tasks.filter(t => t.status === TaskStatus.IN_PROGRESS).length,
-      done: tasks.filter(t => t.status === TaskStatus.DONE).length,
+      total: stats?.total ?? 0,
+      todo: stats?.byStatus[TaskStatus.TODO] ?? 0,
+      inProgress: stats?.byStatus[TaskStatus.IN_PROGRESS] ?? 0,
+      done: stats?.byStatus[TaskStatus.DONE] ?? 0,
     };
   };
 
@@ -257,4 +286,11 @@ function App() {
   );
 }
 
+// Replaces the task with the same id, or appends it
+function upsertTask(tasks: Task[], task: Task): Task[] {
+  return tasks.some(t => t.id === task.id)
+    ? tasks.map(t => t.id === task.id ? task : t)
+    : [...tasks, task];
+}
+
 export default App;
@@ -1,5 +1,5 @@
 import axios from 'axios';
-import { Task, CreateTaskRequest, UpdateTaskRequest, TaskStatus } from '../types/Task';
+import { Task, CreateTaskRequest, UpdateTaskRequest, TaskStatus, TaskEvent, TaskStats } from '../types/Task';
 
 // Configure the base URL for API calls
 const API_BASE_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080';
@@ -25,6 +25,12 @@ export const taskService = {
     return response.data;
   },
 
+  // Get the number of tasks in total and per status
+  getStats: async (): Promise<TaskStats> => {
+    const response = await api.get<TaskStats>('/tasks/stats');
+    return response.data;
+  },
+
   // Get a single task by ID
   getTaskById: async (id: string): Promise<Task> => {
     const response = await api.get<Task>(`/tasks/${id}`);
@@ -53,6 +59,18 @@ export const taskService = {
     const response = await api.get<Task[]>(`/tasks?search=${encodeURIComponent(searchTerm)}`);
     return response.data;
   },
+
+  // Subscribe to the change feed; returns a function that closes the subscription.
+  // EventSource reconnects by itself and resumes from the last event it saw.
+  subscribeToEvents: (onEvent: (event: TaskEvent) => void, onReset: () => void): (() => void) => {
+    const source = new EventSource(`${API_BASE_URL}/tasks/events`);
+    const handle = (message: MessageEvent) => onEvent(JSON.parse(message.data) as TaskEvent);
+    source.addEventListener('created', handle);
+    source.addEventListener('updated', handle);
+    source.addEventListener('deleted', handle);
+    source.addEventListener('reset', onReset);
+    return () => source.close();
+  },
 };
 
 export default taskService; 
\ No newline at end of file
@@ -9,6 +9,7 @@ export interface Task {
   title: string;
   description?: string;
   status: TaskStatus;
+  version?: number;
 }
 
 export interface CreateTaskRequest {
@@ -21,4 +22,20 @@ export interface UpdateTaskRequest {
   title: string;
   description?: string;
   status: TaskStatus;
-} 
\ No newline at end of file
+}
+
+export type TaskEventType = 'CREATED' | 'UPDATED' | 'DELETED';
+
+export interface TaskEvent {
+  sequence: number;
+  type: TaskEventType;
+  taskId: string;
+  status?: TaskStatus;
+  previousStatus?: TaskStatus;
+  task?: Task;
+}
+
+export interface TaskStats {
+  total: number;
+  byStatus: Record<TaskStatus, number>;
+}
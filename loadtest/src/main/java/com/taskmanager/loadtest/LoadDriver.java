@@ -0,0 +1,137 @@
+package com.taskmanager.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends the workload from {@code threads} threads and records the latency of every call, in
+ * microseconds, per operation.
+ *
+ * Without a rate, each thread sends its next call as soon as the previous one is answered
+ * (closed loop), and latency is the time from send to answer. With a rate, calls follow a fixed
+ * schedule, one every 1/rate seconds, and latency runs from when a call was scheduled to be sent.
+ * A call that has to wait for a free thread because the backend fell behind is charged that
+ * wait. Otherwise a stall would delay the calls queued behind it without ever showing in the
+ * percentiles (coordinated omission).
+ */
+final class LoadDriver {
+
+    record Result(Map<Operation, Histogram> latencies, Map<Operation, Long> errors, Duration elapsed,
+                  int rate, long scheduled) {
+
+        Histogram total() {
+            Histogram total = new Histogram(3);
+            latencies.values().forEach(total::add);
+            return total;
+        }
+
+        long totalErrors() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    private final int threads;
+    private final int rate;
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LoadDriver(int threads, int rate) {
+        this.threads = threads;
+        this.rate = rate;
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Runs the workload for {@code warmup} and then {@code duration}; only calls scheduled after
+     * the warmup are recorded.
+     */
+    Result run(TaskWorkload workload, Duration warmup, Duration duration, long seed) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long interval = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0;
+        AtomicLong slots = new AtomicLong();
+
+        AtomicInteger names = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "load-" + names.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        SplittableRandom seeds = new SplittableRandom(seed);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            SplittableRandom random = seeds.split();
+            workers.add(pool.submit(() -> {
+                work(workload, random, start, measureFrom, end, interval, slots);
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load thread failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        errors.forEach((operation, count) -> errorCounts.put(operation, count.sum()));
+        long scheduled = rate > 0 ? duration.toNanos() / interval : 0;
+        return new Result(latencies, errorCounts, duration, rate, scheduled);
+    }
+
+    private void work(TaskWorkload workload, SplittableRandom random, long start, long measureFrom, long end,
+                      long interval, AtomicLong slots) throws InterruptedException {
+        while (true) {
+            long intended;
+            if (interval > 0) {
+                intended = start + slots.getAndIncrement() * interval;
+                if (intended >= end) {
+                    return;
+                }
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                intended = System.nanoTime();
+            }
+            // A backlog is abandoned at the end rather than drained past it
+            if (System.nanoTime() >= end) {
+                return;
+            }
+
+            TaskWorkload.Call call = workload.next(random);
+            boolean succeeded = workload.send(call);
+            long latency = System.nanoTime() - intended;
+            if (intended >= measureFrom) {
+                latencies.get(call.operation()).recordValue(TimeUnit.NANOSECONDS.toMicros(latency));
+                if (!succeeded) {
+                    errors.get(call.operation()).increment();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.taskmanager.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput, error rate and latency percentiles of a run, per operation and overall, as a
+ * table or JSON, and the checks of the release gates.
+ */
+final class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    record Row(String operation, long requests, double throughput, long errors, double errorRate,
+               double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    private final LoadDriver.Result result;
+    private final List<Row> rows = new ArrayList<>();
+    private final Row total;
+
+    LoadReport(LoadDriver.Result result) {
+        this.result = result;
+        result.latencies().forEach((operation, latency) -> {
+            if (latency.getTotalCount() > 0) {
+                rows.add(row(operation.label(), latency, result.errors().get(operation)));
+            }
+        });
+        this.total = row("total", result.total(), result.totalErrors());
+    }
+
+    Row total() {
+        return total;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-8s %10s %10s %8s %8s %10s %10s %10s %10s %10s%n",
+                "", "requests", "req/s", "errors", "err %", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Row row : rows) {
+            print(out, row);
+        }
+        print(out, total);
+        if (result.rate() > 0) {
+            out.printf("Target rate %d req/s: %d of %d scheduled requests sent%n",
+                    result.rate(), total.requests(), result.scheduled());
+        }
+    }
+
+    void write(Path file) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("durationSeconds", result.elapsed().toMillis() / 1000.0);
+        report.put("targetRate", result.rate());
+        report.put("scheduled", result.scheduled());
+        report.put("total", total);
+        report.put("operations", rows);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+    }
+
+    // The gates the run failed, empty if it passed
+    List<String> check(Duration maxP99, double maxErrorRate) {
+        List<String> failures = new ArrayList<>();
+        if (maxP99 != null && total.p99Ms() > maxP99.toNanos() / 1e6) {
+            failures.add(String.format("p99 latency %.2f ms is above %d ms", total.p99Ms(), maxP99.toMillis()));
+        }
+        if (total.errorRate() > maxErrorRate) {
+            failures.add(String.format("error rate %.4f is above %s", total.errorRate(), maxErrorRate));
+        }
+        // At a fixed rate, requests never sent are latency the percentiles do not show
+        if (result.rate() > 0 && total.requests() < result.scheduled() * 0.99) {
+            failures.add(String.format("only %d of %d scheduled requests were sent", total.requests(), result.scheduled()));
+        }
+        return failures;
+    }
+
+    private Row row(String operation, Histogram latency, long errors) {
+        long requests = latency.getTotalCount();
+        double[] percentiles = new double[PERCENTILES.length];
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            percentiles[i] = millis(latency.getValueAtPercentile(PERCENTILES[i]));
+        }
+        return new Row(operation, requests, requests / (result.elapsed().toMillis() / 1000.0), errors,
+                requests == 0 ? 0 : (double) errors / requests,
+                percentiles[0], percentiles[1], percentiles[2], percentiles[3], millis(latency.getMaxValue()));
+    }
+
+    private static void print(PrintStream out, Row row) {
+        out.printf("%-8s %10d %10.1f %8d %8.2f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                row.operation(), row.requests(), row.throughput(), row.errors(), row.errorRate() * 100,
+                row.p50Ms(), row.p90Ms(), row.p99Ms(), row.p999Ms(), row.maxMs());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,127 @@
+package com.taskmanager.loadtest;
+
+import com.taskmanager.TaskManagerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Entry point of loadtest.jar. Starts the backend on a free localhost port over an empty
+ * database in a temporary directory, unless {@code --target} names one already running. Then
+ * it imports the dataset and runs the workload. Prints the results, and exits with 1 if a gate
+ * given by {@code --max-p99} or {@code --max-error-rate} failed, or 2 on a usage error.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1 && args[0].equals("--help")) {
+            System.out.print(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        System.exit(run(options));
+    }
+
+    private static int run(LoadTestOptions options) throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("task-loadtest");
+        ConfigurableApplicationContext backend = null;
+        try {
+            String baseUrl = options.target();
+            if (baseUrl == null) {
+                System.out.printf("Starting the backend (%s storage, %s stack)%n", options.storage(), options.stack());
+                backend = start(options, directory);
+                baseUrl = "http://localhost:" + ((WebServerApplicationContext) backend).getWebServer().getPort();
+            }
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            SplittableRandom random = new SplittableRandom(options.seed());
+
+            System.out.printf("Importing %d tasks into %s%n", options.tasks(), baseUrl);
+            UUID[] ids = TaskWorkload.importTasks(client, baseUrl, options.tasks(), random.split(), directory);
+            TaskWorkload workload = new TaskWorkload(client, baseUrl, options.mix(),
+                    new ZipfianKeys(ids, options.skew(), random.split()));
+
+            System.out.printf("Running %s after %s of warmup: %d threads, %s, skew %s, mix %s%n",
+                    options.duration(), options.warmup(), options.threads(),
+                    options.rate() > 0 ? options.rate() + " req/s" : "closed loop",
+                    options.skew(), options.mix().entrySet().stream()
+                            .map(entry -> entry.getKey().label() + ":" + entry.getValue())
+                            .collect(Collectors.joining(",")));
+            LoadDriver.Result result = new LoadDriver(options.threads(), options.rate())
+                    .run(workload, options.warmup(), options.duration(), random.nextLong());
+
+            LoadReport report = new LoadReport(result);
+            report.print(System.out);
+            if (options.report() != null) {
+                report.write(options.report());
+            }
+            List<String> failures = report.check(options.maxP99(), options.maxErrorRate());
+            failures.forEach(failure -> System.out.println("FAILED: " + failure));
+            return failures.isEmpty() ? 0 : 1;
+        } finally {
+            if (backend != null) {
+                backend.close();
+            }
+            deleteRecursively(directory);
+        }
+    }
+
+    // Backend options given on the command line replace these defaults rather than adding to them
+    private static ConfigurableApplicationContext start(LoadTestOptions options, Path directory) {
+        Map<String, String> args = new LinkedHashMap<>();
+        for (String arg : List.of(
+                "--server.address=127.0.0.1",
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("h2").resolve("tasks"),
+                "--taskmanager.storage.memory.directory=" + directory.resolve("memory"),
+                "--logging.level.root=WARN",
+                "--logging.level.com.taskmanager=WARN",
+                "--logging.level.org.springframework.web=WARN")) {
+            args.put(arg.substring(0, arg.indexOf('=')), arg);
+        }
+        for (String arg : options.backendArgs()) {
+            args.put(arg.substring(0, arg.indexOf('=')), arg);
+        }
+        List<String> profiles = new ArrayList<>(List.of(options.storage().equals("memory") ? "memory" : "prod"));
+        if (options.stack().equals("reactive")) {
+            profiles.add("reactive");
+        }
+        return new SpringApplicationBuilder(TaskManagerApplication.class)
+                .profiles(profiles.toArray(String[]::new))
+                .run(args.values().toArray(String[]::new));
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
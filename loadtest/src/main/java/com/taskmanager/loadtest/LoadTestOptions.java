@@ -0,0 +1,151 @@
+package com.taskmanager.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line of loadtest.jar, as {@code --name=value} pairs. Options under {@code spring.},
+ * {@code server.}, {@code taskmanager.}, {@code management.} and {@code logging.} are not the
+ * tool's own: they are passed to the backend it starts.
+ */
+record LoadTestOptions(String storage,
+                       String stack,
+                       String target,
+                       int tasks,
+                       int threads,
+                       int rate,
+                       Duration warmup,
+                       Duration duration,
+                       Map<Operation, Integer> mix,
+                       double skew,
+                       long seed,
+                       Path report,
+                       Duration maxP99,
+                       double maxErrorRate,
+                       List<String> backendArgs) {
+
+    static final String USAGE = """
+            Usage: java -jar target/loadtest.jar [--name=value ...] | --help
+
+              --storage=jpa|memory     storage engine of the backend started (jpa: file-backed H2)   [jpa]
+              --stack=servlet|reactive web stack of the backend started (reactive: WebFlux, R2DBC;
+                                       jpa storage only)                                          [servlet]
+              --target=URL             drive a backend already running there instead of starting one
+              --tasks=N                tasks imported before the run; reads and flips pick among them [10000]
+              --threads=N              concurrent requests at most                                  [32]
+              --rate=N                 constant rate in requests/s; 0 sends as fast as the threads can [0]
+              --warmup=DURATION        run before measuring, e.g. 10s or PT10S                      [10s]
+              --duration=DURATION      measured run                                                 [60s]
+              --mix=OP:WEIGHT,...      operations and their weights, from get, flip, list, search,
+                                       create and delete            [get:50,flip:20,list:10,search:10,create:5,delete:5]
+              --skew=S                 Zipf exponent of task popularity, 0 (uniform) to 0.99        [0.99]
+              --seed=N                 random seed of the dataset and the workload                  [42]
+              --report=FILE            also write the results as JSON
+              --max-p99=DURATION       fail (exit 1) if the overall p99 latency is higher
+              --max-error-rate=R       fail (exit 1) if more than this fraction of requests fail
+
+            Other --spring.*, --server.*, --taskmanager.*, --management.* and --logging.* options
+            configure the backend started, e.g. --taskmanager.write-behind.enabled=true.
+            """;
+
+    private static final List<String> BACKEND_PREFIXES =
+            List.of("spring.", "server.", "taskmanager.", "management.", "logging.");
+
+    static LoadTestOptions parse(String[] args) {
+        String storage = "jpa";
+        String stack = "servlet";
+        String target = null;
+        int tasks = 10_000;
+        int threads = 32;
+        int rate = 0;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(60);
+        Map<Operation, Integer> mix = parseMix("get:50,flip:20,list:10,search:10,create:5,delete:5");
+        double skew = 0.99;
+        long seed = 42;
+        Path report = null;
+        Duration maxP99 = null;
+        double maxErrorRate = 1.0;
+        List<String> backendArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value: " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            if (BACKEND_PREFIXES.stream().anyMatch(name::startsWith)) {
+                backendArgs.add(arg);
+                continue;
+            }
+            switch (name) {
+                case "storage" -> storage = oneOf(name, value, "jpa", "memory");
+                case "stack" -> stack = oneOf(name, value, "servlet", "reactive");
+                case "target" -> target = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "tasks" -> tasks = atLeast(name, Integer.parseInt(value), 1);
+                case "threads" -> threads = atLeast(name, Integer.parseInt(value), 1);
+                case "rate" -> rate = atLeast(name, Integer.parseInt(value), 0);
+                case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+                case "duration" -> duration = DurationStyle.detectAndParse(value);
+                case "mix" -> mix = parseMix(value);
+                case "skew" -> {
+                    skew = Double.parseDouble(value);
+                    if (skew < 0 || skew >= 1) {
+                        throw new IllegalArgumentException("skew must be at least 0 and below 1");
+                    }
+                }
+                case "seed" -> seed = Long.parseLong(value);
+                case "report" -> report = Path.of(value);
+                case "max-p99" -> maxP99 = DurationStyle.detectAndParse(value);
+                case "max-error-rate" -> maxErrorRate = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("duration must be positive");
+        }
+        if (stack.equals("reactive") && storage.equals("memory")) {
+            throw new IllegalArgumentException("stack reactive needs storage jpa");
+        }
+        return new LoadTestOptions(storage, stack, target, tasks, threads, rate, warmup, duration, mix, skew, seed,
+                report, maxP99, maxErrorRate, List.copyOf(backendArgs));
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in mix: " + entry);
+            }
+            Operation operation = Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            mix.put(operation, atLeast("mix weight", Integer.parseInt(parts[1].trim()), 0));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("mix needs at least one operation with a weight above 0");
+        }
+        return mix;
+    }
+
+    private static String oneOf(String name, String value, String... allowed) {
+        if (!List.of(allowed).contains(value)) {
+            throw new IllegalArgumentException(name + " must be one of " + String.join(", ", allowed));
+        }
+        return value;
+    }
+
+    private static int atLeast(String name, int value, int minimum) {
+        if (value < minimum) {
+            throw new IllegalArgumentException(name + " must be at least " + minimum);
+        }
+        return value;
+    }
+}
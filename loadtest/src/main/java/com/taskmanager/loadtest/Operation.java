@@ -0,0 +1,23 @@
+package com.taskmanager.loadtest;
+
+import java.util.Locale;
+
+/** The requests the load test sends. */
+enum Operation {
+    // GET /tasks/{id} of a task picked by popularity
+    GET,
+    // PATCH /tasks/{id} setting a random status on a task picked by popularity
+    FLIP,
+    // GET /tasks?status=&limit=50, the first keyset page of a random status
+    LIST,
+    // GET /tasks/search?q=&limit=20 for a random word of the title vocabulary
+    SEARCH,
+    // POST /tasks
+    CREATE,
+    // DELETE /tasks/{id} of a task this run created; a create when there is none left
+    DELETE;
+
+    String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
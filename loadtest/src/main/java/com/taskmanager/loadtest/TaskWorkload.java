@@ -0,0 +1,181 @@
+package com.taskmanager.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.taskmanager.model.TaskStatus;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+/**
+ * The requests of the load test against one backend. Operations are drawn by weight from the
+ * mix; reads and flips pick among the imported tasks by popularity, and deletes remove tasks
+ * the run created, so the imported tasks stay in place and the dataset size stays about even.
+ */
+final class TaskWorkload {
+
+    // Same vocabulary as the benchmarks' dataset, so searches match a stable fraction of titles
+    static final String[] WORDS = {
+            "review", "deploy", "migrate", "design", "fix", "document", "refactor", "test",
+            "budget", "release", "invoice", "onboarding", "roadmap", "backup", "audit", "sprint",
+            "customer", "report", "pipeline", "dashboard", "meeting", "contract", "hiring", "security"
+    };
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    record Call(Operation operation, HttpRequest request) {
+    }
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final ZipfianKeys keys;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Queue<UUID> created = new ConcurrentLinkedQueue<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    TaskWorkload(HttpClient client, String baseUrl, Map<Operation, Integer> mix, ZipfianKeys keys) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.keys = keys;
+        List<Map.Entry<Operation, Integer>> weighted = mix.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .toList();
+        this.operations = new Operation[weighted.size()];
+        this.cumulativeWeights = new int[weighted.size()];
+        int total = 0;
+        for (int i = 0; i < weighted.size(); i++) {
+            total += weighted.get(i).getValue();
+            operations[i] = weighted.get(i).getKey();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Creates {@code count} tasks with known ids through {@code POST /tasks/import}, and returns
+     * their ids. Titles are three words of {@link #WORDS} and a number.
+     */
+    static UUID[] importTasks(HttpClient client, String baseUrl, int count, SplittableRandom random,
+                              Path directory) throws IOException, InterruptedException {
+        UUID[] ids = new UUID[count];
+        Path file = directory.resolve("tasks.ndjson");
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < count; i++) {
+                ids[i] = new UUID(random.nextLong(), random.nextLong());
+                ObjectNode task = objectMapper.createObjectNode()
+                        .put("id", ids[i].toString())
+                        .put("title", title(random, i))
+                        .put("description", "Follow up on the " + word(random) + " and " + word(random) + " items")
+                        .put("status", STATUSES[random.nextInt(STATUSES.length)].name());
+                out.write(objectMapper.writeValueAsString(task));
+                out.write('\n');
+            }
+        }
+        HttpResponse<Stream<String>> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/tasks/import"))
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofFile(file))
+                        .build(),
+                HttpResponse.BodyHandlers.ofLines());
+        String last = response.body().reduce((first, second) -> second).orElse("");
+        if (response.statusCode() != 200 || !last.contains("\"COMPLETED\"")) {
+            throw new IOException("Import of the tasks failed with status " + response.statusCode() + ": " + last);
+        }
+        Files.delete(file);
+        return ids;
+    }
+
+    Call next(SplittableRandom random) {
+        Operation operation = pick(random);
+        if (operation == Operation.DELETE) {
+            UUID id = created.poll();
+            if (id != null) {
+                return new Call(operation, request("/tasks/" + id).DELETE().build());
+            }
+            operation = Operation.CREATE;
+        }
+        return switch (operation) {
+            case GET -> new Call(operation, request("/tasks/" + keys.next(random)).GET().build());
+            case FLIP -> new Call(operation, request("/tasks/" + keys.next(random))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                            "{\"status\":\"" + STATUSES[random.nextInt(STATUSES.length)] + "\"}"))
+                    .build());
+            case LIST -> new Call(operation, request("/tasks?limit=50&status=" + STATUSES[random.nextInt(STATUSES.length)])
+                    .GET().build());
+            case SEARCH -> new Call(operation, request("/tasks/search?limit=20&q="
+                    + URLEncoder.encode(word(random), StandardCharsets.UTF_8)).GET().build());
+            case CREATE -> new Call(operation, request("/tasks")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"title\":\"" + title(random, random.nextInt(1_000_000)) + "\",\"status\":\"TODO\"}"))
+                    .build());
+            case DELETE -> throw new IllegalStateException();
+        };
+    }
+
+    /**
+     * Sends the call and returns whether it succeeded: a 2xx response, or 304. Ids of created
+     * tasks are kept for later deletes.
+     */
+    boolean send(Call call) throws InterruptedException {
+        try {
+            if (call.operation() == Operation.CREATE) {
+                HttpResponse<byte[]> response = client.send(call.request(), HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() != 201) {
+                    return false;
+                }
+                JsonNode task = objectMapper.readTree(response.body());
+                created.add(UUID.fromString(task.get("id").asText()));
+                return true;
+            }
+            int status = client.send(call.request(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status / 100 == 2 || status == 304;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private static String title(SplittableRandom random, int n) {
+        String first = word(random);
+        return Character.toUpperCase(first.charAt(0)) + first.substring(1) + " " + word(random) + " " + word(random)
+                + " #" + n;
+    }
+
+    private static String word(SplittableRandom random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,63 @@
+package com.taskmanager.loadtest;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Picks task ids with Zipf-distributed popularity: the k-th most popular id is chosen with
+ * probability proportional to 1 / k^skew. A skew of 0 is uniform; 0.99, the YCSB default, sends
+ * over a quarter of all picks among 10,000 ids to the 10 most popular ones, and half to the top
+ * 100. Ranks are assigned to ids at random, so popular tasks are spread over the id range.
+ *
+ * Uses the rejection-free method of Gray et al., "Quickly Generating Billion-Record Synthetic
+ * Databases" (SIGMOD 1994), as YCSB does, so a pick is O(1) after an O(n) setup.
+ */
+final class ZipfianKeys {
+
+    private final UUID[] keys;
+    private final double theta;
+    private final double zetaN;
+    private final double alpha;
+    private final double eta;
+
+    ZipfianKeys(UUID[] ids, double skew, SplittableRandom random) {
+        this.keys = ids.clone();
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            UUID swap = keys[i];
+            keys[i] = keys[j];
+            keys[j] = swap;
+        }
+        this.theta = skew;
+        int n = keys.length;
+        double zeta2 = zeta(2, theta);
+        this.zetaN = zeta(n, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        this.eta = n < 2 ? 1.0 : (1.0 - Math.pow(2.0 / n, 1.0 - theta)) / (1.0 - zeta2 / zetaN);
+    }
+
+    UUID next(SplittableRandom random) {
+        return keys[rank(random)];
+    }
+
+    private int rank(SplittableRandom random) {
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < 1.0 + Math.pow(0.5, theta)) {
+            return Math.min(1, keys.length - 1);
+        }
+        int rank = (int) (keys.length * Math.pow(eta * u - eta + 1.0, alpha));
+        return Math.min(rank, keys.length - 1);
+    }
+
+    private static double zeta(int n, double theta) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1.0 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}